@@ -0,0 +1,220 @@
+/**
+ * Stein's binary greatest common divisor on 32-bit limbs, least significant
+ * first, in the representation {@code MontgomeryEngine} converts
+ * {@code NaturalNumber}s to and from.
+ *
+ * <p>
+ * The common power of 2 is set aside, then both numbers are kept odd by
+ * shifting out trailing zeros, and the smaller is subtracted from the larger
+ * until they are equal. Each subtraction clears at least one bit, so there
+ * are at most as many rounds as bits, and each round takes time proportional
+ * to the current length in limbs, which shrinks as the numbers do: there is
+ * no division anywhere.
+ * </p>
+ *
+ * @author Nabeu Habetaslassa
+ *
+ */
+final class BinaryGcd {
+
+    /**
+     * Mask for reading an {@code int} limb as unsigned.
+     */
+    private static final long MASK = 0xFFFFFFFFL;
+
+    /**
+     * Bits in a limb.
+     */
+    private static final int LIMB_BITS = 32;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private BinaryGcd() {
+    }
+
+    /**
+     * Returns the number of limbs of {@code a[0, length)} left after dropping
+     * zero limbs at the top.
+     *
+     * @param a
+     *            the number
+     * @param length
+     *            the number of limbs in use
+     * @return the normalized length
+     */
+    private static int normalize(int[] a, int length) {
+        int n = length;
+        while (n > 0 && a[n - 1] == 0) {
+            n--;
+        }
+        return n;
+    }
+
+    /**
+     * Returns the number of trailing zero bits of {@code a[0, length)}.
+     *
+     * @param a
+     *            the number
+     * @param length
+     *            the number of limbs in use
+     * @return the number of trailing zero bits
+     * @requires a[0, length) /= 0
+     */
+    private static int trailingZeros(int[] a, int length) {
+        int i = 0;
+        while (i < length && a[i] == 0) {
+            i++;
+        }
+        assert i < length : "Violation of: a[0, length) /= 0";
+        return i * LIMB_BITS + Integer.numberOfTrailingZeros(a[i]);
+    }
+
+    /**
+     * Shifts {@code a[0, length)} right by {@code bits} in place and returns
+     * its new normalized length.
+     *
+     * @param a
+     *            the number
+     * @param length
+     *            the number of limbs in use
+     * @param bits
+     *            the number of bits to shift by
+     * @return the normalized length after the shift
+     * @updates a
+     */
+    private static int shiftRight(int[] a, int length, int bits) {
+        int limbs = bits / LIMB_BITS;
+        int shift = bits % LIMB_BITS;
+        int n = length - limbs;
+        if (shift == 0) {
+            System.arraycopy(a, limbs, a, 0, n);
+        } else {
+            for (int i = 0; i < n - 1; i++) {
+                a[i] = (a[i + limbs] >>> shift)
+                        | (a[i + limbs + 1] << (LIMB_BITS - shift));
+            }
+            a[n - 1] = a[length - 1] >>> shift;
+        }
+        for (int i = n; i < length; i++) {
+            a[i] = 0;
+        }
+        return normalize(a, n);
+    }
+
+    /**
+     * Compares {@code a[0, aLength)} with {@code b[0, bLength)}.
+     *
+     * @param a
+     *            the first number, normalized
+     * @param aLength
+     *            the number of limbs of a in use
+     * @param b
+     *            the second number, normalized
+     * @param bLength
+     *            the number of limbs of b in use
+     * @return a negative number, zero, or a positive number as {@code a} is
+     *         less than, equal to, or greater than {@code b}
+     */
+    private static int compare(int[] a, int aLength, int[] b, int bLength) {
+        int result = Integer.compare(aLength, bLength);
+        for (int i = aLength - 1; result == 0 && i >= 0; i--) {
+            result = Integer.compareUnsigned(a[i], b[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Subtracts {@code b[0, bLength)} from {@code a[0, aLength)} in place and
+     * returns the new normalized length of {@code a}.
+     *
+     * @param a
+     *            the minuend
+     * @param aLength
+     *            the number of limbs of a in use
+     * @param b
+     *            the subtrahend
+     * @param bLength
+     *            the number of limbs of b in use
+     * @return the normalized length of the difference
+     * @updates a
+     * @requires a >= b
+     */
+    private static int subtract(int[] a, int aLength, int[] b, int bLength) {
+        long borrow = 0;
+        int i = 0;
+        for (; i < bLength; i++) {
+            long d = (a[i] & MASK) - (b[i] & MASK) - borrow;
+            a[i] = (int) d;
+            borrow = (d >>> LIMB_BITS) & 1;
+        }
+        for (; borrow != 0 && i < aLength; i++) {
+            long d = (a[i] & MASK) - borrow;
+            a[i] = (int) d;
+            borrow = (d >>> LIMB_BITS) & 1;
+        }
+        return normalize(a, aLength);
+    }
+
+    /**
+     * Returns the greatest common divisor of {@code a} and {@code b}.
+     *
+     * @param a
+     *            one number
+     * @param b
+     *            the other number
+     * @return the greatest common divisor of a and b, as limbs
+     */
+    static int[] gcd(int[] a, int[] b) {
+        int[] u = a.clone();
+        int[] v = b.clone();
+        int uLength = normalize(u, u.length);
+        int vLength = normalize(v, v.length);
+        int[] result;
+        if (uLength == 0) {
+            result = v;
+        } else if (vLength == 0) {
+            result = u;
+        } else {
+            int uZeros = trailingZeros(u, uLength);
+            int vZeros = trailingZeros(v, vLength);
+            int common = Math.min(uZeros, vZeros);
+            uLength = shiftRight(u, uLength, uZeros);
+            vLength = shiftRight(v, vLength, vZeros);
+
+            /*
+             * Both odd: the difference of the larger and the smaller is even
+             * and has the same common divisors with the smaller
+             */
+            int order = compare(u, uLength, v, vLength);
+            while (order != 0) {
+                if (order < 0) {
+                    int[] t = u;
+                    u = v;
+                    v = t;
+                    int tLength = uLength;
+                    uLength = vLength;
+                    vLength = tLength;
+                }
+                uLength = subtract(u, uLength, v, vLength);
+                uLength = shiftRight(u, uLength, trailingZeros(u, uLength));
+                order = compare(u, uLength, v, vLength);
+            }
+
+            /*
+             * Put the common power of 2 back
+             */
+            int limbs = common / LIMB_BITS;
+            int shift = common % LIMB_BITS;
+            result = new int[uLength + limbs + 1];
+            for (int i = 0; i < uLength; i++) {
+                result[i + limbs] |= u[i] << shift;
+                if (shift != 0) {
+                    result[i + limbs + 1] = u[i] >>> (LIMB_BITS - shift);
+                }
+            }
+        }
+        return result;
+    }
+
+}
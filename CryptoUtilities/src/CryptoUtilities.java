@@ -1,7 +1,9 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import components.naturalnumber.NaturalNumber;
 import components.naturalnumber.NaturalNumber2;
-import components.random.Random;
-import components.random.Random1L;
 import components.simplereader.SimpleReader;
 import components.simplereader.SimpleReader1L;
 import components.simplewriter.SimpleWriter;
@@ -52,9 +54,69 @@ public final class CryptoUtilities {
     private static final int THREE = 3;
 
     /**
-     * Pseudo-random number generator.
+     * Bits in a limb of the numbers {@code MontgomeryEngine} converts to and
+     * from.
+     */
+    private static final int LIMB_BITS = 32;
+
+    /**
+     * {@code ThreadLocal} holding each thread's random source and the root it
+     * was split from, as a pair.
+     */
+    private static final class ThreadSources
+            extends ThreadLocal<RandomSource[]> {
+
+        @Override
+        protected RandomSource[] initialValue() {
+            return new RandomSource[2];
+        }
+
+    }
+
+    /**
+     * Root that each thread's random source is split from.
      */
-    private static final Random GENERATOR = new Random1L();
+    private static volatile RandomSource randomRoot =
+            new SplittableRandomSource();
+
+    /**
+     * Each thread's random source.
+     */
+    private static final ThreadSources THREAD_SOURCES = new ThreadSources();
+
+    /**
+     * Returns the calling thread's random source, splitting a new one from
+     * the root if the thread has none yet or the root has been replaced since.
+     *
+     * @return the calling thread's random source
+     */
+    private static RandomSource threadSource() {
+        RandomSource root = randomRoot;
+        RandomSource[] pair = THREAD_SOURCES.get();
+        if (pair[0] != root) {
+            synchronized (root) {
+                pair[1] = root.split();
+            }
+            pair[0] = root;
+        }
+        return pair[1];
+    }
+
+    /**
+     * Replaces the source that {@code randomNumber} draws from: from now on,
+     * each thread draws from its own source split from {@code source}. With
+     * a seeded {@code SplittableRandomSource}, a single thread draws the same
+     * numbers after each call with the same seed; a
+     * {@code SecureRandomSource} should be used for keys.
+     *
+     * @param source
+     *            the new root source
+     */
+    public static void setRandomSource(RandomSource source) {
+        assert source != null : "Violation of: source is not null";
+
+        randomRoot = source;
+    }
 
     /**
      * Returns a random number uniformly distributed in the interval [0, n].
@@ -69,39 +131,35 @@ public final class CryptoUtilities {
      */
     public static NaturalNumber randomNumber(NaturalNumber n) {
         assert !n.isZero() : "Violation of: n > 0";
-        final int base = 10;
-        NaturalNumber result;
-        int d = n.divideBy10();
-        if (n.isZero()) {
-            /*
-             * Incoming n has only one digit and it is d, so generate a random
-             * number uniformly distributed in [0, d]
-             */
-            int x = (int) ((d + 1) * GENERATOR.nextDouble());
-            result = new NaturalNumber2(x);
-            n.multiplyBy10(d);
-        } else {
-            /*
-             * Incoming n has more than one digit, so generate a random number
-             * (NaturalNumber) uniformly distributed in [0, n], and another
-             * (int) uniformly distributed in [0, 9] (i.e., a random digit)
-             */
-            result = randomNumber(n);
-            int lastDigit = (int) (base * GENERATOR.nextDouble());
-            result.multiplyBy10(lastDigit);
-            n.multiplyBy10(d);
-            if (result.compareTo(n) > 0) {
-                /*
-                 * In this case, we need to try again because generated number
-                 * is greater than n; the recursive call's argument is not
-                 * "smaller" than the incoming value of n, but this recursive
-                 * call has no more than a 90% chance of being made (and for
-                 * large n, far less than that), so the probability of
-                 * termination is 1
-                 */
-                result = randomNumber(n);
+
+        /*
+         * Draw as many random bits as n has, 64 at a time from the calling
+         * thread's source, until they make a number no larger than n; each
+         * try succeeds with probability over 1/2
+         */
+        int[] limit = MontgomeryEngine.fromNaturalNumber(n);
+        int top = limit.length - 1;
+        int topMask = -1 >>> Integer.numberOfLeadingZeros(limit[top]);
+        RandomSource source = threadSource();
+        int[] x = new int[limit.length];
+        int order;
+        do {
+            for (int i = 0; i < x.length; i += 2) {
+                long bits = source.nextLong();
+                x[i] = (int) bits;
+                if (i + 1 < x.length) {
+                    x[i + 1] = (int) (bits >>> LIMB_BITS);
+                }
             }
-        }
+            x[top] &= topMask;
+            order = 0;
+            for (int i = top; order == 0 && i >= 0; i--) {
+                order = Integer.compareUnsigned(x[i], limit[i]);
+            }
+        } while (order > 0);
+
+        NaturalNumber result = new NaturalNumber2();
+        MontgomeryEngine.toNaturalNumber(x, result);
         return result;
     }
 
@@ -132,6 +190,116 @@ public final class CryptoUtilities {
 
     }
 
+    /**
+     * Finds the greatest common divisor of n and m, like {@code reduceToGCD},
+     * but by Stein's binary algorithm (see {@code BinaryGcd}), which shifts
+     * and subtracts instead of dividing.
+     *
+     * @param n
+     *            one number
+     * @param m
+     *            the other number
+     * @updates n
+     * @clears m
+     * @ensures n = [greatest common divisor of #n and #m]
+     */
+    public static void reduceToGCDBinary(NaturalNumber n, NaturalNumber m) {
+        int[] gcd = BinaryGcd.gcd(MontgomeryEngine.fromNaturalNumber(n),
+                MontgomeryEngine.fromNaturalNumber(m));
+        MontgomeryEngine.toNaturalNumber(gcd, n);
+        m.clear();
+    }
+
+    /**
+     * Returns the greatest common divisor g of n and m, and finds x and y with
+     * n * x = m * y + g, by the extended Euclidean algorithm.
+     *
+     * @param n
+     *            one number
+     * @param m
+     *            the other number
+     * @param x
+     *            the multiplier of n
+     * @param y
+     *            the multiplier of m
+     * @return the greatest common divisor of n and m
+     * @replaces x, y
+     * @requires n > 0  and  m > 0
+     * @ensures <pre>
+     * extendedGCD = [greatest common divisor of n and m]  and
+     * 0 < x <= m / extendedGCD  and
+     * n * x = m * y + extendedGCD
+     * </pre>
+     */
+    public static NaturalNumber extendedGCD(NaturalNumber n, NaturalNumber m,
+            NaturalNumber x, NaturalNumber y) {
+        assert !n.isZero() : "Violation of: n > 0";
+        assert !m.isZero() : "Violation of: m > 0";
+
+        /*
+         * Euclid's algorithm on r_0 = n, r_1 = m, keeping the coefficient s_i
+         * of n in r_i = s_i * n + t_i * m; the signs of the s_i alternate, so
+         * only their magnitudes are kept, with |s_(i+1)| = |s_(i-1)| + q_i *
+         * |s_i| where q_i is the quotient of r_(i-1) by r_i
+         */
+        NaturalNumber r = new NaturalNumber2(n);
+        NaturalNumber rNext = new NaturalNumber2(m);
+        NaturalNumber s = new NaturalNumber2(1);
+        NaturalNumber sNext = new NaturalNumber2(0);
+        boolean sIsNegative = false;
+        while (!rNext.isZero()) {
+            NaturalNumber q = new NaturalNumber2(r);
+            NaturalNumber remainder = q.divide(rNext);
+            r.transferFrom(rNext);
+            rNext.transferFrom(remainder);
+            q.multiply(sNext);
+            q.add(s);
+            s.transferFrom(sNext);
+            sNext.transferFrom(q);
+            sIsNegative = !sIsNegative;
+        }
+
+        /*
+         * Now r = g = s * n + t * m; a negative s becomes positive by adding
+         * m / g, which adds n / g * m to the product with n
+         */
+        NaturalNumber xValue = new NaturalNumber2(s);
+        if (sIsNegative) {
+            xValue.copyFrom(m);
+            xValue.divide(r);
+            xValue.subtract(s);
+        }
+        NaturalNumber yValue = new NaturalNumber2(n);
+        yValue.multiply(xValue);
+        yValue.subtract(r);
+        yValue.divide(m);
+        x.copyFrom(xValue);
+        y.copyFrom(yValue);
+        return r;
+    }
+
+    /**
+     * Returns the inverse of n modulo m.
+     *
+     * @param n
+     *            the number to invert
+     * @param m
+     *            the modulus
+     * @return the inverse of n modulo m
+     * @requires m > 1  and  [n and m have no common divisor except 1]
+     * @ensures 0 < modInverse < m  and  n * modInverse mod m = 1
+     */
+    public static NaturalNumber modInverse(NaturalNumber n, NaturalNumber m) {
+        assert m.compareTo(ONE) > 0 : "Violation of: m > 1";
+
+        NaturalNumber x = new NaturalNumber2();
+        NaturalNumber y = new NaturalNumber2();
+        NaturalNumber g = extendedGCD(n, m, x, y);
+        assert g.equals(ONE) : ""
+                + "Violation of: n and m have no common divisor except 1";
+        return x;
+    }
+
     /**
      * Reports whether n is even.
      *
@@ -204,6 +372,34 @@ public final class CryptoUtilities {
 
     }
 
+    /**
+     * Updates n to its p-th power modulo m, like {@code powerMod}, but
+     * iteratively: an odd modulus goes to {@code MontgomeryEngine}, which
+     * multiplies in Montgomery form on binary limbs and scans the exponent in
+     * sliding windows, so no step divides by m. An even modulus has no
+     * Montgomery form and is left to {@code powerMod}.
+     *
+     * @param n
+     *            number to be raised to a power
+     * @param p
+     *            the power
+     * @param m
+     *            the modulus
+     * @updates n
+     * @requires m > 1
+     * @ensures n = #n ^ (p) mod m
+     */
+    public static void powerModMontgomery(NaturalNumber n, NaturalNumber p,
+            NaturalNumber m) {
+        assert m.compareTo(ONE) > 0 : "Violation of: m > 1";
+
+        if (isEven(m)) {
+            powerMod(n, p, m);
+        } else {
+            new MontgomeryEngine(m).powerMod(n, p);
+        }
+    }
+
     /**
      * Reports whether w is a "witness" that n is composite, in the sense that
      * either it is a square root of 1 (mod n), or it fails to satisfy the
@@ -236,8 +432,8 @@ public final class CryptoUtilities {
 
         boolean isWitness = false;
 
-        powerMod(w1Copy, TWO, n);
-        powerMod(w2Copy, nCopy, n);
+        powerModMontgomery(w1Copy, TWO, n);
+        powerModMontgomery(w2Copy, nCopy, n);
 
         if (w1Copy.equals(ONE) || !w2Copy.equals(ONE)) {
             isWitness = true;
@@ -343,6 +539,173 @@ public final class CryptoUtilities {
 
     }
 
+    /**
+     * Checks a range of witness candidates against the same odd number,
+     * splitting the range in half until one candidate is left and stopping
+     * as soon as any candidate, here or in another task, proves the number
+     * composite.
+     */
+    private static final class WitnessSearch extends RecursiveAction {
+
+        /**
+         * Serialization version, which {@code RecursiveAction} requires.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Decimal depiction of the number being checked; each task builds its
+         * own {@code NaturalNumber} from it, so no task shares one with
+         * another.
+         */
+        private final String n;
+
+        /**
+         * Witness candidates.
+         */
+        private final NaturalNumber[] witnesses;
+
+        /**
+         * Start of this task's range of candidates.
+         */
+        private final int low;
+
+        /**
+         * End (exclusive) of this task's range of candidates.
+         */
+        private final int high;
+
+        /**
+         * Set once some candidate has been found to be a witness.
+         */
+        private final AtomicBoolean found;
+
+        /**
+         * Constructor.
+         *
+         * @param n
+         *            decimal depiction of the number being checked
+         * @param witnesses
+         *            the witness candidates
+         * @param low
+         *            start of the range of candidates
+         * @param high
+         *            end (exclusive) of the range of candidates
+         * @param found
+         *            flag to set on finding a witness
+         */
+        WitnessSearch(String n, NaturalNumber[] witnesses, int low, int high,
+                AtomicBoolean found) {
+            this.n = n;
+            this.witnesses = witnesses;
+            this.low = low;
+            this.high = high;
+            this.found = found;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.found.get()) {
+                return;
+            }
+            if (this.high - this.low > 1) {
+                int mid = (this.low + this.high) / 2;
+                invokeAll(
+                        new WitnessSearch(this.n, this.witnesses, this.low,
+                                mid, this.found),
+                        new WitnessSearch(this.n, this.witnesses, mid,
+                                this.high, this.found));
+            } else {
+                /*
+                 * Same criterion as isWitnessToCompositeness, on numbers
+                 * owned by this task only
+                 */
+                NaturalNumber m = new NaturalNumber2(this.n);
+                NaturalNumber mMinusOne = new NaturalNumber2(m);
+                mMinusOne.decrement();
+                NaturalNumber one = new NaturalNumber2(1);
+                MontgomeryEngine engine = new MontgomeryEngine(m);
+                NaturalNumber w = this.witnesses[this.low];
+
+                NaturalNumber square = new NaturalNumber2(w);
+                engine.powerMod(square, new NaturalNumber2(2));
+                boolean isWitness = square.equals(one);
+                if (!isWitness && !this.found.get()) {
+                    NaturalNumber fermat = new NaturalNumber2(w);
+                    engine.powerMod(fermat, mMinusOne);
+                    isWitness = !fermat.equals(one);
+                }
+                if (isWitness) {
+                    this.found.set(true);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Reports whether n is a prime; may be wrong with "low" probability. Like
+     * {@code isPrime2}, but with the given number of witness candidates,
+     * which are checked in parallel on the common {@code ForkJoinPool}, one
+     * wave of as many candidates as the pool has workers at a time; all
+     * checks stop as soon as one candidate proves n composite.
+     *
+     * @param n
+     *            number to be checked
+     * @param rounds
+     *            number of witness candidates to try
+     * @return true means n is very likely prime; false means n is definitely
+     *         composite
+     * @requires n > 1  and  rounds > 0
+     * @ensures <pre>
+     * isPrimeParallel = [n is a prime number, with small probability of error
+     *         if it is reported to be prime, and no chance of error if it is
+     *         reported to be composite]
+     * </pre>
+     */
+    public static boolean isPrimeParallel(NaturalNumber n, int rounds) {
+        assert n.compareTo(ONE) > 0 : "Violation of: n > 1";
+        assert rounds > 0 : "Violation of: rounds > 0";
+
+        boolean isPrime;
+        if (n.compareTo(new NaturalNumber2(THREE)) <= 0) {
+            /*
+             * 2 and 3 are primes
+             */
+            isPrime = true;
+        } else if (isEven(n)) {
+            /*
+             * evens are composite
+             */
+            isPrime = false;
+        } else {
+            /*
+             * odd n >= 5: check candidates from [2, n-2] in waves of one per
+             * worker, drawing each wave here so that a seeded random source
+             * gives the same candidates however the pool runs them, and
+             * drawing no more once a wave finds a witness
+             */
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            String nString = n.toString();
+            AtomicBoolean found = new AtomicBoolean(false);
+            int remaining = rounds;
+            while (remaining > 0 && !found.get()) {
+                NaturalNumber[] witnesses = new NaturalNumber[Math
+                        .min(remaining, pool.getParallelism())];
+                n.subtract(FOUR);
+                for (int i = 0; i < witnesses.length; i++) {
+                    witnesses[i] = randomNumber(n);
+                    witnesses[i].add(TWO);
+                }
+                n.add(FOUR);
+                pool.invoke(new WitnessSearch(nString, witnesses, 0,
+                        witnesses.length, found));
+                remaining -= witnesses.length;
+            }
+            isPrime = !found.get();
+        }
+        return isPrime;
+    }
+
     /**
      * Generates a likely prime number at least as large as some given number.
      *
@@ -357,15 +720,25 @@ public final class CryptoUtilities {
 
         /*
          * Use isPrime2 to check numbers, starting at n and increasing through
-         * the odd numbers only (why?), until n is likely prime
+         * the odd numbers only (why?), until n is likely prime; past the
+         * primes PrimeSieve divides by, skip without calling isPrime2 every
+         * candidate the sieve shows to have a small factor
          */
 
         if (isEven(n)) {
             n.add(ONE);
         }
 
-        while (!isPrime2(n)) {
-            n.add(TWO);
+        if (n.compareTo(new NaturalNumber2(PrimeSieve.largestPrime())) <= 0) {
+            while (!isPrime2(n)) {
+                n.add(TWO);
+            }
+        } else {
+            PrimeSieve sieve = new PrimeSieve(n);
+            while (sieve.hasSmallFactor() || !isPrime2(n)) {
+                n.add(TWO);
+                sieve.advance();
+            }
         }
 
     }
@@ -0,0 +1,121 @@
+import java.math.BigInteger;
+import java.util.Random;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber2;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times {@code CryptoUtilities.reduceToGCD} against
+ * {@code CryptoUtilities.reduceToGCDBinary} on random pairs of numbers with
+ * thousands of digits and a common factor, checks that both find the same
+ * divisors, and also reports the time {@code CryptoUtilities.extendedGCD}
+ * takes on the same pairs. Run with assertion checking off and a large
+ * thread stack (for example {@code -Xss64m}), since {@code reduceToGCD}
+ * recurses once per step of Euclid's algorithm.
+ *
+ * @author Nabeu Habetaslassa
+ *
+ */
+public final class GcdBenchmark {
+
+    /**
+     * Numbers of decimal digits of the inputs.
+     */
+    private static final int[] DIGITS = { 1000, 2000, 4000 };
+
+    /**
+     * Default number of pairs per size.
+     */
+    private static final int DEFAULT_PAIRS = 3;
+
+    /**
+     * Bits per decimal digit, rounded up.
+     */
+    private static final double BITS_PER_DIGIT = 3.33;
+
+    /**
+     * Seed for the inputs.
+     */
+    private static final long SEED = 1234567;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private GcdBenchmark() {
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the number of pairs
+     *            per size
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int pairs = DEFAULT_PAIRS;
+        if (args.length > 0) {
+            pairs = Integer.parseInt(args[0]);
+        }
+
+        Random random = new Random(SEED);
+        out.println("digits\tms reduceToGCD\tms reduceToGCDBinary\tspeedup"
+                + "\tms extendedGCD\tsame results");
+        for (int digits : DIGITS) {
+            int bits = (int) (digits * BITS_PER_DIGIT);
+            String[] ns = new String[pairs];
+            String[] ms = new String[pairs];
+            for (int i = 0; i < pairs; i++) {
+                BigInteger common = new BigInteger(bits / 4, random);
+                ns[i] = common.multiply(new BigInteger(bits - bits / 4, random))
+                        .toString();
+                ms[i] = common.multiply(new BigInteger(bits - bits / 4, random))
+                        .toString();
+            }
+
+            String[] expected = new String[pairs];
+            long start = System.nanoTime();
+            for (int i = 0; i < pairs; i++) {
+                NaturalNumber n = new NaturalNumber2(ns[i]);
+                CryptoUtilities.reduceToGCD(n, new NaturalNumber2(ms[i]));
+                expected[i] = n.toString();
+            }
+            long euclid = System.nanoTime() - start;
+
+            boolean same = true;
+            start = System.nanoTime();
+            for (int i = 0; i < pairs; i++) {
+                NaturalNumber n = new NaturalNumber2(ns[i]);
+                CryptoUtilities.reduceToGCDBinary(n,
+                        new NaturalNumber2(ms[i]));
+                same = same && expected[i].equals(n.toString());
+            }
+            long binary = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < pairs; i++) {
+                NaturalNumber g = CryptoUtilities.extendedGCD(
+                        new NaturalNumber2(ns[i]), new NaturalNumber2(ms[i]),
+                        new NaturalNumber2(), new NaturalNumber2());
+                same = same && expected[i].equals(g.toString());
+            }
+            long extended = System.nanoTime() - start;
+
+            out.println(digits + "\t" + (euclid / NANOS_PER_MILLI / pairs)
+                    + "\t" + (binary / NANOS_PER_MILLI / pairs) + "\t"
+                    + ((double) euclid / binary) + "\t"
+                    + (extended / NANOS_PER_MILLI / pairs) + "\t" + same);
+        }
+
+        out.close();
+    }
+
+}
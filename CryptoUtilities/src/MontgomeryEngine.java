@@ -0,0 +1,411 @@
+import java.util.Arrays;
+
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * Modular exponentiation modulo a fixed odd modulus, using Montgomery
+ * multiplication on 32-bit limbs and sliding-window scanning of the
+ * exponent.
+ *
+ * <p>
+ * Numbers are arrays of {@code int} limbs, least significant first, read as
+ * unsigned. An engine converts its modulus once; each {@code powerMod} then
+ * converts its base and exponent, precomputes the odd powers of the base up
+ * to the window size, and runs the whole exponentiation in Montgomery form
+ * in buffers allocated up front, so no squaring or multiplication allocates
+ * anything or performs a division. An engine is not safe for use by several
+ * threads at once, since its buffers are shared by its calls.
+ * </p>
+ *
+ * @author Nabeu Habetaslassa
+ *
+ */
+final class MontgomeryEngine {
+
+    /**
+     * Mask for reading an {@code int} limb as unsigned.
+     */
+    private static final long MASK = 0xFFFFFFFFL;
+
+    /**
+     * Bits in a limb.
+     */
+    private static final int LIMB_BITS = 32;
+
+    /**
+     * Radix of the decimal chunks used to convert to and from
+     * {@code NaturalNumber}.
+     */
+    private static final int DECIMAL_CHUNK = 1000000000;
+
+    /**
+     * Decimal digits in a chunk.
+     */
+    private static final int DECIMAL_CHUNK_DIGITS = 9;
+
+    /**
+     * Exponent bit lengths above which the window widens by one bit, starting
+     * from a width of 1.
+     */
+    private static final int[] WINDOW_THRESHOLDS = { 24, 80, 240, 672 };
+
+    /**
+     * Number of Newton steps that lift the inverse of an odd number modulo 2
+     * to its inverse modulo 2^32 (each step doubles the bits that are right).
+     */
+    private static final int INVERSE_STEPS = 5;
+
+    /**
+     * Modulus.
+     */
+    private final int[] modulus;
+
+    /**
+     * Number of limbs of the modulus.
+     */
+    private final int size;
+
+    /**
+     * -modulus^(-1) mod 2^32.
+     */
+    private final int modulusInverse;
+
+    /**
+     * R^2 mod modulus, where R = 2^(32 * size).
+     */
+    private final int[] rSquared;
+
+    /**
+     * Scratch space for one Montgomery product.
+     */
+    private final int[] scratch;
+
+    /**
+     * Constructor from modulus.
+     *
+     * @param m
+     *            the modulus
+     * @requires m > 1  and  [m is odd]
+     */
+    MontgomeryEngine(NaturalNumber m) {
+        this.modulus = fromNaturalNumber(m);
+        this.size = this.modulus.length;
+        assert this.size > 0 && (this.modulus[0] & 1) == 1 : ""
+                + "Violation of: m is odd";
+
+        int inverse = this.modulus[0];
+        for (int i = 0; i < INVERSE_STEPS; i++) {
+            inverse *= 2 - this.modulus[0] * inverse;
+        }
+        this.modulusInverse = -inverse;
+
+        /*
+         * Double 1 modulo m 2 * 32 * size times to get R^2 mod m.
+         */
+        int[] r = new int[this.size];
+        r[0] = 1;
+        for (int i = 0; i < 2 * LIMB_BITS * this.size; i++) {
+            int carry = shiftLeftOne(r);
+            if (carry != 0 || compare(r, this.modulus) >= 0) {
+                subtract(r, this.modulus);
+            }
+        }
+        this.rSquared = r;
+        this.scratch = new int[this.size + 2];
+    }
+
+    /**
+     * Returns the limbs of {@code n}.
+     *
+     * @param n
+     *            the number
+     * @return the limbs of n, with no zero limbs at the end
+     */
+    static int[] fromNaturalNumber(NaturalNumber n) {
+        String s = n.toString();
+        int[] limbs = new int[s.length() / DECIMAL_CHUNK_DIGITS + 1];
+        int used = 0;
+        int first = s.length() % DECIMAL_CHUNK_DIGITS;
+        if (first == 0) {
+            first = DECIMAL_CHUNK_DIGITS;
+        }
+        for (int start = 0, end = first; end <= s.length();
+                start = end, end += DECIMAL_CHUNK_DIGITS) {
+            long carry = Integer.parseInt(s.substring(start, end));
+            for (int i = 0; i < used; i++) {
+                long t = (limbs[i] & MASK) * DECIMAL_CHUNK + carry;
+                limbs[i] = (int) t;
+                carry = t >>> LIMB_BITS;
+            }
+            if (carry != 0) {
+                limbs[used] = (int) carry;
+                used++;
+            }
+        }
+        return Arrays.copyOf(limbs, used);
+    }
+
+    /**
+     * Sets {@code n} to the number whose limbs are {@code limbs}.
+     *
+     * @param limbs
+     *            the limbs
+     * @param n
+     *            the number to set
+     * @replaces n
+     * @ensures n = limbs
+     */
+    static void toNaturalNumber(int[] limbs, NaturalNumber n) {
+        int[] q = limbs.clone();
+        int used = q.length;
+        while (used > 0 && q[used - 1] == 0) {
+            used--;
+        }
+        StringBuilder chunks = new StringBuilder();
+        while (used > 0) {
+            long remainder = 0;
+            for (int i = used - 1; i >= 0; i--) {
+                long cur = (remainder << LIMB_BITS) | (q[i] & MASK);
+                q[i] = (int) (cur / DECIMAL_CHUNK);
+                remainder = cur % DECIMAL_CHUNK;
+            }
+            while (used > 0 && q[used - 1] == 0) {
+                used--;
+            }
+            String chunk = Long.toString(remainder);
+            if (used > 0) {
+                chunk = "000000000".substring(chunk.length()) + chunk;
+            }
+            chunks.insert(0, chunk);
+        }
+        if (chunks.length() == 0) {
+            chunks.append('0');
+        }
+        n.setFromString(chunks.toString());
+    }
+
+    /**
+     * Shifts {@code a} left by one bit in place and returns the bit shifted
+     * out.
+     *
+     * @param a
+     *            the number
+     * @return the bit shifted out of the top limb
+     * @updates a
+     */
+    private static int shiftLeftOne(int[] a) {
+        int carry = 0;
+        for (int i = 0; i < a.length; i++) {
+            int next = a[i] >>> (LIMB_BITS - 1);
+            a[i] = (a[i] << 1) | carry;
+            carry = next;
+        }
+        return carry;
+    }
+
+    /**
+     * Compares {@code a[0, |b|)} with {@code b} as unsigned numbers.
+     *
+     * @param a
+     *            the first number
+     * @param b
+     *            the second number
+     * @return a negative number, zero, or a positive number as {@code a} is
+     *         less than, equal to, or greater than {@code b}
+     * @requires |a| >= |b|
+     */
+    private static int compare(int[] a, int[] b) {
+        int result = 0;
+        for (int i = b.length - 1; result == 0 && i >= 0; i--) {
+            result = Integer.compareUnsigned(a[i], b[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Subtracts {@code b} from {@code a[0, |b|)} in place, ignoring the final
+     * borrow.
+     *
+     * @param a
+     *            the minuend
+     * @param b
+     *            the subtrahend
+     * @updates a
+     * @requires |a| >= |b|
+     * @ensures a[0, |b|) = (#a[0, |b|) - b) mod 2^(32 * |b|)
+     */
+    private static void subtract(int[] a, int[] b) {
+        long borrow = 0;
+        for (int i = 0; i < b.length; i++) {
+            long d = (a[i] & MASK) - (b[i] & MASK) - borrow;
+            a[i] = (int) d;
+            borrow = (d >>> LIMB_BITS) & 1;
+        }
+    }
+
+    /**
+     * Sets {@code out} to {@code a * b / R mod modulus}, by the CIOS
+     * (coarsely integrated operand scanning) method.
+     *
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @param out
+     *            the array for the product; may be a or b
+     * @replaces out
+     * @requires <pre>
+     * |a| = |b| = |out| = this.size  and
+     * a < modulus  and  b < modulus
+     * </pre>
+     * @ensures out = a * b * R^(-1) mod modulus
+     */
+    private void multiply(int[] a, int[] b, int[] out) {
+        int s = this.size;
+        int[] t = this.scratch;
+        int[] m = this.modulus;
+        Arrays.fill(t, 0);
+        for (int i = 0; i < s; i++) {
+            long ai = a[i] & MASK;
+            long carry = 0;
+            for (int j = 0; j < s; j++) {
+                long cs = (t[j] & MASK) + ai * (b[j] & MASK) + carry;
+                t[j] = (int) cs;
+                carry = cs >>> LIMB_BITS;
+            }
+            long cs = (t[s] & MASK) + carry;
+            t[s] = (int) cs;
+            t[s + 1] = (int) (cs >>> LIMB_BITS);
+
+            long q = (t[0] * this.modulusInverse) & MASK;
+            cs = (t[0] & MASK) + q * (m[0] & MASK);
+            carry = cs >>> LIMB_BITS;
+            for (int j = 1; j < s; j++) {
+                cs = (t[j] & MASK) + q * (m[j] & MASK) + carry;
+                t[j - 1] = (int) cs;
+                carry = cs >>> LIMB_BITS;
+            }
+            cs = (t[s] & MASK) + carry;
+            t[s - 1] = (int) cs;
+            t[s] = t[s + 1] + (int) (cs >>> LIMB_BITS);
+        }
+        if (t[s] != 0 || compare(t, m) >= 0) {
+            subtract(t, m);
+        }
+        System.arraycopy(t, 0, out, 0, s);
+    }
+
+    /**
+     * Returns {@code a mod modulus} as {@code this.size} limbs.
+     *
+     * @param a
+     *            the number
+     * @return a mod modulus
+     */
+    private int[] reduce(int[] a) {
+        int[] r = new int[this.size];
+        if (a.length < this.size
+                || (a.length == this.size && compare(a, this.modulus) < 0)) {
+            System.arraycopy(a, 0, r, 0, a.length);
+        } else {
+            /*
+             * Only the base ever needs this, once per call, so shift-and-
+             * subtract one bit at a time is fast enough.
+             */
+            for (int i = a.length * LIMB_BITS - 1; i >= 0; i--) {
+                int carry = shiftLeftOne(r);
+                r[0] |= (a[i / LIMB_BITS] >>> (i % LIMB_BITS)) & 1;
+                if (carry != 0 || compare(r, this.modulus) >= 0) {
+                    subtract(r, this.modulus);
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Returns bit {@code i} of {@code e}.
+     *
+     * @param e
+     *            the number
+     * @param i
+     *            the bit index
+     * @return bit i of e
+     * @requires 0 <= i < 32 * |e|
+     */
+    private static int bit(int[] e, int i) {
+        return (e[i / LIMB_BITS] >>> (i % LIMB_BITS)) & 1;
+    }
+
+    /**
+     * Updates {@code n} to its {@code p}-th power modulo the modulus.
+     *
+     * @param n
+     *            number to be raised to a power
+     * @param p
+     *            the power
+     * @updates n
+     * @ensures n = #n ^ (p) mod [the modulus]
+     */
+    void powerMod(NaturalNumber n, NaturalNumber p) {
+        int[] e = fromNaturalNumber(p);
+        int bits = e.length * LIMB_BITS;
+        while (bits > 0 && bit(e, bits - 1) == 0) {
+            bits--;
+        }
+        int width = 1;
+        while (width - 1 < WINDOW_THRESHOLDS.length
+                && bits > WINDOW_THRESHOLDS[width - 1]) {
+            width++;
+        }
+
+        int[] x = this.reduce(fromNaturalNumber(n));
+        this.multiply(x, this.rSquared, x);
+        /*
+         * oddPowers[k] = x^(2k + 1) in Montgomery form.
+         */
+        int[][] oddPowers = new int[1 << (width - 1)][];
+        oddPowers[0] = x;
+        int[] square = new int[this.size];
+        this.multiply(x, x, square);
+        for (int k = 1; k < oddPowers.length; k++) {
+            oddPowers[k] = new int[this.size];
+            this.multiply(oddPowers[k - 1], square, oddPowers[k]);
+        }
+
+        /*
+         * Start from 1 in Montgomery form, R mod m, which is 1 * R^2 / R.
+         */
+        int[] acc = new int[this.size];
+        acc[0] = 1;
+        this.multiply(acc, this.rSquared, acc);
+        int i = bits - 1;
+        while (i >= 0) {
+            if (bit(e, i) == 0) {
+                this.multiply(acc, acc, acc);
+                i--;
+            } else {
+                int low = Math.max(i - width + 1, 0);
+                while (bit(e, low) == 0) {
+                    low++;
+                }
+                int window = 0;
+                for (int j = i; j >= low; j--) {
+                    this.multiply(acc, acc, acc);
+                    window = (window << 1) | bit(e, j);
+                }
+                this.multiply(acc, oddPowers[window >>> 1], acc);
+                i = low - 1;
+            }
+        }
+
+        /*
+         * Leave Montgomery form: acc * 1 / R.
+         */
+        int[] one = new int[this.size];
+        one[0] = 1;
+        this.multiply(acc, one, acc);
+        toNaturalNumber(acc, n);
+    }
+
+}
@@ -0,0 +1,107 @@
+import java.math.BigInteger;
+import java.util.Random;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber2;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times {@code CryptoUtilities.powerMod} against
+ * {@code CryptoUtilities.powerModMontgomery} on random odd moduli of 1024 and
+ * 2048 bits, raising a random base to the power m - 1 as a Fermat or
+ * Miller-Rabin test does, checks that both give the same answers, and reports
+ * the average time per call. Run with assertion checking off.
+ *
+ * @author Nabeu Habetaslassa
+ *
+ */
+public final class PowerModBenchmark {
+
+    /**
+     * Sizes of the moduli, in bits.
+     */
+    private static final int[] BITS = { 1024, 2048 };
+
+    /**
+     * Default number of calls per size and method.
+     */
+    private static final int DEFAULT_CALLS = 10;
+
+    /**
+     * Seed for the random moduli and bases.
+     */
+    private static final long SEED = 1009;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private PowerModBenchmark() {
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the number of calls
+     *            per size and method
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int calls = DEFAULT_CALLS;
+        if (args.length > 0) {
+            calls = Integer.parseInt(args[0]);
+        }
+
+        Random random = new Random(SEED);
+        out.println("bits\tms powerMod\tms powerModMontgomery\tspeedup"
+                + "\tsame results");
+        for (int bits : BITS) {
+            String[] bases = new String[calls];
+            String[] moduli = new String[calls];
+            for (int i = 0; i < calls; i++) {
+                BigInteger m = new BigInteger(bits, random).setBit(bits - 1)
+                        .setBit(0);
+                moduli[i] = m.toString();
+                bases[i] = new BigInteger(bits - 1, random).toString();
+            }
+
+            String[] expected = new String[calls];
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                NaturalNumber n = new NaturalNumber2(bases[i]);
+                NaturalNumber m = new NaturalNumber2(moduli[i]);
+                NaturalNumber p = new NaturalNumber2(m);
+                p.decrement();
+                CryptoUtilities.powerMod(n, p, m);
+                expected[i] = n.toString();
+            }
+            long plain = System.nanoTime() - start;
+
+            boolean same = true;
+            start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                NaturalNumber n = new NaturalNumber2(bases[i]);
+                NaturalNumber m = new NaturalNumber2(moduli[i]);
+                NaturalNumber p = new NaturalNumber2(m);
+                p.decrement();
+                CryptoUtilities.powerModMontgomery(n, p, m);
+                same = same && expected[i].equals(n.toString());
+            }
+            long montgomery = System.nanoTime() - start;
+
+            out.println(bits + "\t" + (plain / NANOS_PER_MILLI / calls) + "\t"
+                    + (montgomery / NANOS_PER_MILLI / calls) + "\t"
+                    + ((double) plain / montgomery) + "\t" + same);
+        }
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,117 @@
+import java.math.BigInteger;
+import java.util.Random;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber2;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Measures the throughput of {@code CryptoUtilities.isPrime2} and
+ * {@code CryptoUtilities.isPrimeParallel} on a batch of 1024-bit odd
+ * candidates, most of them random (so almost all composite, and rejected by
+ * the first witness) and some of them primes (which must survive every
+ * round), checks that both agree, and reports candidates per second. Run with
+ * assertion checking off, on a machine with several cores.
+ *
+ * @author Nabeu Habetaslassa
+ *
+ */
+public final class PrimalityBenchmark {
+
+    /**
+     * Size of the candidates, in bits.
+     */
+    private static final int BITS = 1024;
+
+    /**
+     * Default number of random candidates.
+     */
+    private static final int DEFAULT_RANDOM_CANDIDATES = 40;
+
+    /**
+     * Default number of prime candidates.
+     */
+    private static final int DEFAULT_PRIME_CANDIDATES = 4;
+
+    /**
+     * Seed for the candidates and the witnesses.
+     */
+    private static final long SEED = 65537;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1000000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private PrimalityBenchmark() {
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the numbers of random
+     *            and of prime candidates
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int randomCandidates = DEFAULT_RANDOM_CANDIDATES;
+        int primeCandidates = DEFAULT_PRIME_CANDIDATES;
+        if (args.length > 0) {
+            randomCandidates = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            primeCandidates = Integer.parseInt(args[1]);
+        }
+
+        Random random = new Random(SEED);
+        CryptoUtilities.setRandomSource(new SplittableRandomSource(SEED));
+        String[] candidates = new String[randomCandidates + primeCandidates];
+        for (int i = 0; i < randomCandidates; i++) {
+            candidates[i] = new BigInteger(BITS, random).setBit(BITS - 1)
+                    .setBit(0).toString();
+        }
+        for (int i = randomCandidates; i < candidates.length; i++) {
+            candidates[i] = BigInteger.probablePrime(BITS, random).toString();
+        }
+
+        boolean[] expected = new boolean[candidates.length];
+        long start = System.nanoTime();
+        for (int i = 0; i < candidates.length; i++) {
+            expected[i] = CryptoUtilities
+                    .isPrime2(new NaturalNumber2(candidates[i]));
+        }
+        long sequential = System.nanoTime() - start;
+
+        boolean same = true;
+        int primes = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < candidates.length; i++) {
+            NaturalNumber n = new NaturalNumber2(candidates[i]);
+            boolean isPrime = CryptoUtilities.isPrimeParallel(n,
+                    CryptoUtilities.FIFTY);
+            same = same && isPrime == expected[i];
+            if (isPrime) {
+                primes++;
+            }
+        }
+        long parallel = System.nanoTime() - start;
+
+        out.println(candidates.length + " candidates of " + BITS + " bits, "
+                + primes + " likely prime, " + CryptoUtilities.FIFTY
+                + " rounds, " + Runtime.getRuntime().availableProcessors()
+                + " processors");
+        out.println("isPrime2 per s\tisPrimeParallel per s\tsame results");
+        out.println((candidates.length * NANOS_PER_SECOND / sequential) + "\t"
+                + (candidates.length * NANOS_PER_SECOND / parallel) + "\t"
+                + same);
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,164 @@
+import java.math.BigInteger;
+import java.util.Random;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber2;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Searches for the next likely prime after random 1024-bit starting values
+ * twice, once testing every odd candidate the way
+ * {@code generateNextLikelyPrime} used to and once skipping the candidates
+ * {@code PrimeSieve} rejects, the way it does now, and reports the
+ * {@code powerMod} calls and time spent per prime found by each. The
+ * candidates are tested with the same rounds as {@code isPrime2}, each of
+ * which calls {@code powerMod} twice in {@code isWitnessToCompositeness}. Run
+ * with assertion checking off.
+ *
+ * @author Nabeu Habetaslassa
+ *
+ */
+public final class PrimeGenerationBenchmark {
+
+    /**
+     * Size of the starting values, in bits.
+     */
+    private static final int BITS = 1024;
+
+    /**
+     * Default number of starting values.
+     */
+    private static final int DEFAULT_STARTS = 3;
+
+    /**
+     * Calls to {@code powerMod} per witness candidate.
+     */
+    private static final int POWER_MODS_PER_WITNESS = 2;
+
+    /**
+     * Seed for the starting values and the witnesses.
+     */
+    private static final long SEED = 104729;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private PrimeGenerationBenchmark() {
+    }
+
+    /**
+     * Runs the rounds of {@code isPrime2} on {@code n} and returns the number
+     * of {@code powerMod} calls they make, negated if {@code n} turns out to
+     * be composite.
+     *
+     * @param n
+     *            the odd number to check
+     * @return the number of powerMod calls, negated iff n is composite
+     * @requires n > 4  and  [n is odd]
+     */
+    private static int countedPrimalityTest(NaturalNumber n) {
+        final NaturalNumber four = new NaturalNumber2(4);
+        final NaturalNumber two = new NaturalNumber2(2);
+        boolean isPrime = true;
+        int calls = 0;
+        for (int i = 0; i < CryptoUtilities.FIFTY && isPrime; i++) {
+            n.subtract(four);
+            NaturalNumber witness = CryptoUtilities.randomNumber(n);
+            n.add(four);
+            witness.add(two);
+            isPrime = !CryptoUtilities.isWitnessToCompositeness(witness, n);
+            calls += POWER_MODS_PER_WITNESS;
+        }
+        if (!isPrime) {
+            calls = -calls;
+        }
+        return calls;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the number of
+     *            starting values
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int starts = DEFAULT_STARTS;
+        if (args.length > 0) {
+            starts = Integer.parseInt(args[0]);
+        }
+
+        Random random = new Random(SEED);
+        CryptoUtilities.setRandomSource(new SplittableRandomSource(SEED));
+        final NaturalNumber two = new NaturalNumber2(2);
+        long plainCalls = 0;
+        long sievedCalls = 0;
+        long plainCandidates = 0;
+        long sievedCandidates = 0;
+        long plainTime = 0;
+        long sievedTime = 0;
+        boolean same = true;
+        for (int s = 0; s < starts; s++) {
+            String start = new BigInteger(BITS, random).setBit(BITS - 1)
+                    .setBit(0).toString();
+
+            long t = System.nanoTime();
+            NaturalNumber plain = new NaturalNumber2(start);
+            boolean found = false;
+            while (!found) {
+                int calls = countedPrimalityTest(plain);
+                plainCandidates++;
+                plainCalls += Math.abs(calls);
+                found = calls > 0;
+                if (!found) {
+                    plain.add(two);
+                }
+            }
+            plainTime += System.nanoTime() - t;
+
+            t = System.nanoTime();
+            NaturalNumber sieved = new NaturalNumber2(start);
+            PrimeSieve sieve = new PrimeSieve(sieved);
+            found = false;
+            while (!found) {
+                if (!sieve.hasSmallFactor()) {
+                    int calls = countedPrimalityTest(sieved);
+                    sievedCandidates++;
+                    sievedCalls += Math.abs(calls);
+                    found = calls > 0;
+                }
+                if (!found) {
+                    sieved.add(two);
+                    sieve.advance();
+                }
+            }
+            sievedTime += System.nanoTime() - t;
+
+            same = same && plain.equals(sieved);
+        }
+
+        out.println(starts + " primes after random " + BITS + "-bit values");
+        out.println("method\tcandidates tested per prime\tpowerMod calls "
+                + "per prime\tms per prime");
+        out.println("every odd\t" + ((double) plainCandidates / starts) + "\t"
+                + ((double) plainCalls / starts) + "\t"
+                + (plainTime / NANOS_PER_MILLI / starts));
+        out.println("sieved\t" + ((double) sievedCandidates / starts) + "\t"
+                + ((double) sievedCalls / starts) + "\t"
+                + (sievedTime / NANOS_PER_MILLI / starts));
+        out.println("powerMod calls saved: "
+                + (100.0 * (plainCalls - sievedCalls) / plainCalls)
+                + "%, same primes: " + same);
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,135 @@
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * Incremental sieve over consecutive odd candidates: keeps the remainders of
+ * the current candidate modulo the first few thousand odd primes, so whether
+ * the candidate has a small prime factor is known without dividing it, and
+ * moving to the next odd candidate only adds 2 to each remainder.
+ *
+ * <p>
+ * The remainders are computed from the starting value once, which takes time
+ * proportional to its number of digits times the number of primes; after
+ * that each step takes time proportional to the number of primes alone.
+ * Since a candidate equal to one of the sieving primes would be rejected
+ * along with its multiples, the starting value must exceed the largest of
+ * them.
+ * </p>
+ *
+ * @author Nabeu Habetaslassa
+ *
+ */
+final class PrimeSieve {
+
+    /**
+     * Number of odd primes to sieve by.
+     */
+    private static final int PRIME_COUNT = 2048;
+
+    /**
+     * The first {@code PRIME_COUNT} odd primes, in increasing order.
+     */
+    private static final int[] PRIMES = firstOddPrimes(PRIME_COUNT);
+
+    /**
+     * Radix of the decimal chunks read from the starting value.
+     */
+    private static final int DECIMAL_CHUNK = 1000000000;
+
+    /**
+     * Decimal digits in a chunk.
+     */
+    private static final int DECIMAL_CHUNK_DIGITS = 9;
+
+    /**
+     * Remainders of the current candidate modulo each of {@code PRIMES}.
+     */
+    private final int[] residues;
+
+    /**
+     * Returns the first {@code count} odd primes.
+     *
+     * @param count
+     *            how many primes
+     * @return the first count odd primes, in increasing order
+     * @requires count > 0
+     */
+    private static int[] firstOddPrimes(int count) {
+        int[] primes = new int[count];
+        int found = 0;
+        for (int candidate = 3; found < count; candidate += 2) {
+            boolean isPrime = true;
+            for (int i = 0; isPrime && i < found
+                    && primes[i] * primes[i] <= candidate; i++) {
+                isPrime = candidate % primes[i] != 0;
+            }
+            if (isPrime) {
+                primes[found] = candidate;
+                found++;
+            }
+        }
+        return primes;
+    }
+
+    /**
+     * Returns the largest prime sieved by.
+     *
+     * @return the largest prime sieved by
+     */
+    static int largestPrime() {
+        return PRIMES[PRIMES.length - 1];
+    }
+
+    /**
+     * Constructor from the first candidate.
+     *
+     * @param n
+     *            the first candidate
+     * @requires n > [the largest prime sieved by]  and  [n is odd]
+     */
+    PrimeSieve(NaturalNumber n) {
+        this.residues = new int[PRIMES.length];
+        String s = n.toString();
+        int first = s.length() % DECIMAL_CHUNK_DIGITS;
+        if (first == 0) {
+            first = DECIMAL_CHUNK_DIGITS;
+        }
+        for (int start = 0, end = first; end <= s.length();
+                start = end, end += DECIMAL_CHUNK_DIGITS) {
+            long chunk = Integer.parseInt(s.substring(start, end));
+            for (int i = 0; i < PRIMES.length; i++) {
+                this.residues[i] = (int) ((this.residues[i]
+                        * (long) DECIMAL_CHUNK + chunk) % PRIMES[i]);
+            }
+        }
+    }
+
+    /**
+     * Reports whether the current candidate is divisible by one of the primes
+     * sieved by.
+     *
+     * @return true iff the current candidate has a prime factor no larger than
+     *         the largest prime sieved by, so it is composite
+     */
+    boolean hasSmallFactor() {
+        boolean divisible = false;
+        for (int i = 0; !divisible && i < this.residues.length; i++) {
+            divisible = this.residues[i] == 0;
+        }
+        return divisible;
+    }
+
+    /**
+     * Moves on to the next odd candidate, which is 2 more than the current
+     * one.
+     */
+    void advance() {
+        for (int i = 0; i < this.residues.length; i++) {
+            int r = this.residues[i] + 2;
+            if (r >= PRIMES[i]) {
+                r -= PRIMES[i];
+            }
+            this.residues[i] = r;
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+/**
+ * Source of uniformly distributed random bits for
+ * {@code CryptoUtilities.randomNumber}.
+ *
+ * <p>
+ * A source is used by one thread at a time. {@code CryptoUtilities} keeps the
+ * source installed with {@code setRandomSource} as a root and gives each
+ * thread its own source, split from the root on the thread's first draw, so
+ * threads drawing random numbers never contend for one generator.
+ * </p>
+ *
+ * @author Nabeu Habetaslassa
+ *
+ */
+public interface RandomSource {
+
+    /**
+     * Returns the next 64 random bits.
+     *
+     * @return 64 uniformly distributed random bits
+     */
+    long nextLong();
+
+    /**
+     * Returns a new source for another thread, independent of this one.
+     *
+     * @return the new source
+     */
+    RandomSource split();
+
+}
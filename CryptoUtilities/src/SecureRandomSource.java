@@ -0,0 +1,28 @@
+import java.security.SecureRandom;
+
+/**
+ * {@code RandomSource} on {@code SecureRandom}, for generating keys: each
+ * split is a new {@code SecureRandom}, seeded by the platform, so nothing
+ * about one thread's bits can be learned from another's.
+ *
+ * @author Nabeu Habetaslassa
+ *
+ */
+public final class SecureRandomSource implements RandomSource {
+
+    /**
+     * Generator.
+     */
+    private final SecureRandom generator = new SecureRandom();
+
+    @Override
+    public long nextLong() {
+        return this.generator.nextLong();
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SecureRandomSource();
+    }
+
+}
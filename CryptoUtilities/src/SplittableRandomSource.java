@@ -0,0 +1,56 @@
+import java.util.SplittableRandom;
+
+/**
+ * {@code RandomSource} on {@code SplittableRandom}: fast, and, when built from
+ * a seed, deterministic, since a thread's source is split from the root in
+ * the same way each time (so a single-threaded program sees the same numbers
+ * on every run). Not suitable for secret keys.
+ *
+ * @author Nabeu Habetaslassa
+ *
+ */
+public final class SplittableRandomSource implements RandomSource {
+
+    /**
+     * Generator.
+     */
+    private final SplittableRandom generator;
+
+    /**
+     * Constructor from generator.
+     *
+     * @param generator
+     *            the generator to draw from
+     */
+    private SplittableRandomSource(SplittableRandom generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * No-argument constructor, with an unpredictable seed.
+     */
+    public SplittableRandomSource() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructor from seed.
+     *
+     * @param seed
+     *            the seed
+     */
+    public SplittableRandomSource(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    @Override
+    public long nextLong() {
+        return this.generator.nextLong();
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(this.generator.split());
+    }
+
+}
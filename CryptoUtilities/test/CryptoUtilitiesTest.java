@@ -1,5 +1,8 @@
 import static org.junit.Assert.assertEquals;
 
+import java.math.BigInteger;
+import java.util.Random;
+
 import org.junit.Test;
 
 import components.naturalnumber.NaturalNumber;
@@ -11,6 +14,31 @@ import components.naturalnumber.NaturalNumber2;
  */
 public class CryptoUtilitiesTest {
 
+    /**
+     * Seed for the random cases, so failures can be reproduced.
+     */
+    private static final long SEED = 314159;
+
+    /**
+     * Number of random cases checked against {@code powerMod}.
+     */
+    private static final int MONTGOMERY_CASES = 200;
+
+    /**
+     * Number of witness candidates for the tests of {@code isPrimeParallel}.
+     */
+    private static final int PRIMALITY_ROUNDS = 30;
+
+    /**
+     * Number of random cases for the tests of GCDs.
+     */
+    private static final int GCD_CASES = 200;
+
+    /**
+     * Number of draws for the tests of {@code randomNumber}.
+     */
+    private static final int RANDOM_SAMPLES = 10000;
+
     /*
      * Tests of reduceToGCD
      */
@@ -91,6 +119,495 @@ public class CryptoUtilitiesTest {
         assertEquals(mExpected, m);
     }
 
+    /*
+     * Tests of powerModMontgomery
+     */
+
+    @Test
+    public void testPowerModMontgomery_0_0_2() {
+        NaturalNumber n = new NaturalNumber2(0);
+        NaturalNumber nExpected = new NaturalNumber2(1);
+        NaturalNumber p = new NaturalNumber2(0);
+        NaturalNumber pExpected = new NaturalNumber2(0);
+        NaturalNumber m = new NaturalNumber2(2);
+        NaturalNumber mExpected = new NaturalNumber2(2);
+        CryptoUtilities.powerModMontgomery(n, p, m);
+        assertEquals(nExpected, n);
+        assertEquals(pExpected, p);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testPowerModMontgomery_17_18_19() {
+        NaturalNumber n = new NaturalNumber2(17);
+        NaturalNumber nExpected = new NaturalNumber2(1);
+        NaturalNumber p = new NaturalNumber2(18);
+        NaturalNumber pExpected = new NaturalNumber2(18);
+        NaturalNumber m = new NaturalNumber2(19);
+        NaturalNumber mExpected = new NaturalNumber2(19);
+        CryptoUtilities.powerModMontgomery(n, p, m);
+        assertEquals(nExpected, n);
+        assertEquals(pExpected, p);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testPowerModMontgomery_0_5_7() {
+        NaturalNumber n = new NaturalNumber2(0);
+        NaturalNumber nExpected = new NaturalNumber2(0);
+        NaturalNumber p = new NaturalNumber2(5);
+        NaturalNumber pExpected = new NaturalNumber2(5);
+        NaturalNumber m = new NaturalNumber2(7);
+        NaturalNumber mExpected = new NaturalNumber2(7);
+        CryptoUtilities.powerModMontgomery(n, p, m);
+        assertEquals(nExpected, n);
+        assertEquals(pExpected, p);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testPowerModMontgomery_25_1_7() {
+        NaturalNumber n = new NaturalNumber2(25);
+        NaturalNumber nExpected = new NaturalNumber2(4);
+        NaturalNumber p = new NaturalNumber2(1);
+        NaturalNumber pExpected = new NaturalNumber2(1);
+        NaturalNumber m = new NaturalNumber2(7);
+        NaturalNumber mExpected = new NaturalNumber2(7);
+        CryptoUtilities.powerModMontgomery(n, p, m);
+        assertEquals(nExpected, n);
+        assertEquals(pExpected, p);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testPowerModMontgomery_3_200_1000() {
+        NaturalNumber n = new NaturalNumber2(3);
+        NaturalNumber nExpected = new NaturalNumber2(1);
+        NaturalNumber p = new NaturalNumber2(200);
+        NaturalNumber pExpected = new NaturalNumber2(200);
+        NaturalNumber m = new NaturalNumber2(1000);
+        NaturalNumber mExpected = new NaturalNumber2(1000);
+        CryptoUtilities.powerModMontgomery(n, p, m);
+        assertEquals(nExpected, n);
+        assertEquals(pExpected, p);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testPowerModMontgomery_40Digits() {
+        String nDigits = "123456789123456789";
+        String pDigits = "1000000000000000000000000000001";
+        String mDigits = "10000000000000000000700000000000000000001";
+        String nExpectedDigits = "8646671895916434741269224030640649155751";
+        NaturalNumber n = new NaturalNumber2(nDigits);
+        NaturalNumber nExpected = new NaturalNumber2(nExpectedDigits);
+        NaturalNumber p = new NaturalNumber2(pDigits);
+        NaturalNumber pExpected = new NaturalNumber2(pDigits);
+        NaturalNumber m = new NaturalNumber2(mDigits);
+        NaturalNumber mExpected = new NaturalNumber2(mDigits);
+        CryptoUtilities.powerModMontgomery(n, p, m);
+        assertEquals(nExpected, n);
+        assertEquals(pExpected, p);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testPowerModMontgomery_2To521Minus1() {
+        String nDigits = "705507910865533257124642715759347962165079"
+                + "496127873157628712232092620855515829341565792985294471341581"
+                + "549523348253559118669297930718245666941450844545352570279602"
+                + "85323760313192443283334100346";
+        String pDigits = "203703597633448608626844568840937816105146"
+                + "8393665936250636140449354381299763336706183398363";
+        String mDigits = "686479766013060971498190079908139321726943"
+                + "530014330540939446345918554318339765605212255964066145455497"
+                + "7296311391480858037121987999716643812574028291115057151";
+        String nExpectedDigits = "141500206304361809580067743759675502525750"
+                + "576418149374208707114167254480444099057308940811034726134759"
+                + "2239768053482716975973604038856600144611033156478923361";
+        NaturalNumber n = new NaturalNumber2(nDigits);
+        NaturalNumber nExpected = new NaturalNumber2(nExpectedDigits);
+        NaturalNumber p = new NaturalNumber2(pDigits);
+        NaturalNumber pExpected = new NaturalNumber2(pDigits);
+        NaturalNumber m = new NaturalNumber2(mDigits);
+        NaturalNumber mExpected = new NaturalNumber2(mDigits);
+        CryptoUtilities.powerModMontgomery(n, p, m);
+        assertEquals(nExpected, n);
+        assertEquals(pExpected, p);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testPowerModMontgomery_MatchesPowerMod() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < MONTGOMERY_CASES; i++) {
+            BigInteger mBig = new BigInteger(1 + random.nextInt(300), random)
+                    .setBit(0).setBit(1);
+            String n = new BigInteger(random.nextInt(400), random).toString();
+            String p = new BigInteger(random.nextInt(200), random).toString();
+            String m = mBig.toString();
+            NaturalNumber nActual = new NaturalNumber2(n);
+            NaturalNumber nExpected = new NaturalNumber2(n);
+            CryptoUtilities.powerModMontgomery(nActual, new NaturalNumber2(p),
+                    new NaturalNumber2(m));
+            CryptoUtilities.powerMod(nExpected, new NaturalNumber2(p),
+                    new NaturalNumber2(m));
+            assertEquals(n + " ^ " + p + " mod " + m, nExpected, nActual);
+        }
+    }
+
+    /*
+     * Tests of isPrimeParallel
+     */
+
+    @Test
+    public void testIsPrimeParallel_2() {
+        NaturalNumber n = new NaturalNumber2(2);
+        assertEquals(true, CryptoUtilities.isPrimeParallel(n, 1));
+        assertEquals(new NaturalNumber2(2), n);
+    }
+
+    @Test
+    public void testIsPrimeParallel_561() {
+        NaturalNumber n = new NaturalNumber2(561);
+        assertEquals(false,
+                CryptoUtilities.isPrimeParallel(n, PRIMALITY_ROUNDS));
+        assertEquals(new NaturalNumber2(561), n);
+    }
+
+    @Test
+    public void testIsPrimeParallel_2To521Minus1() {
+        NaturalNumber n = new NaturalNumber2(2);
+        n.power(521);
+        n.decrement();
+        NaturalNumber nExpected = new NaturalNumber2(n);
+        assertEquals(true,
+                CryptoUtilities.isPrimeParallel(n, PRIMALITY_ROUNDS));
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public void testIsPrimeParallel_2To521Plus1() {
+        NaturalNumber n = new NaturalNumber2(2);
+        n.power(521);
+        n.increment();
+        assertEquals(false,
+                CryptoUtilities.isPrimeParallel(n, PRIMALITY_ROUNDS));
+    }
+
+    @Test
+    public void testIsPrimeParallel_UpTo1000() {
+        for (int i = 2; i <= 1000; i++) {
+            NaturalNumber n = new NaturalNumber2(i);
+            assertEquals("isPrimeParallel(" + i + ")",
+                    BigInteger.valueOf(i).isProbablePrime(PRIMALITY_ROUNDS),
+                    CryptoUtilities.isPrimeParallel(n, PRIMALITY_ROUNDS));
+        }
+    }
+
+    /*
+     * Tests of generateNextLikelyPrime
+     */
+
+    @Test
+    public void testGenerateNextLikelyPrime_14() {
+        NaturalNumber n = new NaturalNumber2(14);
+        NaturalNumber nExpected = new NaturalNumber2(17);
+        CryptoUtilities.generateNextLikelyPrime(n);
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public void testGenerateNextLikelyPrime_17909() {
+        NaturalNumber n = new NaturalNumber2(17909);
+        NaturalNumber nExpected = new NaturalNumber2(17909);
+        CryptoUtilities.generateNextLikelyPrime(n);
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public void testGenerateNextLikelyPrime_17910() {
+        NaturalNumber n = new NaturalNumber2(17910);
+        NaturalNumber nExpected = new NaturalNumber2(17911);
+        CryptoUtilities.generateNextLikelyPrime(n);
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public void testGenerateNextLikelyPrime_17912() {
+        NaturalNumber n = new NaturalNumber2(17912);
+        NaturalNumber nExpected = new NaturalNumber2(17921);
+        CryptoUtilities.generateNextLikelyPrime(n);
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public void testGenerateNextLikelyPrime_10To30() {
+        NaturalNumber n = new NaturalNumber2("1000000000000000000000000000000");
+        NaturalNumber nExpected = new NaturalNumber2(
+                "1000000000000000000000000000057");
+        CryptoUtilities.generateNextLikelyPrime(n);
+        assertEquals(nExpected, n);
+    }
+
+    @Test
+    public void testGenerateNextLikelyPrime_10To100() {
+        NaturalNumber n = new NaturalNumber2(10);
+        n.power(100);
+        NaturalNumber nExpected = new NaturalNumber2(n);
+        nExpected.add(new NaturalNumber2(267));
+        CryptoUtilities.generateNextLikelyPrime(n);
+        assertEquals(nExpected, n);
+    }
+
+    /*
+     * Tests of reduceToGCDBinary
+     */
+
+    @Test
+    public void testReduceToGCDBinary_0_0() {
+        NaturalNumber n = new NaturalNumber2(0);
+        NaturalNumber nExpected = new NaturalNumber2(0);
+        NaturalNumber m = new NaturalNumber2(0);
+        NaturalNumber mExpected = new NaturalNumber2(0);
+        CryptoUtilities.reduceToGCDBinary(n, m);
+        assertEquals(nExpected, n);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testReduceToGCDBinary_0_12() {
+        NaturalNumber n = new NaturalNumber2(0);
+        NaturalNumber nExpected = new NaturalNumber2(12);
+        NaturalNumber m = new NaturalNumber2(12);
+        NaturalNumber mExpected = new NaturalNumber2(0);
+        CryptoUtilities.reduceToGCDBinary(n, m);
+        assertEquals(nExpected, n);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testReduceToGCDBinary_30_21() {
+        NaturalNumber n = new NaturalNumber2(30);
+        NaturalNumber nExpected = new NaturalNumber2(3);
+        NaturalNumber m = new NaturalNumber2(21);
+        NaturalNumber mExpected = new NaturalNumber2(0);
+        CryptoUtilities.reduceToGCDBinary(n, m);
+        assertEquals(nExpected, n);
+        assertEquals(mExpected, m);
+    }
+
+    @Test
+    public void testReduceToGCDBinary_PowersOf2And3() {
+        /*
+         * n = 2^100 * 3^50, m = 2^70 * 3^80 * 5, GCD = 2^70 * 3^50
+         */
+        NaturalNumber n = new NaturalNumber2(2);
+        n.power(100);
+        NaturalNumber threeTo50 = new NaturalNumber2(3);
+        threeTo50.power(50);
+        n.multiply(threeTo50);
+        NaturalNumber m = new NaturalNumber2(2);
+        m.power(70);
+        NaturalNumber nExpected = new NaturalNumber2(m);
+        nExpected.multiply(threeTo50);
+        NaturalNumber threeTo80 = new NaturalNumber2(3);
+        threeTo80.power(80);
+        m.multiply(threeTo80);
+        m.multiply(new NaturalNumber2(5));
+        CryptoUtilities.reduceToGCDBinary(n, m);
+        assertEquals(nExpected, n);
+        assertEquals(new NaturalNumber2(0), m);
+    }
+
+    @Test
+    public void testReduceToGCDBinary_MatchesReduceToGCD() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < GCD_CASES; i++) {
+            BigInteger common = new BigInteger(random.nextInt(200), random);
+            String n = common.multiply(new BigInteger(random.nextInt(300),
+                    random)).toString();
+            String m = common.multiply(new BigInteger(random.nextInt(300),
+                    random)).toString();
+            NaturalNumber nActual = new NaturalNumber2(n);
+            NaturalNumber nExpected = new NaturalNumber2(n);
+            CryptoUtilities.reduceToGCDBinary(nActual, new NaturalNumber2(m));
+            CryptoUtilities.reduceToGCD(nExpected, new NaturalNumber2(m));
+            assertEquals("GCD(" + n + ", " + m + ")", nExpected, nActual);
+        }
+    }
+
+    /*
+     * Tests of extendedGCD and modInverse
+     */
+
+    @Test
+    public void testExtendedGCD_240_46() {
+        NaturalNumber n = new NaturalNumber2(240);
+        NaturalNumber m = new NaturalNumber2(46);
+        NaturalNumber x = new NaturalNumber2();
+        NaturalNumber y = new NaturalNumber2();
+        NaturalNumber g = CryptoUtilities.extendedGCD(n, m, x, y);
+        assertEquals(new NaturalNumber2(2), g);
+        assertEquals(new NaturalNumber2(14), x);
+        assertEquals(new NaturalNumber2(73), y);
+        assertEquals(new NaturalNumber2(240), n);
+        assertEquals(new NaturalNumber2(46), m);
+    }
+
+    @Test
+    public void testExtendedGCD_12_4() {
+        NaturalNumber n = new NaturalNumber2(12);
+        NaturalNumber m = new NaturalNumber2(4);
+        NaturalNumber x = new NaturalNumber2();
+        NaturalNumber y = new NaturalNumber2();
+        NaturalNumber g = CryptoUtilities.extendedGCD(n, m, x, y);
+        assertEquals(new NaturalNumber2(4), g);
+        assertEquals(new NaturalNumber2(1), x);
+        assertEquals(new NaturalNumber2(2), y);
+    }
+
+    @Test
+    public void testExtendedGCD_Random() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < GCD_CASES; i++) {
+            BigInteger nBig = new BigInteger(1 + random.nextInt(300), random)
+                    .setBit(0);
+            BigInteger mBig = new BigInteger(1 + random.nextInt(300), random)
+                    .setBit(1);
+            NaturalNumber n = new NaturalNumber2(nBig.toString());
+            NaturalNumber m = new NaturalNumber2(mBig.toString());
+            NaturalNumber x = new NaturalNumber2();
+            NaturalNumber y = new NaturalNumber2();
+            NaturalNumber g = CryptoUtilities.extendedGCD(n, m, x, y);
+            BigInteger gBig = nBig.gcd(mBig);
+            BigInteger xBig = new BigInteger(x.toString());
+            BigInteger yBig = new BigInteger(y.toString());
+            String message = "extendedGCD(" + nBig + ", " + mBig + ")";
+            assertEquals(message, gBig.toString(), g.toString());
+            assertEquals(message, true, xBig.signum() > 0
+                    && xBig.compareTo(mBig.divide(gBig)) <= 0);
+            assertEquals(message, nBig.multiply(xBig),
+                    mBig.multiply(yBig).add(gBig));
+        }
+    }
+
+    @Test
+    public void testModInverse_3_7() {
+        NaturalNumber n = new NaturalNumber2(3);
+        NaturalNumber m = new NaturalNumber2(7);
+        NaturalNumber inverse = CryptoUtilities.modInverse(n, m);
+        assertEquals(new NaturalNumber2(5), inverse);
+        assertEquals(new NaturalNumber2(3), n);
+        assertEquals(new NaturalNumber2(7), m);
+    }
+
+    @Test
+    public void testModInverse_65537() {
+        /*
+         * An RSA public exponent modulo a large even totient
+         */
+        NaturalNumber n = new NaturalNumber2(65537);
+        NaturalNumber m = new NaturalNumber2(2);
+        m.power(500);
+        NaturalNumber threeTo100 = new NaturalNumber2(3);
+        threeTo100.power(100);
+        m.multiply(threeTo100);
+        NaturalNumber inverse = CryptoUtilities.modInverse(n, m);
+        assertEquals(true, inverse.compareTo(m) < 0);
+        inverse.multiply(n);
+        assertEquals(new NaturalNumber2(1), inverse.divide(m));
+    }
+
+    /*
+     * Tests of randomNumber and setRandomSource
+     */
+
+    @Test
+    public void testRandomNumber_1() {
+        CryptoUtilities.setRandomSource(new SplittableRandomSource(SEED));
+        NaturalNumber n = new NaturalNumber2(1);
+        boolean[] seen = new boolean[2];
+        for (int i = 0; i < RANDOM_SAMPLES; i++) {
+            NaturalNumber r = CryptoUtilities.randomNumber(n);
+            assertEquals(true, r.compareTo(n) <= 0);
+            seen[r.toInt()] = true;
+        }
+        assertEquals(true, seen[0] && seen[1]);
+        assertEquals(new NaturalNumber2(1), n);
+    }
+
+    @Test
+    public void testRandomNumber_17() {
+        CryptoUtilities.setRandomSource(new SplittableRandomSource(SEED));
+        NaturalNumber n = new NaturalNumber2(17);
+        int[] count = new int[18];
+        for (int i = 0; i < RANDOM_SAMPLES; i++) {
+            NaturalNumber r = CryptoUtilities.randomNumber(n);
+            assertEquals(true, r.compareTo(n) <= 0);
+            count[r.toInt()]++;
+        }
+        for (int i = 0; i < count.length; i++) {
+            assertEquals("count[" + i + "] = " + count[i], true,
+                    count[i] > RANDOM_SAMPLES / count.length / 2);
+        }
+    }
+
+    @Test
+    public void testRandomNumber_2To64() {
+        /*
+         * Just over a multiple of the limb size, so most draws are rejected
+         */
+        CryptoUtilities.setRandomSource(new SplittableRandomSource(SEED));
+        NaturalNumber n = new NaturalNumber2(2);
+        n.power(64);
+        NaturalNumber half = new NaturalNumber2(2);
+        half.power(63);
+        boolean sawTop = false;
+        for (int i = 0; i < RANDOM_SAMPLES; i++) {
+            NaturalNumber r = CryptoUtilities.randomNumber(n);
+            assertEquals(true, r.compareTo(n) <= 0);
+            sawTop = sawTop || r.compareTo(half) >= 0;
+        }
+        assertEquals(true, sawTop);
+    }
+
+    @Test
+    public void testRandomNumber_SameSeedSameNumbers() {
+        NaturalNumber n = new NaturalNumber2(10);
+        n.power(50);
+        CryptoUtilities.setRandomSource(new SplittableRandomSource(SEED));
+        String first = "";
+        for (int i = 0; i < 10; i++) {
+            first += CryptoUtilities.randomNumber(n) + " ";
+        }
+        CryptoUtilities.setRandomSource(new SplittableRandomSource(SEED));
+        String second = "";
+        for (int i = 0; i < 10; i++) {
+            second += CryptoUtilities.randomNumber(n) + " ";
+        }
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testRandomNumber_SecureRandomSource() throws Exception {
+        CryptoUtilities.setRandomSource(new SecureRandomSource());
+        final NaturalNumber n = new NaturalNumber2(1000);
+        final boolean[] inRange = new boolean[1];
+        Thread other = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                NaturalNumber r = CryptoUtilities.randomNumber(n);
+                inRange[0] = r.compareTo(n) <= 0;
+            }
+        });
+        other.start();
+        other.join();
+        assertEquals(true, inRange[0]);
+        assertEquals(true, CryptoUtilities.randomNumber(n).compareTo(n) <= 0);
+        CryptoUtilities.setRandomSource(new SplittableRandomSource());
+    }
+
     @Test
     public void testReduceToGCD_10_5() {
         NaturalNumber n = new NaturalNumber2(10);
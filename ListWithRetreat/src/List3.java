@@ -6,12 +6,23 @@ import components.list.ListSecondary;
 
 /**
  * {@code List} represented as a doubly linked list, done "bare-handed", with
- * implementations of primary methods and {@code retreat} secondary method.
+ * implementations of primary methods and {@code retreat} secondary method, and
+ * with {@code append}, {@code spliceAtCursor}, and {@code splitAtCursor}
+ * moving whole chains of nodes between lists without visiting their entries.
  *
  * <p>
  * Execution-time performance of all methods implemented in this class is O(1).
  * </p>
  *
+ * <p>
+ * A {@code List3} constructed with a positive pool capacity recycles the nodes
+ * freed by {@code removeRightFront} through a free list of at most that many
+ * nodes, and {@code addRightFront} takes its node from there when it can, so a
+ * list whose length goes up and down allocates nodes only when it grows past
+ * its earlier length. {@code poolHits} and {@code poolMisses} report how often
+ * {@code addRightFront} found a node in the pool.
+ * </p>
+ *
  * @param <T>
  *            type of {@code List} entries
  * @convention <pre>
@@ -28,7 +39,10 @@ import components.list.ListSecondary;
  * [for every node n in the doubly linked list of nodes, except the one
  *  pointed to by $this.preStart, n.previous.next = n]  and
  * [for every node n in the doubly linked list of nodes, except the one
- *  pointed to by $this.postFinish, n.next.previous = n]
+ *  pointed to by $this.postFinish, n.next.previous = n]  and
+ * 0 <= $this.poolSize <= $this.poolCapacity  and
+ * [$this.pool points to the first node of a singly linked list, through
+ *  next, of $this.poolSize nodes not in the doubly linked list of nodes]
  * </pre>
  * @correspondence <pre>
  * this =
@@ -93,6 +107,32 @@ public class List3<T> extends ListSecondary<T> {
      */
     private int rightLength;
 
+    /**
+     * Maximum number of nodes kept in the pool; 0 if pooling is off.
+     */
+    private final int poolCapacity;
+
+    /**
+     * First node of the pool of free nodes, linked through next, or null if
+     * the pool is empty.
+     */
+    private Node pool;
+
+    /**
+     * Number of nodes in the pool.
+     */
+    private int poolSize;
+
+    /**
+     * Number of nodes taken from the pool by addRightFront.
+     */
+    private long poolHits;
+
+    /**
+     * Number of nodes addRightFront had to allocate while pooling was on.
+     */
+    private long poolMisses;
+
     /**
      * Checks that the part of the convention repeated below holds for the
      * current representation.
@@ -113,7 +153,8 @@ public class List3<T> extends ListSecondary<T> {
      * [for every node n in the doubly linked list of nodes, except the one
      *  pointed to by $this.preStart, n.previous.next = n]  and
      * [for every node n in the doubly linked list of nodes, except the one
-     *  pointed to by $this.postFinish, n.next.previous = n]
+     *  pointed to by $this.postFinish, n.next.previous = n]  and
+     * 0 <= $this.poolSize <= $this.poolCapacity
      * </pre>
      */
     private boolean conventionHolds() {
@@ -122,6 +163,9 @@ public class List3<T> extends ListSecondary<T> {
         assert this.preStart != null : "Violation of: $this.preStart is not null";
         assert this.lastLeft != null : "Violation of: $this.lastLeft is not null";
         assert this.postFinish != null : "Violation of: $this.postFinish is not null";
+        assert 0 <= this.poolSize
+                && this.poolSize <= this.poolCapacity : ""
+                        + "Violation of: 0 <= $this.poolSize <= $this.poolCapacity";
 
         int count = 0;
         boolean lastLeftFound = false;
@@ -172,6 +216,51 @@ public class List3<T> extends ListSecondary<T> {
         return true;
     }
 
+    /**
+     * Returns a node for a new entry, taken from the pool if there is one
+     * there, otherwise newly allocated.
+     *
+     * @return the node
+     * @updates this.pool, this.poolSize, this.poolHits, this.poolMisses
+     * @ensures [obtainNode is not in the doubly linked list of nodes]
+     */
+    private Node obtainNode() {
+        Node n;
+        if (this.pool != null) {
+            n = this.pool;
+            this.pool = n.next;
+            this.poolSize--;
+            n.next = null;
+            this.poolHits++;
+        } else {
+            n = new Node();
+            if (this.poolCapacity > 0) {
+                this.poolMisses++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns node {@code n}, just unlinked from the doubly linked list, to the
+     * pool if there is room for it there; otherwise leaves it to the garbage
+     * collector.
+     *
+     * @param n
+     *            the freed node
+     * @updates this.pool, this.poolSize
+     * @requires [n is not in the doubly linked list of nodes]
+     */
+    private void releaseNode(Node n) {
+        if (this.poolSize < this.poolCapacity) {
+            n.data = null;
+            n.previous = null;
+            n.next = this.pool;
+            this.pool = n;
+            this.poolSize++;
+        }
+    }
+
     /**
      * Creator of initial representation.
      */
@@ -191,6 +280,24 @@ public class List3<T> extends ListSecondary<T> {
      */
     public List3() {
 
+        this.poolCapacity = 0;
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor resulting in a list that recycles up to {@code poolCapacity}
+     * freed nodes.
+     *
+     * @param poolCapacity
+     *            maximum number of free nodes to keep for reuse
+     * @requires poolCapacity >= 0
+     */
+    public List3(int poolCapacity) {
+        assert poolCapacity >= 0 : "Violation of: poolCapacity >= 0";
+
+        this.poolCapacity = poolCapacity;
         this.createNewRep();
 
         assert this.conventionHolds();
@@ -200,7 +307,14 @@ public class List3<T> extends ListSecondary<T> {
     @Override
     public final List3<T> newInstance() {
         try {
-            return this.getClass().getConstructor().newInstance();
+            List3<T> result;
+            if (this.poolCapacity > 0) {
+                result = this.getClass().getConstructor(int.class)
+                        .newInstance(this.poolCapacity);
+            } else {
+                result = this.getClass().getConstructor().newInstance();
+            }
+            return result;
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -237,7 +351,7 @@ public class List3<T> extends ListSecondary<T> {
     public final void addRightFront(T x) {
         assert x != null : "Violation of: x is not null";
 
-        Node newNode = new Node();
+        Node newNode = this.obtainNode();
         newNode.data = x;
         newNode.previous = this.lastLeft;
         newNode.next = this.lastLeft.next;
@@ -256,10 +370,11 @@ public class List3<T> extends ListSecondary<T> {
         rightFront.next.previous = this.lastLeft;
 
         this.rightLength--;
+        T removed = rightFront.data;
+        this.releaseNode(rightFront);
 
         assert this.conventionHolds();
-        // Fix this line to return the result after checking the convention.
-        return rightFront.data;
+        return removed;
     }
 
     @Override
@@ -353,6 +468,124 @@ public class List3<T> extends ListSecondary<T> {
 
     }
 
+    /*
+     * Additional methods -----------------------------------------------------
+     */
+
+    /**
+     * Appends the entries of {@code other} to the end of {@code this.right} by
+     * relinking its nodes, without visiting them.
+     *
+     * @param other
+     *            the list whose entries are appended
+     * @clears other
+     * @requires other is not this
+     * @ensures <pre>
+     * this = (#this.left, #this.right * #other.left * #other.right)
+     * </pre>
+     */
+    public final void append(List3<T> other) {
+        assert other != null : "Violation of: other is not null";
+        assert other != this : "Violation of: other is not this";
+
+        int length = other.leftLength + other.rightLength;
+        if (length > 0) {
+            Node first = other.preStart.next;
+            Node last = other.postFinish.previous;
+            first.previous = this.postFinish.previous;
+            last.next = this.postFinish;
+            this.postFinish.previous.next = first;
+            this.postFinish.previous = last;
+            this.rightLength += length;
+            other.createNewRep();
+        }
+
+        assert this.conventionHolds();
+        assert other.conventionHolds();
+    }
+
+    /**
+     * Inserts the entries of {@code other} at the front of {@code this.right}
+     * by relinking its nodes, without visiting them.
+     *
+     * @param other
+     *            the list whose entries are inserted
+     * @clears other
+     * @requires other is not this
+     * @ensures <pre>
+     * this = (#this.left, #other.left * #other.right * #this.right)
+     * </pre>
+     */
+    public final void spliceAtCursor(List3<T> other) {
+        assert other != null : "Violation of: other is not null";
+        assert other != this : "Violation of: other is not this";
+
+        int length = other.leftLength + other.rightLength;
+        if (length > 0) {
+            Node first = other.preStart.next;
+            Node last = other.postFinish.previous;
+            first.previous = this.lastLeft;
+            last.next = this.lastLeft.next;
+            this.lastLeft.next.previous = last;
+            this.lastLeft.next = first;
+            this.rightLength += length;
+            other.createNewRep();
+        }
+
+        assert this.conventionHolds();
+        assert other.conventionHolds();
+    }
+
+    /**
+     * Removes {@code this.right} from {@code this} by unlinking its nodes,
+     * without visiting them, and returns it as a new list.
+     *
+     * @return the list (<>, #this.right)
+     * @updates this
+     * @ensures <pre>
+     * this = (#this.left, <>)  and  splitAtCursor = (<>, #this.right)
+     * </pre>
+     */
+    public final List3<T> splitAtCursor() {
+        List3<T> rest = this.newInstance();
+        if (this.rightLength > 0) {
+            Node first = this.lastLeft.next;
+            Node last = this.postFinish.previous;
+            this.lastLeft.next = this.postFinish;
+            this.postFinish.previous = this.lastLeft;
+            first.previous = rest.preStart;
+            last.next = rest.postFinish;
+            rest.preStart.next = first;
+            rest.postFinish.previous = last;
+            rest.rightLength = this.rightLength;
+            this.rightLength = 0;
+        }
+
+        assert this.conventionHolds();
+        assert rest.conventionHolds();
+        return rest;
+    }
+
+    /**
+     * Reports the number of times {@code addRightFront} reused a node from the
+     * pool.
+     *
+     * @return the number of pool hits
+     */
+    public final long poolHits() {
+        return this.poolHits;
+    }
+
+    /**
+     * Reports the number of times {@code addRightFront} had to allocate a node
+     * because the pool was empty; always 0 if pooling is off.
+     *
+     * @return the number of pool misses
+     */
+    public final long poolMisses() {
+        return this.poolMisses;
+    }
+
     /*
      * Other methods (overridden for performance reasons) ---------------------
      */
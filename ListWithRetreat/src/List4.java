@@ -0,0 +1,572 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as an unrolled doubly linked list, done
+ * "bare-handed", with implementations of primary methods and {@code retreat}
+ * and {@code moveToFinish} secondary methods.
+ *
+ * <p>
+ * Instead of one node per entry, entries are stored in a doubly linked list of
+ * chunks, each holding up to a fixed number of entries in an array. This cuts
+ * the per-entry overhead from three references to a little over one, and
+ * scanning the list with {@code advance} or the iterator walks down arrays
+ * instead of chasing a pointer per entry.
+ * </p>
+ *
+ * <p>
+ * The position between {@code this.left} and {@code this.right} is kept as a
+ * chunk and an offset into it. Inserting into a full chunk first splits it in
+ * half, and a chunk emptied by a removal is unlinked, while a chunk that drops
+ * to a few entries absorbs its successor if both fit in half a chunk. Shifting
+ * entries within a chunk is bounded by the chunk capacity, so the execution-time
+ * performance of all methods implemented in this class is O(1).
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * $this.leftLength >= 0  and
+ * $this.rightLength >= 0  and
+ * $this.chunkCapacity >= 2  and
+ * [$this.preStart is not null]  and
+ * [$this.postFinish is not null]  and
+ * [$this.preStart points to the first chunk of a doubly linked list of
+ *  chunks, and $this.postFinish points to the last chunk in it]  and
+ * [every chunk c other than $this.preStart and $this.postFinish has
+ *  1 <= c.count <= |c.entries|  and  |c.entries| >= 2]  and
+ * [$this.preStart.count = 0  and  $this.postFinish.count = 0]  and
+ * [the sum of c.count over all chunks c is
+ *  $this.leftLength + $this.rightLength]  and
+ * [$this.cursor points to a chunk in that doubly linked list other than
+ *  $this.postFinish]  and
+ * 0 <= $this.offset <= $this.cursor.count  and
+ * [the sum of c.count over all chunks c before $this.cursor, plus
+ *  $this.offset, is $this.leftLength]  and
+ * [for every chunk c in the doubly linked list of chunks, except the one
+ *  pointed to by $this.preStart, c.previous.next = c]  and
+ * [for every chunk c in the doubly linked list of chunks, except the one
+ *  pointed to by $this.postFinish, c.next.previous = c]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([c.entries[0, c.count) for each chunk c from $this.preStart.next
+ *    through $this.postFinish.previous, concatenated, up to and not including
+ *    $this.cursor.entries[$this.offset]],
+ *   [the remaining entries, in the same order])
+ * </pre>
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public class List4<T> extends ListSecondary<T> {
+
+    /**
+     * Default number of entries in each chunk.
+     */
+    private static final int DEFAULT_CHUNK_CAPACITY = 64;
+
+    /**
+     * Chunk class for unrolled doubly linked list chunks.
+     */
+    private final class Chunk {
+
+        /**
+         * Entries in chunk, in positions [0, count), or, if this is a "smart"
+         * Chunk, irrelevant.
+         */
+        private Object[] entries;
+
+        /**
+         * Number of entries in chunk.
+         */
+        private int count;
+
+        /**
+         * Next chunk in doubly linked list, or, if this is a trailing "smart"
+         * Chunk, irrelevant.
+         */
+        private Chunk next;
+
+        /**
+         * Previous chunk in doubly linked list, or, if this is a leading
+         * "smart" Chunk, irrelevant.
+         */
+        private Chunk previous;
+
+    }
+
+    /**
+     * Number of entries in each new chunk.
+     */
+    private final int chunkCapacity;
+
+    /**
+     * "Smart chunk" before start chunk of doubly linked list.
+     */
+    private Chunk preStart;
+
+    /**
+     * "Smart chunk" after finish chunk of doubly linked list.
+     */
+    private Chunk postFinish;
+
+    /**
+     * Chunk holding the boundary between this.left and this.right.
+     */
+    private Chunk cursor;
+
+    /**
+     * Number of entries of this.cursor that are in this.left.
+     */
+    private int offset;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.leftLength >= 0  and
+     * $this.rightLength >= 0  and
+     * [$this.preStart is not null]  and
+     * [$this.postFinish is not null]  and
+     * [$this.preStart points to the first chunk of a doubly linked list of
+     *  chunks, and $this.postFinish points to the last chunk in it]  and
+     * [every chunk c other than $this.preStart and $this.postFinish has
+     *  1 <= c.count <= |c.entries|]  and
+     * [the sum of c.count over all chunks c is
+     *  $this.leftLength + $this.rightLength]  and
+     * [$this.cursor points to a chunk in that doubly linked list other than
+     *  $this.postFinish]  and
+     * 0 <= $this.offset <= $this.cursor.count  and
+     * [the sum of c.count over all chunks c before $this.cursor, plus
+     *  $this.offset, is $this.leftLength]  and
+     * [for every chunk c in the doubly linked list of chunks, except the one
+     *  pointed to by $this.preStart, c.previous.next = c]  and
+     * [for every chunk c in the doubly linked list of chunks, except the one
+     *  pointed to by $this.postFinish, c.next.previous = c]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.preStart != null : "Violation of: $this.preStart is not null";
+        assert this.postFinish != null : "Violation of: $this.postFinish is not null";
+        assert this.preStart.count == 0 : "Violation of: $this.preStart.count = 0";
+        assert this.postFinish.count == 0 : ""
+                + "Violation of: $this.postFinish.count = 0";
+        assert 0 <= this.offset
+                && this.offset <= this.cursor.count : ""
+                        + "Violation of: 0 <= $this.offset <= $this.cursor.count";
+
+        int count = 0;
+        boolean cursorFound = false;
+        Chunk c = this.preStart;
+        while (c != this.postFinish) {
+            if (c == this.cursor) {
+                assert count + this.offset == this.leftLength : ""
+                        + "Violation of: [the sum of c.count over all chunks c"
+                        + " before $this.cursor, plus $this.offset, is"
+                        + " $this.leftLength]";
+                cursorFound = true;
+            }
+            if (c != this.preStart) {
+                assert 1 <= c.count && c.count <= c.entries.length : ""
+                        + "Violation of: [every chunk c other than"
+                        + " $this.preStart and $this.postFinish has"
+                        + " 1 <= c.count <= |c.entries|]";
+            }
+            count += c.count;
+            /*
+             * Check for every chunk c in the doubly linked list of chunks,
+             * except the one pointed to by $this.postFinish, c.next.previous =
+             * c
+             */
+            assert (c.next != null) && (c.next.previous == c) : ""
+                    + "Violation of: [for every chunk c in the doubly linked"
+                    + " list of chunks, except the one pointed to by"
+                    + " $this.postFinish, c.next.previous = c]";
+            c = c.next;
+            /*
+             * Check for every chunk c in the doubly linked list of chunks,
+             * except the one pointed to by $this.preStart, c.previous.next = c
+             */
+            assert c.previous.next == c : ""
+                    + "Violation of: [for every chunk c in the doubly linked"
+                    + " list of chunks, except the one pointed to by"
+                    + " $this.preStart, c.previous.next = c]";
+        }
+        assert count == this.leftLength + this.rightLength : ""
+                + "Violation of: [the sum of c.count over all chunks c is"
+                + " $this.leftLength + $this.rightLength]";
+        assert cursorFound : ""
+                + "Violation of: [$this.cursor points to a chunk in that doubly"
+                + " linked list other than $this.postFinish]";
+
+        return true;
+    }
+
+    /**
+     * Creates a new, empty chunk and links it into the doubly linked list
+     * right after {@code c}.
+     *
+     * @param c
+     *            the chunk to link the new chunk after
+     * @return the new chunk
+     * @requires c is not $this.postFinish
+     * @ensures <pre>
+     * linkAfter.count = 0  and  |linkAfter.entries| = $this.chunkCapacity  and
+     * c.next = linkAfter  and  linkAfter.next = #c.next
+     * </pre>
+     */
+    private Chunk linkAfter(Chunk c) {
+        Chunk newChunk = new Chunk();
+        newChunk.entries = new Object[this.chunkCapacity];
+        newChunk.previous = c;
+        newChunk.next = c.next;
+        c.next = newChunk;
+        newChunk.next.previous = newChunk;
+        return newChunk;
+    }
+
+    /**
+     * Unlinks chunk {@code c} from the doubly linked list.
+     *
+     * @param c
+     *            the chunk to unlink
+     * @requires c is neither $this.preStart nor $this.postFinish
+     * @ensures c.previous.next = #c.next  and  c.next.previous = #c.previous
+     */
+    private void unlink(Chunk c) {
+        c.previous.next = c.next;
+        c.next.previous = c.previous;
+    }
+
+    /**
+     * Moves the upper half of the entries of full chunk {@code c} into a new
+     * chunk linked in right after it.
+     *
+     * @param c
+     *            the chunk to split
+     * @return the new chunk
+     * @requires c.count = |c.entries|
+     * @ensures <pre>
+     * c.entries[0, c.count) * split.entries[0, split.count) =
+     *   #c.entries[0, #c.count)  and
+     * c.count = #c.count / 2  and  c.next = split
+     * </pre>
+     */
+    private Chunk split(Chunk c) {
+        Chunk upper = this.linkAfter(c);
+        int half = c.count / 2;
+        int moved = c.count - half;
+        System.arraycopy(c.entries, half, upper.entries, 0, moved);
+        for (int i = half; i < c.count; i++) {
+            c.entries[i] = null;
+        }
+        upper.count = moved;
+        c.count = half;
+        return upper;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.preStart = new Chunk();
+        this.postFinish = new Chunk();
+        this.preStart.next = this.postFinish;
+        this.postFinish.previous = this.preStart;
+        this.cursor = this.preStart;
+        this.offset = 0;
+        this.leftLength = 0;
+        this.rightLength = 0;
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List4() {
+
+        this.chunkCapacity = DEFAULT_CHUNK_CAPACITY;
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor resulting in chunks holding {@code chunkCapacity} entries
+     * each.
+     *
+     * @param chunkCapacity
+     *            number of entries in each chunk
+     * @requires chunkCapacity >= 2
+     */
+    public List4(int chunkCapacity) {
+        assert chunkCapacity >= 2 : "Violation of: chunkCapacity >= 2";
+
+        this.chunkCapacity = chunkCapacity;
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List4<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.chunkCapacity);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List4<?> : ""
+                + "Violation of: source is of dynamic type List4<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List4<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List4<T> localSource = (List4<T>) source;
+        this.preStart = localSource.preStart;
+        this.postFinish = localSource.postFinish;
+        this.cursor = localSource.cursor;
+        this.offset = localSource.offset;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        Chunk c = this.cursor;
+        int i = this.offset;
+        if (c == this.preStart || (i == c.count && i == c.entries.length)) {
+            /*
+             * The boundary is at the end of a chunk that has no room, so x
+             * goes at the front of the next chunk, which gets created if it is
+             * full or is $this.postFinish
+             */
+            c = c.next;
+            i = 0;
+            if (c == this.postFinish || c.count == c.entries.length) {
+                c = this.linkAfter(c.previous);
+            }
+        } else if (c.count == c.entries.length) {
+            Chunk upper = this.split(c);
+            if (i > c.count) {
+                i -= c.count;
+                c = upper;
+                this.cursor = upper;
+                this.offset = i;
+            }
+        }
+        System.arraycopy(c.entries, i, c.entries, i + 1, c.count - i);
+        c.entries[i] = x;
+        c.count++;
+        this.rightLength++;
+
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        if (this.offset == this.cursor.count) {
+            this.cursor = this.cursor.next;
+            this.offset = 0;
+        }
+        Chunk c = this.cursor;
+        int i = this.offset;
+        T removed = (T) c.entries[i];
+        c.count--;
+        System.arraycopy(c.entries, i + 1, c.entries, i, c.count - i);
+        c.entries[c.count] = null;
+        if (c.count == 0) {
+            this.cursor = c.previous;
+            this.offset = c.previous.count;
+            this.unlink(c);
+        } else if (c.next != this.postFinish
+                && c.count + c.next.count <= c.entries.length / 2) {
+            Chunk absorbed = c.next;
+            System.arraycopy(absorbed.entries, 0, c.entries, c.count,
+                    absorbed.count);
+            c.count += absorbed.count;
+            this.unlink(absorbed);
+        }
+        this.rightLength--;
+
+        assert this.conventionHolds();
+        return removed;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        if (this.offset == this.cursor.count) {
+            this.cursor = this.cursor.next;
+            this.offset = 0;
+        }
+        this.offset++;
+        this.leftLength++;
+        this.rightLength--;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+
+        this.cursor = this.preStart;
+        this.offset = 0;
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+
+        assert this.conventionHolds();
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+
+        assert this.conventionHolds();
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List4Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List4}.
+     */
+    private final class List4Iterator implements Iterator<T> {
+
+        /**
+         * Current chunk in the unrolled linked list.
+         */
+        private Chunk current;
+
+        /**
+         * Index in this.current of the next entry to return.
+         */
+        private int index;
+
+        /**
+         * No-argument constructor.
+         */
+        private List4Iterator() {
+            this.current = List4.this.preStart.next;
+            this.index = 0;
+            assert List4.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != List4.this.postFinish;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = (T) this.current.entries[this.index];
+            this.index++;
+            if (this.index == this.current.count) {
+                this.current = this.current.next;
+                this.index = 0;
+            }
+            assert List4.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void moveToFinish() {
+
+        this.cursor = this.postFinish.previous;
+        this.offset = this.cursor.count;
+        this.leftLength += this.rightLength;
+        this.rightLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+
+        if (this.offset == 0) {
+            this.cursor = this.cursor.previous;
+            this.offset = this.cursor.count;
+        }
+        this.offset--;
+        this.leftLength--;
+        this.rightLength++;
+
+        assert this.conventionHolds();
+    }
+
+}
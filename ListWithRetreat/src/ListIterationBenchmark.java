@@ -0,0 +1,172 @@
+import components.list.List;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Compares the linked {@code List3} and the unrolled {@code List4} on a list of
+ * 10M entries: building it with {@code addRightFront} and {@code advance},
+ * scanning it with the iterator, and scanning it with {@code advance}. Run
+ * with assertion checking off, since both implementations check their
+ * conventions in linear time on every call when it is on.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public final class ListIterationBenchmark {
+
+    /**
+     * Default number of entries in the list.
+     */
+    private static final int DEFAULT_LENGTH = 10000000;
+
+    /**
+     * Number of times each scan is repeated; the best time is reported.
+     */
+    private static final int REPEATS = 5;
+
+    /**
+     * Number of distinct entry values, so that boxing does not allocate.
+     */
+    private static final int VALUES = 128;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private ListIterationBenchmark() {
+    }
+
+    /**
+     * Appends {@code length} entries to {@code list} and reports the time
+     * taken.
+     *
+     * @param list
+     *            the list to fill
+     * @param length
+     *            the number of entries
+     * @return the elapsed time in nanoseconds
+     * @updates list
+     * @requires list = (<>, <>)
+     * @ensures |list.left| = length  and  list.right = <>
+     */
+    private static long build(List<Integer> list, int length) {
+        long start = System.nanoTime();
+        for (int i = 0; i < length; i++) {
+            list.addRightFront(i % VALUES);
+            list.advance();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Sums the entries of {@code list} with its iterator, {@link #REPEATS}
+     * times, and reports the best time.
+     *
+     * @param list
+     *            the list to scan
+     * @param sum
+     *            one-element array receiving the sum, so the scan is not
+     *            optimized away
+     * @return the best elapsed time in nanoseconds
+     * @updates sum
+     */
+    private static long iterate(List<Integer> list, long[] sum) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < REPEATS; r++) {
+            long start = System.nanoTime();
+            long s = 0;
+            for (int x : list) {
+                s += x;
+            }
+            long elapsed = System.nanoTime() - start;
+            sum[0] += s;
+            if (elapsed < best) {
+                best = elapsed;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Moves the whole of {@code list} from right to left one entry at a time
+     * with {@code advance}, {@link #REPEATS} times, and reports the best time.
+     *
+     * @param list
+     *            the list to scan
+     * @return the best elapsed time in nanoseconds
+     * @updates list
+     * @ensures list = (#list.left * #list.right, <>)
+     */
+    private static long advance(List<Integer> list) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < REPEATS; r++) {
+            list.moveToStart();
+            long start = System.nanoTime();
+            int n = list.rightLength();
+            for (int i = 0; i < n; i++) {
+                list.advance();
+            }
+            long elapsed = System.nanoTime() - start;
+            if (elapsed < best) {
+                best = elapsed;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Runs the benchmark on {@code list} and reports the results.
+     *
+     * @param out
+     *            the output stream
+     * @param name
+     *            the name of the implementation
+     * @param list
+     *            the list to use
+     * @param length
+     *            the number of entries
+     * @updates out.content, list
+     * @requires out.is_open  and  list = (<>, <>)
+     * @ensures out.content = #out.content * [one line of results]
+     */
+    private static void run(SimpleWriter out, String name, List<Integer> list,
+            int length) {
+        long[] sum = new long[1];
+        long buildTime = build(list, length);
+        long iterateTime = iterate(list, sum);
+        long advanceTime = advance(list);
+        out.println(name + "\t" + (buildTime / NANOS_PER_MILLI) + "\t"
+                + (iterateTime / NANOS_PER_MILLI) + "\t"
+                + (advanceTime / NANOS_PER_MILLI) + "\t"
+                + ((double) iterateTime / length) + "\t" + sum[0]);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the list length
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int length = DEFAULT_LENGTH;
+        if (args.length > 0) {
+            length = Integer.parseInt(args[0]);
+        }
+
+        out.println("length " + length);
+        out.println(
+                "list\tms build\tms iterate\tms advance\tns/entry\tchecksum");
+        run(out, "List3", new List3<Integer>(), length);
+        run(out, "List4", new List4<Integer>(), length);
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,158 @@
+import java.lang.management.ManagementFactory;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Compares plain {@code List3} with {@code List3} in pooled mode on a
+ * queue-like workload: entries are added at the finish and removed from the
+ * start of a list that stays at a fixed length. For each it reports
+ * throughput, bytes allocated per operation (read from the HotSpot
+ * per-thread allocation counter, so 0 is shown on JVMs without one), and the
+ * pool hits and misses. Run with assertion checking off.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public final class NodePoolBenchmark {
+
+    /**
+     * Number of entries the list holds throughout the run.
+     */
+    private static final int QUEUE_LENGTH = 1000;
+
+    /**
+     * Default number of add/remove pairs timed.
+     */
+    private static final int DEFAULT_OPERATIONS = 20000000;
+
+    /**
+     * Number of pooled nodes in pooled mode.
+     */
+    private static final int POOL_CAPACITY = 64;
+
+    /**
+     * Number of distinct entry values, so that boxing does not allocate.
+     */
+    private static final int VALUES = 128;
+
+    /**
+     * Number of untimed warm-up rounds before the timed round.
+     */
+    private static final int WARMUPS = 3;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NodePoolBenchmark() {
+    }
+
+    /**
+     * Reports the number of bytes allocated so far by the current thread, or
+     * 0 if the JVM does not keep that count.
+     *
+     * @return the bytes allocated by the current thread
+     */
+    private static long allocatedBytes() {
+        long bytes = 0;
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            bytes = ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return bytes;
+    }
+
+    /**
+     * Runs {@code operations} add/remove pairs on {@code list}.
+     *
+     * @param list
+     *            the list to use
+     * @param operations
+     *            the number of add/remove pairs
+     * @return the sum of the removed entries, so the work is not optimized
+     *         away
+     * @updates list
+     * @requires |list.left * list.right| = QUEUE_LENGTH
+     * @ensures |list.left * list.right| = QUEUE_LENGTH
+     */
+    private static long churn(List3<Integer> list, int operations) {
+        long sum = 0;
+        for (int i = 0; i < operations; i++) {
+            list.moveToFinish();
+            list.addRightFront(i % VALUES);
+            list.moveToStart();
+            sum += list.removeRightFront();
+        }
+        return sum;
+    }
+
+    /**
+     * Runs the benchmark on {@code list} and reports the results.
+     *
+     * @param out
+     *            the output stream
+     * @param name
+     *            the name of the configuration
+     * @param list
+     *            the list to use
+     * @param operations
+     *            the number of add/remove pairs timed
+     * @updates out.content, list
+     * @requires out.is_open  and  list = (<>, <>)
+     * @ensures out.content = #out.content * [one line of results]
+     */
+    private static void run(SimpleWriter out, String name, List3<Integer> list,
+            int operations) {
+        for (int i = 0; i < QUEUE_LENGTH; i++) {
+            list.addRightFront(i % VALUES);
+        }
+        long sum = 0;
+        for (int i = 0; i < WARMUPS; i++) {
+            sum += churn(list, operations);
+        }
+        long hits = list.poolHits();
+        long misses = list.poolMisses();
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        sum += churn(list, operations);
+        long elapsed = System.nanoTime() - start;
+        bytes = allocatedBytes() - bytes;
+        out.println(name + "\t" + (elapsed / NANOS_PER_MILLI) + "\t"
+                + ((double) elapsed / operations) + "\t"
+                + ((double) bytes / operations) + "\t"
+                + (list.poolHits() - hits) + "\t"
+                + (list.poolMisses() - misses) + "\t" + sum);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the number of
+     *            add/remove pairs
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int operations = DEFAULT_OPERATIONS;
+        if (args.length > 0) {
+            operations = Integer.parseInt(args[0]);
+        }
+
+        out.println("operations " + operations + ", length " + QUEUE_LENGTH);
+        out.println("list\tms\tns/op\tbytes/op\thits\tmisses\tchecksum");
+        run(out, "plain", new List3<Integer>(), operations);
+        run(out, "pooled", new List3<Integer>(POOL_CAPACITY), operations);
+
+        out.close();
+    }
+
+}
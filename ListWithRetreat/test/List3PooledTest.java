@@ -0,0 +1,92 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List3} using non-default
+ * constructor and a small node pool, plus tests of the pool metrics.
+ */
+public class List3PooledTest extends ListTest {
+
+    /**
+     * Pool capacity to be used in tests.
+     */
+    private static final int TEST_POOL_CAPACITY = 2;
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List3<String>(TEST_POOL_CAPACITY);
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    /*
+     * Pool metrics tests
+     */
+    @Test
+    public final void testPoolMissesWhenEmpty() {
+        List3<String> list = new List3<String>(TEST_POOL_CAPACITY);
+        list.addRightFront("a");
+        list.addRightFront("b");
+        assertEquals(0, list.poolHits());
+        assertEquals(2, list.poolMisses());
+    }
+
+    @Test
+    public final void testPoolHitsAfterRemove() {
+        List3<String> list = new List3<String>(TEST_POOL_CAPACITY);
+        list.addRightFront("a");
+        assertEquals("a", list.removeRightFront());
+        list.addRightFront("b");
+        assertEquals(1, list.poolHits());
+        assertEquals(1, list.poolMisses());
+        assertEquals("b", list.removeRightFront());
+    }
+
+    @Test
+    public final void testPoolIsBounded() {
+        List3<String> list = new List3<String>(TEST_POOL_CAPACITY);
+        list.addRightFront("a");
+        list.addRightFront("b");
+        list.addRightFront("c");
+        list.removeRightFront();
+        list.removeRightFront();
+        list.removeRightFront();
+        list.addRightFront("d");
+        list.addRightFront("e");
+        list.addRightFront("f");
+        assertEquals(2, list.poolHits());
+        assertEquals(4, list.poolMisses());
+        assertEquals("f", list.removeRightFront());
+        assertEquals("e", list.removeRightFront());
+        assertEquals("d", list.removeRightFront());
+    }
+
+    @Test
+    public final void testNewInstanceKeepsPool() {
+        List3<String> list = new List3<String>(TEST_POOL_CAPACITY);
+        List3<String> copy = list.newInstance();
+        copy.addRightFront("a");
+        copy.removeRightFront();
+        copy.addRightFront("b");
+        assertEquals(1, copy.poolHits());
+        assertEquals(1, copy.poolMisses());
+    }
+
+    @Test
+    public final void testNoPoolNoMetrics() {
+        List3<String> list = new List3<String>();
+        list.addRightFront("a");
+        list.removeRightFront();
+        list.addRightFront("b");
+        assertEquals(0, list.poolHits());
+        assertEquals(0, list.poolMisses());
+    }
+
+}
@@ -0,0 +1,192 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code List3}'s {@code append},
+ * {@code spliceAtCursor}, and {@code splitAtCursor}.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public class List3SpliceTest {
+
+    /**
+     * Creates and returns a {@code List3<String>} with the given entries and
+     * length of the left string equal to {@code leftLength}.
+     *
+     * @param leftLength
+     *            the length of the left string in the constructed list
+     * @param args
+     *            the entries for the list
+     * @return the constructed list
+     * @requires 0 <= leftLength <= args.length
+     * @ensures <pre>
+     * createFromArgs =
+     *   ([first leftLength entries in args], [remaining entries in args])
+     * </pre>
+     */
+    private static List3<String> createFromArgs(int leftLength,
+            String... args) {
+        List3<String> list = new List3<String>();
+        for (String s : args) {
+            list.addRightFront(s);
+            list.advance();
+        }
+        list.moveToStart();
+        for (int i = 0; i < leftLength; i++) {
+            list.advance();
+        }
+        return list;
+    }
+
+    /*
+     * Append tests
+     */
+    @Test
+    public final void testAppendEmptyToEmpty() {
+        List3<String> list = createFromArgs(0);
+        List3<String> other = createFromArgs(0);
+        list.append(other);
+        assertEquals(createFromArgs(0), list);
+        assertEquals(createFromArgs(0), other);
+    }
+
+    @Test
+    public final void testAppendToEmpty() {
+        List3<String> list = createFromArgs(0);
+        List3<String> other = createFromArgs(1, "a", "b");
+        list.append(other);
+        assertEquals(createFromArgs(0, "a", "b"), list);
+        assertEquals(createFromArgs(0), other);
+    }
+
+    @Test
+    public final void testAppendEmpty() {
+        List3<String> list = createFromArgs(1, "a", "b");
+        List3<String> other = createFromArgs(0);
+        list.append(other);
+        assertEquals(createFromArgs(1, "a", "b"), list);
+        assertEquals(createFromArgs(0), other);
+    }
+
+    @Test
+    public final void testAppendCursorAtFinish() {
+        List3<String> list = createFromArgs(2, "a", "b");
+        List3<String> other = createFromArgs(1, "c", "d");
+        list.append(other);
+        assertEquals(createFromArgs(2, "a", "b", "c", "d"), list);
+        assertEquals(createFromArgs(0), other);
+        list.moveToFinish();
+        list.retreat();
+        assertEquals("d", list.removeRightFront());
+    }
+
+    @Test
+    public final void testAppendCursorInMiddle() {
+        List3<String> list = createFromArgs(1, "a", "b");
+        List3<String> other = createFromArgs(0, "c", "d", "e");
+        list.append(other);
+        assertEquals(createFromArgs(1, "a", "b", "c", "d", "e"), list);
+        assertEquals(createFromArgs(0), other);
+    }
+
+    /*
+     * Splice tests
+     */
+    @Test
+    public final void testSpliceIntoEmpty() {
+        List3<String> list = createFromArgs(0);
+        List3<String> other = createFromArgs(2, "a", "b");
+        list.spliceAtCursor(other);
+        assertEquals(createFromArgs(0, "a", "b"), list);
+        assertEquals(createFromArgs(0), other);
+    }
+
+    @Test
+    public final void testSpliceEmpty() {
+        List3<String> list = createFromArgs(1, "a", "b");
+        List3<String> other = createFromArgs(0);
+        list.spliceAtCursor(other);
+        assertEquals(createFromArgs(1, "a", "b"), list);
+    }
+
+    @Test
+    public final void testSpliceAtStart() {
+        List3<String> list = createFromArgs(0, "c", "d");
+        List3<String> other = createFromArgs(1, "a", "b");
+        list.spliceAtCursor(other);
+        assertEquals(createFromArgs(0, "a", "b", "c", "d"), list);
+        assertEquals(createFromArgs(0), other);
+    }
+
+    @Test
+    public final void testSpliceInMiddle() {
+        List3<String> list = createFromArgs(1, "a", "d");
+        List3<String> other = createFromArgs(0, "b", "c");
+        list.spliceAtCursor(other);
+        assertEquals(createFromArgs(1, "a", "b", "c", "d"), list);
+        assertEquals(createFromArgs(0), other);
+        list.moveToFinish();
+        list.retreat();
+        list.retreat();
+        assertEquals("c", list.removeRightFront());
+    }
+
+    @Test
+    public final void testSpliceAtFinish() {
+        List3<String> list = createFromArgs(2, "a", "b");
+        List3<String> other = createFromArgs(0, "c");
+        list.spliceAtCursor(other);
+        assertEquals(createFromArgs(2, "a", "b", "c"), list);
+    }
+
+    /*
+     * Split tests
+     */
+    @Test
+    public final void testSplitEmpty() {
+        List3<String> list = createFromArgs(0);
+        List3<String> rest = list.splitAtCursor();
+        assertEquals(createFromArgs(0), list);
+        assertEquals(createFromArgs(0), rest);
+    }
+
+    @Test
+    public final void testSplitAtStart() {
+        List3<String> list = createFromArgs(0, "a", "b");
+        List3<String> rest = list.splitAtCursor();
+        assertEquals(createFromArgs(0), list);
+        assertEquals(createFromArgs(0, "a", "b"), rest);
+    }
+
+    @Test
+    public final void testSplitInMiddle() {
+        List3<String> list = createFromArgs(2, "a", "b", "c", "d");
+        List3<String> rest = list.splitAtCursor();
+        assertEquals(createFromArgs(2, "a", "b"), list);
+        assertEquals(createFromArgs(0, "c", "d"), rest);
+        list.addRightFront("e");
+        rest.moveToFinish();
+        rest.retreat();
+        assertEquals("d", rest.removeRightFront());
+    }
+
+    @Test
+    public final void testSplitAtFinish() {
+        List3<String> list = createFromArgs(2, "a", "b");
+        List3<String> rest = list.splitAtCursor();
+        assertEquals(createFromArgs(2, "a", "b"), list);
+        assertEquals(createFromArgs(0), rest);
+    }
+
+    @Test
+    public final void testSplitThenAppendRestores() {
+        List3<String> list = createFromArgs(1, "a", "b", "c");
+        List3<String> rest = list.splitAtCursor();
+        list.append(rest);
+        assertEquals(createFromArgs(1, "a", "b", "c"), list);
+    }
+
+}
@@ -0,0 +1,25 @@
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List4} using non-default
+ * constructor and chunk capacity 2, so that chunks split, empty, and merge.
+ */
+public class List4Test2 extends ListTest {
+
+    /**
+     * Chunk capacity to be used in tests.
+     */
+    private static final int TEST_CHUNK_CAPACITY = 2;
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List4<String>(TEST_CHUNK_CAPACITY);
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+}
@@ -9,30 +9,86 @@ import components.map.MapSecondary;
  * {@code Map} represented as a hash table using {@code Map}s for the buckets,
  * with implementations of primary methods.
  *
+ * <p>
+ * The hash table grows when {@code size / |hashTable|} exceeds the load
+ * factor. Growing does not rehash everything at once: the old table is kept in
+ * {@code $this.oldTable} and a few of its buckets are moved into the new table
+ * on every {@code add}, {@code remove}, and {@code removeAny}, so no single
+ * call pays for a full rehash. Enough buckets are moved per call (more for
+ * smaller load factors) that a migration always ends before the next growth
+ * starts. While this migration is in progress, a key
+ * lives in the old table if its old bucket has not been moved yet, and in the
+ * new table otherwise. Buckets are only created when first needed (a
+ * {@code null} entry is an empty bucket), so growing allocates just the new
+ * array.
+ * </p>
+ *
+ * <p>
+ * By default a key's bucket is its hash code mod the table size. In the
+ * opt-in "mask" mode ({@link #Map4(int, double, boolean)}), table sizes are
+ * powers of 2, the hash code's high bits are folded into its low bits, and
+ * the bucket is found with a bit mask instead of a division. Each operation
+ * computes the key's hash code once and reuses it for both tables.
+ * </p>
+ *
  * @param <K>
  *            type of {@code Map} domain (key) entries
  * @param <V>
  *            type of {@code Map} range (associated value) entries
+ * @mathdefinitions <pre>
+ * INDEX(
+ *   x: K,
+ *   n: integer,
+ *   useMask: boolean
+ *  ): integer is
+ *  if useMask
+ *  then [computed result of x.hashCode(), with its high 16 bits XORed into
+ *        its low 16 bits] mod n
+ *  else [computed result of x.hashCode()] mod n
+ * </pre>
  * @convention <pre>
  * |$this.hashTable| > 0  and
+ * $this.loadFactor > 0  and
+ * $this.migrationStep =
+ *   max(MIGRATION_STEP, ceil(1 / $this.loadFactor) + 1)  and
+ * if $this.useMask then
+ *   [|$this.hashTable| is a power of 2]  and
+ *   ($this.oldTable = null  or  [|$this.oldTable| is a power of 2])  and
  * for all i: integer, pf: PARTIAL_FUNCTION, x: K
  *     where (0 <= i  and  i < |$this.hashTable|  and
  *            <pf> = $this.hashTable[i, i+1)  and
  *            x is in DOMAIN(pf))
- *   ([computed result of x.hashCode()] mod |$this.hashTable| = i))  and
- * for all i: integer
- *     where (0 <= i  and  i < |$this.hashTable|)
- *   ([entry at position i in $this.hashTable is not null])  and
+ *   (INDEX(x, |$this.hashTable|, $this.useMask) = i  and
+ *    ($this.oldTable = null  or
+ *     INDEX(x, |$this.oldTable|, $this.useMask) < $this.migrated))  and
+ * if $this.oldTable /= null then
+ *   0 <= $this.migrated  and  $this.migrated < |$this.oldTable|  and
+ *   for all i: integer, pf: PARTIAL_FUNCTION, x: K
+ *       where ($this.migrated <= i  and  i < |$this.oldTable|  and
+ *              <pf> = $this.oldTable[i, i+1)  and
+ *              x is in DOMAIN(pf))
+ *     (INDEX(x, |$this.oldTable|, $this.useMask) = i)  and
  * $this.size = sum i: integer, pf: PARTIAL_FUNCTION
  *     where (0 <= i  and  i < |$this.hashTable|  and
  *            <pf> = $this.hashTable[i, i+1))
- *   (|pf|)
+ *   (|pf|) +
+ *   [if $this.oldTable = null then 0
+ *    else sum i: integer, pf: PARTIAL_FUNCTION
+ *           where ($this.migrated <= i  and  i < |$this.oldTable|  and
+ *                  <pf> = $this.oldTable[i, i+1))
+ *         (|pf|)]
  * </pre>
  * @correspondence <pre>
+ * [a null entry in $this.hashTable or $this.oldTable stands for {}]  and
  * this = union i: integer, pf: PARTIAL_FUNCTION
  *            where (0 <= i  and  i < |$this.hashTable|  and
  *                   <pf> = $this.hashTable[i, i+1))
- *          (pf)
+ *          (pf)  union
+ *        [if $this.oldTable = null then {}
+ *         else union i: integer, pf: PARTIAL_FUNCTION
+ *                where ($this.migrated <= i  and  i < |$this.oldTable|  and
+ *                       <pf> = $this.oldTable[i, i+1))
+ *              (pf)]
  * </pre>
  *
  * @author Nabeu Habetaslassa
@@ -50,11 +106,48 @@ public class Map4<K, V> extends MapSecondary<K, V> {
      */
     private static final int DEFAULT_HASH_TABLE_SIZE = 101;
 
+    /**
+     * Default maximum ratio of size to hash table size before growing.
+     */
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+
+    /**
+     * Least number of old buckets moved into the new hash table per update.
+     */
+    private static final int MIGRATION_STEP = 4;
+
     /**
      * Buckets for hashing.
      */
     private Map<K, V>[] hashTable;
 
+    /**
+     * Buckets of the hash table being migrated out of, or null if no
+     * migration is in progress.
+     */
+    private Map<K, V>[] oldTable;
+
+    /**
+     * Number of buckets of {@code oldTable} already moved into
+     * {@code hashTable}.
+     */
+    private int migrated;
+
+    /**
+     * Maximum ratio of size to hash table size before growing.
+     */
+    private double loadFactor;
+
+    /**
+     * Number of old buckets moved into the new hash table per update.
+     */
+    private int migrationStep;
+
+    /**
+     * Whether table sizes are powers of 2 and buckets are found by masking.
+     */
+    private boolean useMask;
+
     /**
      * Total size of abstract {@code this}.
      */
@@ -77,18 +170,59 @@ public class Map4<K, V> extends MapSecondary<K, V> {
     private static int mod(int a, int b) {
         assert b > 0 : "Violation of: b > 0";
 
-        int m = 0;
-        //Positive a = a % b
-        if (a >= 0) {
-            m = a % b;
-        } else {
-            //Negative a = (a % b) + b
-            m = (a % b) + b;
+        int m = a % b;
+        //Negative a % b is shifted into [0, b); 0 must stay 0
+        if (m < 0) {
+            m += b;
         }
 
         return m;
     }
 
+    /**
+     * Returns the position of the bucket for a key with hash code
+     * {@code hash} in a table of size {@code length}.
+     *
+     * @param hash
+     *            the computed result of key.hashCode()
+     * @param length
+     *            the size of the hash table
+     * @return the bucket position
+     * @requires length > 0 and (if $this.useMask then [length is a power of 2])
+     * @ensures indexFor = INDEX(key, length, $this.useMask)
+     */
+    private int indexFor(int hash, int length) {
+        int index;
+        if (this.useMask) {
+            index = (hash ^ (hash >>> 16)) & (length - 1);
+        } else {
+            index = mod(hash, length);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the smallest power of 2 that is at least {@code n}.
+     *
+     * @param n
+     *            the lower bound
+     * @return the smallest power of 2 that is >= n
+     * @requires 0 < n <= 2^30
+     * @ensures <pre>
+     * [powerOfTwoAtLeast is a power of 2]  and  powerOfTwoAtLeast >= n  and
+     * powerOfTwoAtLeast < 2 * n
+     * </pre>
+     */
+    private static int powerOfTwoAtLeast(int n) {
+        assert n > 0 : "Violation of: n > 0";
+
+        int p = 1;
+        while (p < n) {
+            p *= 2;
+        }
+        return p;
+    }
+
     /**
      * Creator of initial representation.
      *
@@ -96,24 +230,187 @@ public class Map4<K, V> extends MapSecondary<K, V> {
      *            the size of the hash table
      * @requires hashTableSize > 0
      * @ensures <pre>
-     * |$this.hashTable| = hashTableSize  and
+     * |$this.hashTable| = [if $this.useMask
+     *                      then the smallest power of 2 >= hashTableSize
+     *                      else hashTableSize]  and
      * for all i: integer
      *     where (0 <= i  and  i < |$this.hashTable|)
      *   ($this.hashTable[i, i+1) = <{}>)  and
+     * $this.oldTable = null  and
      * $this.size = 0
      * </pre>
      */
-    @SuppressWarnings("unchecked")
     private void createNewRep(int hashTableSize) {
+        int length = hashTableSize;
+        if (this.useMask) {
+            length = powerOfTwoAtLeast(hashTableSize);
+        }
+        this.hashTable = newTable(length);
+        this.oldTable = null;
+        this.migrated = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Creates and returns an array of {@code hashTableSize} empty buckets.
+     *
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param <V>
+     *            type of {@code Map} range (associated value) entries
+     * @param hashTableSize
+     *            the size of the hash table
+     * @return the new array of buckets
+     * @requires hashTableSize > 0
+     * @ensures <pre>
+     * |newTable| = hashTableSize  and
+     * [every entry of newTable is null]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, V>[] newTable(int hashTableSize) {
         /*
          * With "new Map<K, V>[...]" in place of "new Map[...]" it does not
          * compile; as shown, it results in a warning about an unchecked
          * conversion, though it cannot fail.
          */
-        this.hashTable = new Map[hashTableSize];
+        return new Map[hashTableSize];
+    }
 
-        for (int indx = 0; indx < hashTableSize; indx++) {
-            this.hashTable[indx] = new Map2<K, V>();
+    /**
+     * Returns the bucket at position {@code i} of {@code table}, creating it
+     * first if it does not exist yet.
+     *
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param <V>
+     *            type of {@code Map} range (associated value) entries
+     * @param table
+     *            the hash table
+     * @param i
+     *            the bucket position
+     * @return the bucket at position i
+     * @updates table
+     * @requires 0 <= i < |table|
+     * @ensures <pre>
+     * bucketAt is not null  and  table[i, i+1) = <bucketAt>  and
+     * [bucketAt = #table[i] if that was not null, else bucketAt = {}]
+     * </pre>
+     */
+    private static <K, V> Map<K, V> bucketAt(Map<K, V>[] table, int i) {
+        if (table[i] == null) {
+            table[i] = new Map2<K, V>();
+        }
+        return table[i];
+    }
+
+    /**
+     * Returns the bucket in which {@code key} is, or would be, stored, or
+     * {@code null} if that bucket has not been created and {@code create} is
+     * false.
+     *
+     * @param key
+     *            the key
+     * @param create
+     *            whether to create the bucket if it does not exist yet
+     * @return the bucket for key
+     * @ensures <pre>
+     * if $this.oldTable /= null  and
+     *    INDEX(key, |$this.oldTable|, $this.useMask) >= $this.migrated
+     * then bucketFor is the entry at that position of $this.oldTable
+     * else bucketFor is the entry at position
+     *   INDEX(key, |$this.hashTable|, $this.useMask) of $this.hashTable
+     * </pre>
+     */
+    private Map<K, V> bucketFor(K key, boolean create) {
+        int hash = key.hashCode();
+        Map<K, V>[] table = this.hashTable;
+        int mod = -1;
+        if (this.oldTable != null) {
+            int oldMod = this.indexFor(hash, this.oldTable.length);
+            if (oldMod >= this.migrated) {
+                table = this.oldTable;
+                mod = oldMod;
+            }
+        }
+        if (mod < 0) {
+            mod = this.indexFor(hash, this.hashTable.length);
+        }
+        Map<K, V> bucket = table[mod];
+        if (create) {
+            bucket = bucketAt(table, mod);
+        }
+        return bucket;
+    }
+
+    /**
+     * Returns the number of old buckets to move per update for a table with
+     * load factor {@code loadFactor}. Growing from length n leaves about
+     * {@code loadFactor * n} adds before the next growth and n old buckets to
+     * move, so moving more than {@code 1 / loadFactor} buckets per update
+     * always ends the migration first.
+     *
+     * @param loadFactor
+     *            maximum ratio of size to hash table size before growing
+     * @return the number of buckets to move per update
+     * @requires loadFactor > 0
+     * @ensures <pre>
+     * migrationStepFor = max(MIGRATION_STEP, ceil(1 / loadFactor) + 1)
+     * </pre>
+     */
+    private static int migrationStepFor(double loadFactor) {
+        return Math.max(MIGRATION_STEP, (int) Math.ceil(1 / loadFactor) + 1);
+    }
+
+    /**
+     * Moves up to {@code $this.migrationStep} buckets of
+     * {@code $this.oldTable} into {@code $this.hashTable}, ending the
+     * migration when none are left.
+     *
+     * @updates $this
+     * @ensures this = #this
+     */
+    private void migrateStep() {
+        int stop = this.migrated + this.migrationStep;
+        while (this.oldTable != null && this.migrated < stop) {
+            Map<K, V> bucket = this.oldTable[this.migrated];
+            while (bucket != null && bucket.size() > 0) {
+                Map.Pair<K, V> pair = bucket.removeAny();
+                int mod = this.indexFor(pair.key().hashCode(),
+                        this.hashTable.length);
+                bucketAt(this.hashTable, mod).add(pair.key(), pair.value());
+            }
+            this.oldTable[this.migrated] = null;
+            this.migrated++;
+            if (this.migrated == this.oldTable.length) {
+                this.oldTable = null;
+                this.migrated = 0;
+            }
+        }
+    }
+
+    /**
+     * Starts growing the hash table if adding one more entry would exceed the
+     * load factor. Once the table holds more than a few entries the previous
+     * migration has always ended by then; only while it is small can growths
+     * come one right after another, and what is left of the migration, a
+     * few steps at most whatever the size of the map, is finished first.
+     *
+     * @updates $this
+     * @ensures this = #this
+     */
+    private void growIfNeeded() {
+        if (this.size + 1 > this.loadFactor * this.hashTable.length) {
+            while (this.oldTable != null) {
+                this.migrateStep();
+            }
+            this.oldTable = this.hashTable;
+            this.migrated = 0;
+            int newLength = 2 * this.oldTable.length;
+            if (!this.useMask) {
+                newLength++;
+            }
+            this.hashTable = newTable(newLength);
         }
     }
 
@@ -125,21 +422,63 @@ public class Map4<K, V> extends MapSecondary<K, V> {
      * No-argument constructor.
      */
     public Map4() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        this.migrationStep = migrationStepFor(this.loadFactor);
         this.createNewRep(DEFAULT_HASH_TABLE_SIZE);
     }
 
     /**
-     * Constructor resulting in a hash table of size {@code hashTableSize}.
+     * Constructor resulting in a hash table of initial size
+     * {@code hashTableSize}.
      *
      * @param hashTableSize
-     *            size of hash table
+     *            initial size of hash table
      * @requires hashTableSize > 0
      * @ensures this = {}
      */
     public Map4(int hashTableSize) {
+        this(hashTableSize, DEFAULT_LOAD_FACTOR);
+    }
 
-        this.createNewRep(hashTableSize);
+    /**
+     * Constructor resulting in a hash table of initial size
+     * {@code hashTableSize} that grows once its size exceeds
+     * {@code loadFactor} entries per bucket.
+     *
+     * @param hashTableSize
+     *            initial size of hash table
+     * @param loadFactor
+     *            maximum ratio of size to hash table size before growing
+     * @requires hashTableSize > 0 and loadFactor > 0
+     * @ensures this = {}
+     */
+    public Map4(int hashTableSize, double loadFactor) {
+        this(hashTableSize, loadFactor, false);
+    }
+
+    /**
+     * Constructor resulting in a hash table of initial size
+     * {@code hashTableSize} (rounded up to a power of 2 if {@code useMask})
+     * that grows once its size exceeds {@code loadFactor} entries per bucket.
+     *
+     * @param hashTableSize
+     *            initial size of hash table
+     * @param loadFactor
+     *            maximum ratio of size to hash table size before growing
+     * @param useMask
+     *            whether to use power-of-2 table sizes and mask-based bucket
+     *            indexing instead of mod
+     * @requires hashTableSize > 0 and loadFactor > 0
+     * @ensures this = {}
+     */
+    public Map4(int hashTableSize, double loadFactor, boolean useMask) {
+        assert hashTableSize > 0 : "Violation of: hashTableSize > 0";
+        assert loadFactor > 0 : "Violation of: loadFactor > 0";
 
+        this.loadFactor = loadFactor;
+        this.migrationStep = migrationStepFor(loadFactor);
+        this.useMask = useMask;
+        this.createNewRep(hashTableSize);
     }
 
     /*
@@ -150,7 +489,10 @@ public class Map4<K, V> extends MapSecondary<K, V> {
     @Override
     public final Map<K, V> newInstance() {
         try {
-            return this.getClass().getConstructor().newInstance();
+            return this.getClass()
+                    .getConstructor(int.class, double.class, boolean.class)
+                    .newInstance(DEFAULT_HASH_TABLE_SIZE, this.loadFactor,
+                            this.useMask);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -175,6 +517,11 @@ public class Map4<K, V> extends MapSecondary<K, V> {
          */
         Map4<K, V> localSource = (Map4<K, V>) source;
         this.hashTable = localSource.hashTable;
+        this.oldTable = localSource.oldTable;
+        this.migrated = localSource.migrated;
+        this.loadFactor = localSource.loadFactor;
+        this.migrationStep = localSource.migrationStep;
+        this.useMask = localSource.useMask;
         this.size = localSource.size;
         localSource.createNewRep(DEFAULT_HASH_TABLE_SIZE);
     }
@@ -189,8 +536,9 @@ public class Map4<K, V> extends MapSecondary<K, V> {
         assert value != null : "Violation of: value is not null";
         assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
 
-        int mod = mod(key.hashCode(), this.hashTable.length);
-        Map<K, V> map = this.hashTable[mod];
+        this.growIfNeeded();
+        this.migrateStep();
+        Map<K, V> map = this.bucketFor(key, true);
         map.add(key, value);
         this.size++;
     }
@@ -200,8 +548,8 @@ public class Map4<K, V> extends MapSecondary<K, V> {
         assert key != null : "Violation of: key is not null";
         assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
 
-        int mod = mod(key.hashCode(), this.hashTable.length);
-        Map<K, V> map = this.hashTable[mod];
+        this.migrateStep();
+        Map<K, V> map = this.bucketFor(key, false);
         Map.Pair<K, V> pair = map.remove(key);
         this.size--;
         return pair;
@@ -211,11 +559,26 @@ public class Map4<K, V> extends MapSecondary<K, V> {
     public final Pair<K, V> removeAny() {
         assert this.size() > 0 : "Violation of: this /= empty_set";
 
-        int mod = 0;
-        while (this.hashTable[mod].size() == 0) {
-            mod++;
+        this.migrateStep();
+        Map<K, V> map = null;
+        if (this.oldTable != null) {
+            int mod = this.migrated;
+            while (mod < this.oldTable.length && (this.oldTable[mod] == null
+                    || this.oldTable[mod].size() == 0)) {
+                mod++;
+            }
+            if (mod < this.oldTable.length) {
+                map = this.oldTable[mod];
+            }
+        }
+        if (map == null) {
+            int mod = 0;
+            while (this.hashTable[mod] == null
+                    || this.hashTable[mod].size() == 0) {
+                mod++;
+            }
+            map = this.hashTable[mod];
         }
-        Map<K, V> map = this.hashTable[mod];
         Map.Pair<K, V> pair = map.removeAny();
         this.size--;
         return pair;
@@ -226,8 +589,7 @@ public class Map4<K, V> extends MapSecondary<K, V> {
         assert key != null : "Violation of: key is not null";
         assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
 
-        int mod = mod(key.hashCode(), this.hashTable.length);
-        Map<K, V> map = this.hashTable[mod];
+        Map<K, V> map = this.bucketFor(key, false);
         return map.value(key);
     }
 
@@ -235,9 +597,8 @@ public class Map4<K, V> extends MapSecondary<K, V> {
     public final boolean hasKey(K key) {
         assert key != null : "Violation of: key is not null";
 
-        int mod = mod(key.hashCode(), this.hashTable.length);
-        Map<K, V> map = this.hashTable[mod];
-        return map.hasKey(key);
+        Map<K, V> map = this.bucketFor(key, false);
+        return map != null && map.hasKey(key);
 
     }
 
@@ -263,12 +624,14 @@ public class Map4<K, V> extends MapSecondary<K, V> {
         private int numberSeen;
 
         /**
-         * Bucket from which current bucket iterator comes.
+         * Bucket from which current bucket iterator comes; buckets of the old
+         * table not yet migrated are numbered before those of the hash table.
          */
         private int currentBucket;
 
         /**
-         * Bucket iterator from which next element will come.
+         * Bucket iterator from which next element will come, or null if the
+         * current bucket has not been created.
          */
         private Iterator<Pair<K, V>> bucketIterator;
 
@@ -278,7 +641,46 @@ public class Map4<K, V> extends MapSecondary<K, V> {
         Map4Iterator() {
             this.numberSeen = 0;
             this.currentBucket = 0;
-            this.bucketIterator = Map4.this.hashTable[0].iterator();
+            this.bucketIterator = this.bucketIterator(0);
+        }
+
+        /**
+         * Returns an iterator over the {@code i}-th bucket, or null if that
+         * bucket has not been created.
+         *
+         * @param i
+         *            the bucket number
+         * @return iterator over the i-th bucket, or null
+         */
+        private Iterator<Pair<K, V>> bucketIterator(int i) {
+            Map<K, V> bucket = this.bucket(i);
+            Iterator<Pair<K, V>> iterator = null;
+            if (bucket != null) {
+                iterator = bucket.iterator();
+            }
+            return iterator;
+        }
+
+        /**
+         * Returns the {@code i}-th bucket, counting the old table's buckets
+         * not yet migrated first and then those of the hash table.
+         *
+         * @param i
+         *            the bucket number
+         * @return the i-th bucket, or null if it has not been created
+         */
+        private Map<K, V> bucket(int i) {
+            Map<K, V> bucket;
+            int remainingOld = 0;
+            if (Map4.this.oldTable != null) {
+                remainingOld = Map4.this.oldTable.length - Map4.this.migrated;
+            }
+            if (i < remainingOld) {
+                bucket = Map4.this.oldTable[Map4.this.migrated + i];
+            } else {
+                bucket = Map4.this.hashTable[i - remainingOld];
+            }
+            return bucket;
         }
 
         @Override
@@ -298,10 +700,10 @@ public class Map4<K, V> extends MapSecondary<K, V> {
                 throw new NoSuchElementException();
             }
             this.numberSeen++;
-            while (!this.bucketIterator.hasNext()) {
+            while (this.bucketIterator == null
+                    || !this.bucketIterator.hasNext()) {
                 this.currentBucket++;
-                this.bucketIterator = Map4.this.hashTable[this.currentBucket]
-                        .iterator();
+                this.bucketIterator = this.bucketIterator(this.currentBucket);
             }
             return this.bucketIterator.next();
         }
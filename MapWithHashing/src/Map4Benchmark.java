@@ -0,0 +1,96 @@
+import components.map.Map;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Measures {@code add} and {@code value} latency of {@code Map4} as it grows
+ * from 1K to 10M entries, showing that incremental resizing keeps both flat
+ * and that no single {@code add} stalls for a full-table rehash. The maximum
+ * {@code add} latency includes garbage-collection pauses, so run with GC
+ * logging on to tell the two apart.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public final class Map4Benchmark {
+
+    /**
+     * Number of entries at the first report.
+     */
+    private static final int FIRST_SIZE = 1000;
+
+    /**
+     * Number of entries at the last report.
+     */
+    private static final int LAST_SIZE = 10000000;
+
+    /**
+     * Factor by which the number of entries grows between reports.
+     */
+    private static final int GROWTH = 10;
+
+    /**
+     * Number of {@code value} calls timed at each report.
+     */
+    private static final int LOOKUPS = 100000;
+
+    /**
+     * Nanoseconds per microsecond.
+     */
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private Map4Benchmark() {
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the last size
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int lastSize = LAST_SIZE;
+        if (args.length > 0) {
+            lastSize = Integer.parseInt(args[0]);
+        }
+
+        Map<String, Integer> map = new Map4<String, Integer>();
+        out.println("size\tns/add\tmax us/add\tns/value\tchecksum");
+        int added = 0;
+        for (int target = FIRST_SIZE; target <= lastSize; target *= GROWTH) {
+            long maxAdd = 0;
+            int addCount = target - added;
+            long start = System.nanoTime();
+            while (added < target) {
+                long before = System.nanoTime();
+                map.add("w" + added, added);
+                long elapsed = System.nanoTime() - before;
+                if (elapsed > maxAdd) {
+                    maxAdd = elapsed;
+                }
+                added++;
+            }
+            long addTime = System.nanoTime() - start;
+
+            long sum = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                sum += map.value("w" + (int) ((long) i * target / LOOKUPS));
+            }
+            long valueTime = System.nanoTime() - start;
+
+            out.println(target + "\t" + (addTime / addCount) + "\t"
+                    + (maxAdd / NANOS_PER_MICRO) + "\t"
+                    + (valueTime / LOOKUPS) + "\t" + sum);
+        }
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,571 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BinaryOperator;
+
+import components.map.Map;
+import components.map.Map2;
+import components.map.MapSecondary;
+
+/**
+ * Thread-safe {@code Map} represented, like {@code Map4}, as a hash table using
+ * {@code Map}s for the buckets, but split into independently locked segments
+ * ("lock striping"), with implementations of primary methods.
+ *
+ * <p>
+ * A key's segment is chosen by its hash code mod the number of segments; each
+ * segment is a small hash table of its own, guarded by its own monitor, and
+ * grows on its own when its load factor is exceeded. Threads touching keys in
+ * different segments therefore never wait for each other. The kernel methods
+ * and {@link #addOrCombine} may be called from any number of threads at once;
+ * {@code clear}, {@code transferFrom}, and iteration must not overlap with
+ * other calls on the same map. Since other threads may remove the last
+ * entries at any time, {@code removeAny} throws
+ * {@code NoSuchElementException} when a full pass finds every segment empty,
+ * instead of asserting its precondition up front.
+ * </p>
+ *
+ * @param <K>
+ *            type of {@code Map} domain (key) entries
+ * @param <V>
+ *            type of {@code Map} range (associated value) entries
+ * @convention <pre>
+ * |$this.segments| > 0  and
+ * for all s: integer
+ *     where (0 <= s  and  s < |$this.segments|)
+ *   (|$this.segments[s].table| > 0  and
+ *    for all i: integer, pf: PARTIAL_FUNCTION, x: K
+ *        where (0 <= i  and  i < |$this.segments[s].table|  and
+ *               <pf> = $this.segments[s].table[i, i+1)  and
+ *               x is in DOMAIN(pf))
+ *      ([computed result of x.hashCode()] mod |$this.segments| = s  and
+ *       [computed result of x.hashCode()] mod |$this.segments[s].table|
+ *         = i)  and
+ *    $this.segments[s].size = sum i: integer, pf: PARTIAL_FUNCTION
+ *        where (0 <= i  and  i < |$this.segments[s].table|  and
+ *               <pf> = $this.segments[s].table[i, i+1))
+ *      (|pf|))
+ * </pre>
+ * @correspondence <pre>
+ * [a null bucket stands for {}]  and
+ * this = union s, i: integer, pf: PARTIAL_FUNCTION
+ *            where (0 <= s  and  s < |$this.segments|  and
+ *                   0 <= i  and  i < |$this.segments[s].table|  and
+ *                   <pf> = $this.segments[s].table[i, i+1))
+ *          (pf)
+ * </pre>
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public class Map4Striped<K, V> extends MapSecondary<K, V> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Default number of segments.
+     */
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    /**
+     * Initial size of the hash table of each segment.
+     */
+    private static final int INITIAL_SEGMENT_TABLE_SIZE = 7;
+
+    /**
+     * Maximum ratio of size to hash table size of a segment before growing.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /**
+     * One independently locked part of the hash table; all access to its
+     * fields happens while holding its monitor.
+     *
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param <V>
+     *            type of {@code Map} range (associated value) entries
+     */
+    private static final class Segment<K, V> {
+
+        /**
+         * Buckets for hashing; a null entry is an empty bucket.
+         */
+        private Map<K, V>[] table;
+
+        /**
+         * Number of entries in this segment.
+         */
+        private int size;
+
+        /**
+         * No-argument constructor.
+         */
+        private Segment() {
+            this.table = newTable(INITIAL_SEGMENT_TABLE_SIZE);
+            this.size = 0;
+        }
+
+        /**
+         * Returns the bucket in which {@code key} is, or would be, stored,
+         * creating it if {@code create} is true.
+         *
+         * @param key
+         *            the key
+         * @param create
+         *            whether to create the bucket if it does not exist yet
+         * @return the bucket for key, or null if it does not exist and create
+         *         is false
+         */
+        private Map<K, V> bucketFor(K key, boolean create) {
+            int mod = mod(key.hashCode(), this.table.length);
+            if (create && this.table[mod] == null) {
+                this.table[mod] = new Map2<K, V>();
+            }
+            return this.table[mod];
+        }
+
+        /**
+         * Reports whether {@code key} is in this segment.
+         *
+         * @param key
+         *            the key
+         * @return true iff key is in this segment
+         */
+        private boolean hasKey(K key) {
+            Map<K, V> bucket = this.bucketFor(key, false);
+            return bucket != null && bucket.hasKey(key);
+        }
+
+        /**
+         * Doubles the hash table of this segment if adding one more entry
+         * would exceed the load factor.
+         */
+        private void growIfNeeded() {
+            if (this.size + 1 > LOAD_FACTOR * this.table.length) {
+                Map<K, V>[] old = this.table;
+                this.table = newTable(2 * old.length + 1);
+                for (Map<K, V> bucket : old) {
+                    while (bucket != null && bucket.size() > 0) {
+                        Map.Pair<K, V> pair = bucket.removeAny();
+                        this.bucketFor(pair.key(), true).add(pair.key(),
+                                pair.value());
+                    }
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Segments, each guarding a part of the domain.
+     */
+    private Segment<K, V>[] segments;
+
+    /**
+     * Computes {@code a} mod {@code b} as % should have been defined to work.
+     *
+     * @param a
+     *            the number being reduced
+     * @param b
+     *            the modulus
+     * @return the result of a mod b, which satisfies 0 <= {@code mod} < b
+     * @requires b > 0
+     * @ensures <pre>
+     * 0 <= mod  and  mod < b  and
+     * there exists k: integer (a = k * b + mod)
+     * </pre>
+     */
+    private static int mod(int a, int b) {
+        assert b > 0 : "Violation of: b > 0";
+
+        int m = a % b;
+        if (m < 0) {
+            m += b;
+        }
+        return m;
+    }
+
+    /**
+     * Creates and returns an array of {@code tableSize} empty buckets.
+     *
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param <V>
+     *            type of {@code Map} range (associated value) entries
+     * @param tableSize
+     *            the size of the hash table
+     * @return the new array of buckets
+     * @requires tableSize > 0
+     * @ensures |newTable| = tableSize and [every entry of newTable is null]
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, V>[] newTable(int tableSize) {
+        /*
+         * With "new Map<K, V>[...]" in place of "new Map[...]" it does not
+         * compile; as shown, it results in a warning about an unchecked
+         * conversion, though it cannot fail.
+         */
+        return new Map[tableSize];
+    }
+
+    /**
+     * Returns the segment responsible for {@code key}.
+     *
+     * @param key
+     *            the key
+     * @return the segment for key
+     * @ensures <pre>
+     * segmentFor = $this.segments[[computed result of key.hashCode()]
+     *                              mod |$this.segments|]
+     * </pre>
+     */
+    private Segment<K, V> segmentFor(K key) {
+        return this.segments[mod(key.hashCode(), this.segments.length)];
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param segmentCount
+     *            the number of segments
+     * @requires segmentCount > 0
+     * @ensures <pre>
+     * |$this.segments| = segmentCount  and
+     * [every segment is empty]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(int segmentCount) {
+        /*
+         * With "new Segment<K, V>[...]" in place of "new Segment[...]" it does
+         * not compile; as shown, it results in a warning about an unchecked
+         * conversion, though it cannot fail.
+         */
+        this.segments = new Segment[segmentCount];
+        for (int s = 0; s < segmentCount; s++) {
+            this.segments[s] = new Segment<K, V>();
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Map4Striped() {
+        this.createNewRep(DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * Constructor resulting in {@code segmentCount} independently locked
+     * segments.
+     *
+     * @param segmentCount
+     *            number of segments
+     * @requires segmentCount > 0
+     * @ensures this = {}
+     */
+    public Map4Striped(int segmentCount) {
+        assert segmentCount > 0 : "Violation of: segmentCount > 0";
+
+        this.createNewRep(segmentCount);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Map<K, V> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.segments.length);
+    }
+
+    @Override
+    public final void transferFrom(Map<K, V> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Map4Striped<?, ?> : ""
+                + "Violation of: source is of dynamic type Map4Striped<?,?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * Map4Striped<?,?>, and the ?,? must be K,V or the call would not have
+         * compiled.
+         */
+        Map4Striped<K, V> localSource = (Map4Striped<K, V>) source;
+        this.segments = localSource.segments;
+        localSource.createNewRep(localSource.segments.length);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(K key, V value) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+
+        Segment<K, V> segment = this.segmentFor(key);
+        synchronized (segment) {
+            assert !segment
+                    .hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+
+            segment.growIfNeeded();
+            segment.bucketFor(key, true).add(key, value);
+            segment.size++;
+        }
+    }
+
+    @Override
+    public final Pair<K, V> remove(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        Segment<K, V> segment = this.segmentFor(key);
+        Map.Pair<K, V> pair;
+        synchronized (segment) {
+            assert segment.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+            pair = segment.bucketFor(key, false).remove(key);
+            segment.size--;
+        }
+        return pair;
+    }
+
+    @Override
+    public final Pair<K, V> removeAny() {
+
+        /*
+         * Another thread may empty a segment after it has been checked, so
+         * keep cycling until some segment yields an entry, but stop once a
+         * full pass over the segments has found all of them empty
+         */
+        Map.Pair<K, V> pair = null;
+        int s = 0;
+        int emptySeen = 0;
+        while (pair == null && emptySeen < this.segments.length) {
+            Segment<K, V> segment = this.segments[s];
+            synchronized (segment) {
+                if (segment.size > 0) {
+                    int mod = 0;
+                    while (segment.table[mod] == null
+                            || segment.table[mod].size() == 0) {
+                        mod++;
+                    }
+                    pair = segment.table[mod].removeAny();
+                    segment.size--;
+                } else {
+                    emptySeen++;
+                }
+            }
+            s = (s + 1) % this.segments.length;
+        }
+        if (pair == null) {
+            /*
+             * Checked here rather than up front, since other threads may
+             * remove the last entries after any earlier check
+             */
+            throw new NoSuchElementException(
+                    "Violation of: this /= empty_set");
+        }
+        return pair;
+    }
+
+    @Override
+    public final V value(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        Segment<K, V> segment = this.segmentFor(key);
+        synchronized (segment) {
+            assert segment.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+            return segment.bucketFor(key, false).value(key);
+        }
+    }
+
+    @Override
+    public final boolean hasKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        Segment<K, V> segment = this.segmentFor(key);
+        synchronized (segment) {
+            return segment.hasKey(key);
+        }
+    }
+
+    @Override
+    public final int size() {
+        /*
+         * Each segment counts its own entries, so that updates in different
+         * segments never touch a shared counter; the total is their sum
+         */
+        int total = 0;
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                total += segment.size;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Atomically adds the pair ({@code key}, {@code value}) if {@code key} is
+     * not in {@code DOMAIN(this)}, and otherwise replaces the value associated
+     * with {@code key} by {@code combiner} applied to the old value and
+     * {@code value}. For counting, use
+     * {@code addOrCombine(word, 1, Integer::sum)}.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value to add or combine with
+     * @param combiner
+     *            the function combining the old value with {@code value}
+     * @return the value associated with {@code key} afterwards
+     * @aliases references {@code key, value}
+     * @updates this
+     * @requires <pre>
+     * [combiner does not access this and never returns null]
+     * </pre>
+     * @ensures <pre>
+     * if key is in DOMAIN(#this) then
+     *   this = (#this \ {(key, #this(key))})
+     *            union {(key, combiner(#this(key), value))}
+     * else
+     *   this = #this union {(key, value)}  and
+     * addOrCombine = this(key)
+     * </pre>
+     */
+    public final V addOrCombine(K key, V value, BinaryOperator<V> combiner) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+        assert combiner != null : "Violation of: combiner is not null";
+
+        Segment<K, V> segment = this.segmentFor(key);
+        V result;
+        synchronized (segment) {
+            if (segment.hasKey(key)) {
+                Map<K, V> bucket = segment.bucketFor(key, false);
+                result = combiner.apply(bucket.value(key), value);
+                assert result != null : ""
+                        + "Violation of: combiner never returns null";
+                bucket.replaceValue(key, result);
+            } else {
+                segment.growIfNeeded();
+                segment.bucketFor(key, true).add(key, value);
+                segment.size++;
+                result = value;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public final Iterator<Pair<K, V>> iterator() {
+        return new Map4StripedIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Map4Striped}.
+     */
+    private final class Map4StripedIterator implements Iterator<Pair<K, V>> {
+
+        /**
+         * Number of elements seen already (i.e., |~this.seen|).
+         */
+        private int numberSeen;
+
+        /**
+         * Number of elements in the map, counted once since iteration does
+         * not overlap with changes to the map.
+         */
+        private final int total;
+
+        /**
+         * Segment from which current bucket comes.
+         */
+        private int currentSegment;
+
+        /**
+         * Bucket, within the current segment, from which current bucket
+         * iterator comes.
+         */
+        private int currentBucket;
+
+        /**
+         * Bucket iterator from which next element will come, or null if the
+         * current bucket has not been created.
+         */
+        private Iterator<Pair<K, V>> bucketIterator;
+
+        /**
+         * No-argument constructor.
+         */
+        Map4StripedIterator() {
+            this.numberSeen = 0;
+            this.total = Map4Striped.this.size();
+            this.currentSegment = 0;
+            this.currentBucket = -1;
+            this.bucketIterator = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.numberSeen < this.total;
+        }
+
+        @Override
+        public Pair<K, V> next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            this.numberSeen++;
+            while (this.bucketIterator == null
+                    || !this.bucketIterator.hasNext()) {
+                this.currentBucket++;
+                Map<K, V>[] table = Map4Striped.this.segments[
+                        this.currentSegment].table;
+                if (this.currentBucket == table.length) {
+                    this.currentSegment++;
+                    this.currentBucket = -1;
+                    this.bucketIterator = null;
+                } else if (table[this.currentBucket] != null) {
+                    this.bucketIterator = table[this.currentBucket].iterator();
+                } else {
+                    this.bucketIterator = null;
+                }
+            }
+            return this.bucketIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,135 @@
+import components.map.Map;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Compares word-counting throughput of {@code Map4Striped} against a single
+ * {@code Map4} behind one lock, from 1 up to the number of available cores.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public final class Map4StripedBenchmark {
+
+    /**
+     * Number of distinct words.
+     */
+    private static final int WORDS = 100000;
+
+    /**
+     * Number of counts performed by each thread.
+     */
+    private static final int COUNTS_PER_THREAD = 2000000;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private Map4StripedBenchmark() {
+    }
+
+    /**
+     * Counts one occurrence of {@code word} in {@code map} while holding the
+     * monitor of {@code map}, the way callers had to use {@code Map4}.
+     *
+     * @param map
+     *            the map of counts
+     * @param word
+     *            the word
+     * @updates map
+     */
+    private static void countLocked(Map<String, Integer> map, String word) {
+        synchronized (map) {
+            if (map.hasKey(word)) {
+                map.replaceValue(word, map.value(word) + 1);
+            } else {
+                map.add(word, 1);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code threads} threads that each count {@code COUNTS_PER_THREAD}
+     * words, and returns the elapsed time in nanoseconds.
+     *
+     * @param threads
+     *            the number of threads
+     * @param striped
+     *            the striped map, or null to use {@code locked}
+     * @param locked
+     *            the map used behind one lock when {@code striped} is null
+     * @return elapsed nanoseconds
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    private static long run(int threads,
+            Map4Striped<String, Integer> striped, Map<String, Integer> locked)
+            throws InterruptedException {
+        String[] words = new String[WORDS];
+        for (int w = 0; w < WORDS; w++) {
+            words[w] = "w" + w;
+        }
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < COUNTS_PER_THREAD; i++) {
+                    String word = words[(i * 31 + offset) % WORDS];
+                    if (striped != null) {
+                        striped.addOrCombine(word, 1, Integer::sum);
+                    } else {
+                        countLocked(locked, word);
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public static void main(String[] args) throws InterruptedException {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        out.println("threads\tMap4+lock (ms)\tMap4Striped (ms)");
+        int threads = 1;
+        while (threads <= cores) {
+            long locked = run(threads, null, new Map4<String, Integer>());
+            long striped = run(threads, new Map4Striped<String, Integer>(),
+                    null);
+            out.println(threads + "\t" + (locked / NANOS_PER_MILLI) + "\t"
+                    + (striped / NANOS_PER_MILLI));
+            /*
+             * Double the threads, but end with all of the cores even if their
+             * number is not a power of 2
+             */
+            int next = 2 * threads;
+            if (threads < cores && next > cores) {
+                next = cores;
+            }
+            threads = next;
+        }
+
+        out.close();
+    }
+
+}
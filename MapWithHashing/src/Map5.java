@@ -0,0 +1,464 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.map.Map;
+import components.map.MapSecondary;
+
+/**
+ * {@code Map} represented as an open-addressing hash table (linear probing)
+ * over two parallel arrays of keys and values, with implementations of
+ * primary methods.
+ *
+ * <p>
+ * Unlike {@code Map4}, there is no bucket object per slot: a key and its value
+ * live at the same index of {@code $this.keys} and {@code $this.values}, and
+ * collisions are resolved by probing the following slots. Removal uses
+ * backward-shift deletion, so no "tombstone" markers are ever left behind.
+ * </p>
+ *
+ * @param <K>
+ *            type of {@code Map} domain (key) entries
+ * @param <V>
+ *            type of {@code Map} range (associated value) entries
+ * @mathdefinitions <pre>
+ * HOME(
+ *   x: K,
+ *   n: integer
+ *  ): integer is
+ *  [computed result of x.hashCode(), spread and reduced mod n]
+ *
+ * PROBE_DISTANCE(
+ *   x: K,
+ *   i: integer,
+ *   n: integer
+ *  ): integer is
+ *  (i - HOME(x, n)) mod n
+ * </pre>
+ * @convention <pre>
+ * |$this.keys| = |$this.values|  and
+ * [|$this.keys| is a power of 2]  and
+ * $this.size < |$this.keys|  and
+ * 0 <= $this.scanStart < |$this.keys|  and
+ * for all i: integer
+ *     where (0 <= i  and  i < |$this.keys|)
+ *   (($this.keys[i] = null) = ($this.values[i] = null))  and
+ * [no two non-null entries of $this.keys are equal]  and
+ * for all i, j: integer
+ *     where (0 <= i  and  i < |$this.keys|  and  $this.keys[i] /= null  and
+ *            0 <= j  and  j < PROBE_DISTANCE($this.keys[i], i, |$this.keys|))
+ *   ($this.keys[(HOME($this.keys[i], |$this.keys|) + j) mod |$this.keys|]
+ *      /= null)  and
+ * $this.size = [number of non-null entries in $this.keys]
+ * </pre>
+ * @correspondence <pre>
+ * this = {(k, v): (K, V)
+ *          where (there exists i: integer
+ *                   (0 <= i  and  i < |$this.keys|  and
+ *                    k = $this.keys[i]  and  v = $this.values[i]  and
+ *                    k /= null))}
+ * </pre>
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public class Map5<K, V> extends MapSecondary<K, V> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Default capacity of hash table.
+     */
+    private static final int DEFAULT_CAPACITY = 128;
+
+    /**
+     * Numerator of the maximum load factor (size / capacity) allowed before
+     * the table is doubled.
+     */
+    private static final int MAX_LOAD_NUMERATOR = 3;
+
+    /**
+     * Denominator of the maximum load factor (size / capacity) allowed before
+     * the table is doubled.
+     */
+    private static final int MAX_LOAD_DENOMINATOR = 4;
+
+    /**
+     * Keys, indexed by slot; {@code null} marks an empty slot.
+     */
+    private Object[] keys;
+
+    /**
+     * Values, indexed by slot, parallel to {@code keys}.
+     */
+    private Object[] values;
+
+    /**
+     * Total size of abstract {@code this}.
+     */
+    private int size;
+
+    /**
+     * Slot where the next {@code removeAny} starts looking, downward, for an
+     * entry at the end of its cluster: the slot just below the last entry it
+     * removed.
+     */
+    private int scanStart;
+
+    /**
+     * Returns the smallest power of 2 that is at least {@code n}.
+     *
+     * @param n
+     *            the lower bound
+     * @return the smallest power of 2 that is >= n
+     * @requires 0 < n <= 2^30
+     * @ensures <pre>
+     * [powerOfTwoAtLeast is a power of 2]  and  powerOfTwoAtLeast >= n  and
+     * powerOfTwoAtLeast < 2 * n
+     * </pre>
+     */
+    private static int powerOfTwoAtLeast(int n) {
+        assert n > 0 : "Violation of: n > 0";
+
+        int p = 1;
+        while (p < n) {
+            p *= 2;
+        }
+        return p;
+    }
+
+    /**
+     * Returns the home slot of {@code key} in a table of size {@code length}.
+     * The hash code is "spread" by folding its high bits into its low bits
+     * before masking, since masking alone would ignore the high bits.
+     *
+     * @param key
+     *            the key
+     * @param length
+     *            the table size
+     * @return the home slot of key
+     * @requires [length is a power of 2]
+     * @ensures home = HOME(key, length)
+     */
+    private static int home(Object key, int length) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return h & (length - 1);
+    }
+
+    /**
+     * Returns the slot holding {@code key}, or, if {@code key} is not in
+     * {@code this}, the empty slot at which the probe for it stopped.
+     *
+     * @param key
+     *            the key to be searched for
+     * @return the slot of key, or the first empty slot on its probe sequence
+     * @ensures <pre>
+     * ($this.keys[findSlot] = key)  or
+     * ($this.keys[findSlot] = null  and  key is not in DOMAIN(this))
+     * </pre>
+     */
+    private int findSlot(Object key) {
+        int mask = this.keys.length - 1;
+        int i = home(key, this.keys.length);
+        while (this.keys[i] != null && !this.keys[i].equals(key)) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Removes the entry at slot {@code i} and shifts later entries of the same
+     * probe run back so that every remaining key is still reachable from its
+     * home slot.
+     *
+     * @param i
+     *            the slot to be emptied
+     * @updates $this.keys, $this.values
+     * @requires 0 <= i < |$this.keys| and $this.keys[i] /= null
+     * @ensures <pre>
+     * [the entry at slot i of #$this is no longer present, the others are
+     *  all present, and the convention holds for $this.keys, $this.values]
+     * </pre>
+     */
+    private void deleteSlot(int i) {
+        int mask = this.keys.length - 1;
+        int hole = i;
+        int j = (hole + 1) & mask;
+        while (this.keys[j] != null) {
+            int h = home(this.keys[j], this.keys.length);
+            /*
+             * The entry at j may move into the hole only if its home is not
+             * (cyclically) in (hole, j]
+             */
+            if (((j - h) & mask) >= ((j - hole) & mask)) {
+                this.keys[hole] = this.keys[j];
+                this.values[hole] = this.values[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        this.keys[hole] = null;
+        this.values[hole] = null;
+    }
+
+    /**
+     * Moves every entry into new arrays of size {@code newCapacity}.
+     *
+     * @param newCapacity
+     *            the new table size
+     * @updates $this.keys, $this.values
+     * @requires [newCapacity is a power of 2] and newCapacity > $this.size
+     * @ensures |$this.keys| = newCapacity and this = #this
+     */
+    private void resize(int newCapacity) {
+        Object[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        this.keys = new Object[newCapacity];
+        this.values = new Object[newCapacity];
+        this.scanStart = 0;
+        int mask = newCapacity - 1;
+        for (int indx = 0; indx < oldKeys.length; indx++) {
+            if (oldKeys[indx] != null) {
+                int i = home(oldKeys[indx], newCapacity);
+                while (this.keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                this.keys[i] = oldKeys[indx];
+                this.values[i] = oldValues[indx];
+            }
+        }
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param capacity
+     *            the minimum size of the hash table
+     * @requires capacity > 0
+     * @ensures <pre>
+     * |$this.keys| = [smallest power of 2 >= capacity]  and
+     * [all entries of $this.keys and $this.values are null]  and
+     * $this.size = 0  and  $this.scanStart = 0
+     * </pre>
+     */
+    private void createNewRep(int capacity) {
+        int length = powerOfTwoAtLeast(capacity);
+        this.keys = new Object[length];
+        this.values = new Object[length];
+        this.size = 0;
+        this.scanStart = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Map5() {
+        this.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor resulting in a hash table of at least {@code capacity}
+     * slots.
+     *
+     * @param capacity
+     *            minimum size of hash table
+     * @requires capacity > 0
+     * @ensures this = {}
+     */
+    public Map5(int capacity) {
+        assert capacity > 0 : "Violation of: capacity > 0";
+
+        this.createNewRep(capacity);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Map<K, V> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public final void transferFrom(Map<K, V> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Map5<?, ?> : ""
+                + "Violation of: source is of dynamic type Map5<?,?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Map5<?,?>, and
+         * the ?,? must be K,V or the call would not have compiled.
+         */
+        Map5<K, V> localSource = (Map5<K, V>) source;
+        this.keys = localSource.keys;
+        this.values = localSource.values;
+        this.size = localSource.size;
+        this.scanStart = localSource.scanStart;
+        localSource.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(K key, V value) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+        assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+
+        if ((this.size + 1) * MAX_LOAD_DENOMINATOR > this.keys.length
+                * MAX_LOAD_NUMERATOR) {
+            this.resize(2 * this.keys.length);
+        }
+        int i = this.findSlot(key);
+        this.keys[i] = key;
+        this.values[i] = value;
+        this.size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Pair<K, V> remove(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        int i = this.findSlot(key);
+        Pair<K, V> pair = new SimplePair<K, V>((K) this.keys[i],
+                (V) this.values[i]);
+        this.deleteSlot(i);
+        this.size--;
+        return pair;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Pair<K, V> removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        /*
+         * Take the last entry of a cluster (one followed by an empty slot),
+         * which deleteSlot removes without shifting any other entry, and
+         * resume just below it next time: draining the map then passes over
+         * each empty slot about once, instead of rescanning a growing empty
+         * prefix or shifting a whole cluster on every call
+         */
+        int mask = this.keys.length - 1;
+        int i = this.scanStart;
+        while (this.keys[i] == null || this.keys[(i + 1) & mask] != null) {
+            i = (i - 1) & mask;
+        }
+        this.scanStart = (i - 1) & mask;
+        Pair<K, V> pair = new SimplePair<K, V>((K) this.keys[i],
+                (V) this.values[i]);
+        this.deleteSlot(i);
+        this.size--;
+        return pair;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final V value(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        return (V) this.values[this.findSlot(key)];
+    }
+
+    @Override
+    public final boolean hasKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        return this.keys[this.findSlot(key)] != null;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<Pair<K, V>> iterator() {
+        return new Map5Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Map5}.
+     */
+    private final class Map5Iterator implements Iterator<Pair<K, V>> {
+
+        /**
+         * Number of elements seen already (i.e., |~this.seen|).
+         */
+        private int numberSeen;
+
+        /**
+         * Slot at which the search for the next element starts.
+         */
+        private int currentSlot;
+
+        /**
+         * No-argument constructor.
+         */
+        Map5Iterator() {
+            this.numberSeen = 0;
+            this.currentSlot = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.numberSeen < Map5.this.size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Pair<K, V> next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            this.numberSeen++;
+            while (Map5.this.keys[this.currentSlot] == null) {
+                this.currentSlot++;
+            }
+            Pair<K, V> pair = new SimplePair<K, V>(
+                    (K) Map5.this.keys[this.currentSlot],
+                    (V) Map5.this.values[this.currentSlot]);
+            this.currentSlot++;
+            return pair;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,147 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture exercising {@code Map4Striped} from several threads at
+ * once.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public class Map4StripedStressTest {
+
+    /**
+     * Number of threads in each test.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * Number of distinct words each thread counts.
+     */
+    private static final int WORDS = 5000;
+
+    /**
+     * Number of times each thread counts each word.
+     */
+    private static final int REPEATS = 20;
+
+    /**
+     * Number of entries in the map that every thread drains at once.
+     */
+    private static final int SMALL = 3;
+
+    /**
+     * Number of times the small map is refilled and drained.
+     */
+    private static final int ROUNDS = 2000;
+
+    /**
+     * Starts {@code THREADS} threads running {@code task} and waits for all of
+     * them to finish.
+     *
+     * @param task
+     *            the work of each thread, given the thread's number
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    private static void runInParallel(IntConsumer task)
+            throws InterruptedException {
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> task.accept(id));
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    @Test
+    public final void testAddOrCombineCountsEveryIncrement()
+            throws InterruptedException {
+        Map4Striped<String, Integer> counts = new Map4Striped<String, Integer>();
+        runInParallel(id -> {
+            for (int r = 0; r < REPEATS; r++) {
+                for (int w = 0; w < WORDS; w++) {
+                    counts.addOrCombine("w" + w, 1, Integer::sum);
+                }
+            }
+        });
+        assertEquals(WORDS, counts.size());
+        for (int w = 0; w < WORDS; w++) {
+            assertEquals(Integer.valueOf(THREADS * REPEATS),
+                    counts.value("w" + w));
+        }
+    }
+
+    @Test
+    public final void testDisjointAddsAndRemoves()
+            throws InterruptedException {
+        Map4Striped<String, Integer> map = new Map4Striped<String, Integer>();
+        runInParallel(id -> {
+            for (int w = 0; w < WORDS; w++) {
+                map.add(id + ":" + w, w);
+            }
+            for (int w = 0; w < WORDS; w += 2) {
+                map.remove(id + ":" + w);
+            }
+        });
+        assertEquals(THREADS * (WORDS / 2), map.size());
+        for (int t = 0; t < THREADS; t++) {
+            for (int w = 0; w < WORDS; w++) {
+                assertEquals(w % 2 == 1, map.hasKey(t + ":" + w));
+            }
+        }
+    }
+
+    @Test
+    public final void testConcurrentRemoveAnyDrainsExactlyOnce()
+            throws InterruptedException {
+        Map4Striped<String, Integer> map = new Map4Striped<String, Integer>();
+        for (int w = 0; w < THREADS * WORDS; w++) {
+            map.add("w" + w, w);
+        }
+        AtomicLong sum = new AtomicLong();
+        runInParallel(id -> {
+            for (int w = 0; w < WORDS; w++) {
+                sum.addAndGet(map.removeAny().value());
+            }
+        });
+        long n = THREADS * WORDS;
+        assertEquals(0, map.size());
+        assertEquals(n * (n - 1) / 2, sum.get());
+    }
+
+    @Test
+    public final void testRacingRemoveAnyOnSmallMapStops()
+            throws InterruptedException {
+        Map4Striped<String, Integer> map = new Map4Striped<String, Integer>();
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int w = 0; w < SMALL; w++) {
+                map.add("w" + w, 1);
+            }
+            AtomicLong removed = new AtomicLong();
+            runInParallel(id -> {
+                try {
+                    while (true) {
+                        removed.addAndGet(map.removeAny().value());
+                    }
+                } catch (NoSuchElementException e) {
+                    /*
+                     * Every segment was empty on a full pass: done
+                     */
+                }
+            });
+            assertEquals(0, map.size());
+            assertEquals(SMALL, removed.get());
+        }
+    }
+
+}
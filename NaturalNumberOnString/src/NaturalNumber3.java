@@ -5,6 +5,15 @@ import components.naturalnumber.NaturalNumberSecondary;
  * {@code NaturalNumber} represented as a {@code String} with implementations of
  * primary methods.
  *
+ * <p>
+ * Apart from zero, the representation is exactly the decimal depiction of the
+ * number, so {@code toString} returns it without building anything, and since
+ * a {@code String} never changes, a copy made by the {@code NaturalNumber}
+ * constructor just shares it: each kernel method builds a new one. For the
+ * same reason {@code compareTo} and {@code equals} compare the
+ * representations directly when both numbers are {@code NaturalNumber3}s.
+ * </p>
+ *
  * @convention <pre>
  * [all characters of $this.rep are '0' through '9']  and
  * [$this.rep does not start with '0']
@@ -58,7 +67,7 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
 
         this.createNewRep();
         if (i != 0) {
-            this.rep += "" + i;
+            this.rep = Integer.toString(i);
         }
     }
 
@@ -75,7 +84,7 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
 
         this.createNewRep();
         if (!s.equals("0")) {
-            this.rep += s;
+            this.rep = s;
         }
     }
 
@@ -89,10 +98,13 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
         assert n != null : "Violation of: n is not null";
 
         this.createNewRep();
-        if (n.toString().equals("0")) {
-            this.rep = "";
+        if (n instanceof NaturalNumber3) {
+            this.rep = ((NaturalNumber3) n).rep;
         } else {
-            this.rep = n.toString();
+            String s = n.toString();
+            if (!s.equals("0")) {
+                this.rep = s;
+            }
         }
     }
 
@@ -164,4 +176,50 @@ public class NaturalNumber3 extends NaturalNumberSecondary {
 
     }
 
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final String toString() {
+        String s = this.rep;
+        if (s.isEmpty()) {
+            s = "0";
+        }
+        return s;
+    }
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        int result;
+        if (n instanceof NaturalNumber3) {
+            String other = ((NaturalNumber3) n).rep;
+            result = Integer.compare(this.rep.length(), other.length());
+            if (result == 0) {
+                result = this.rep.compareTo(other);
+            }
+        } else {
+            result = super.compareTo(n);
+        }
+        return result;
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+        boolean result;
+        if (obj instanceof NaturalNumber3) {
+            result = this.rep.equals(((NaturalNumber3) obj).rep);
+        } else {
+            result = super.equals(obj);
+        }
+        return result;
+    }
+
+    @Override
+    public final int hashCode() {
+        return super.hashCode();
+    }
+
 }
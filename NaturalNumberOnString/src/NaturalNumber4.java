@@ -0,0 +1,345 @@
+import java.util.Arrays;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as a growable array of decimal digits,
+ * most significant first, with implementations of primary methods.
+ *
+ * <p>
+ * {@code multiplyBy10} appends a digit at the end of the filled part of the
+ * array, doubling the array when it is full, and {@code divideBy10} takes the
+ * last digit off, so both take constant amortized time instead of copying the
+ * whole number the way {@code NaturalNumber3}'s {@code String} does.
+ * </p>
+ *
+ * <p>
+ * The arithmetic secondary methods are overridden to work on base-10^9
+ * limbs (see {@code NaturalNumberLimbs}) instead of one digit at a time:
+ * {@code add} and {@code subtract} are schoolbook, {@code multiply} switches
+ * to Karatsuba's method for long factors, {@code divide} is Knuth's long
+ * division, {@code power} squares repeatedly, and {@code root} uses Newton's
+ * method. Converting between digits and limbs takes linear time, which each
+ * of these spends anyway.
+ * </p>
+ *
+ * @convention <pre>
+ * 0 <= $this.length <= |$this.digits|  and
+ * [all entries of $this.digits[0, $this.length) are 0 through 9]  and
+ * ($this.length = 0  or  $this.digits[0] /= 0)
+ * </pre>
+ * @correspondence <pre>
+ * this = [if $this.length = 0 then 0
+ *         else the decimal number whose digits, most significant first, are
+ *         $this.digits[0, $this.length)]
+ * </pre>
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public class NaturalNumber4 extends NaturalNumberSecondary {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial length of the digits array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Digits, most significant first, in positions [0, length).
+     */
+    private byte[] digits;
+
+    /**
+     * Number of digits.
+     */
+    private int length;
+
+    /**
+     * Sets the representation to the digits of {@code s}.
+     *
+     * @param s
+     *            the decimal depiction of the new value
+     * @replaces this
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     * @ensures this = s
+     */
+    private void setDigits(String s) {
+        if (s.equals("0")) {
+            this.createNewRep();
+        } else {
+            this.length = s.length();
+            this.digits = new byte[Math.max(this.length, INITIAL_CAPACITY)];
+            for (int i = 0; i < this.length; i++) {
+                this.digits[i] = (byte) (s.charAt(i) - '0');
+            }
+        }
+    }
+
+    /**
+     * Returns the limbs of {@code this}.
+     *
+     * @return the limbs of this
+     */
+    private int[] limbs() {
+        return NaturalNumberLimbs.fromDigits(this.digits, this.length);
+    }
+
+    /**
+     * Returns the limbs of {@code n}.
+     *
+     * @param n
+     *            the number
+     * @return the limbs of n
+     */
+    private static int[] limbsOf(NaturalNumber n) {
+        NaturalNumber4 localN;
+        if (n instanceof NaturalNumber4) {
+            localN = (NaturalNumber4) n;
+        } else {
+            localN = new NaturalNumber4(n);
+        }
+        return localN.limbs();
+    }
+
+    /**
+     * Sets the representation to the digits of {@code limbs}.
+     *
+     * @param limbs
+     *            the new value, as normalized limbs
+     * @replaces this
+     * @ensures this = limbs
+     */
+    private void setLimbs(int[] limbs) {
+        this.length = NaturalNumberLimbs.digitCount(limbs);
+        this.digits = new byte[Math.max(this.length, INITIAL_CAPACITY)];
+        NaturalNumberLimbs.toDigits(limbs, this.digits);
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.digits = new byte[INITIAL_CAPACITY];
+        this.length = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber4() {
+        this.createNewRep();
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber4(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+
+        this.setDigits(Integer.toString(i));
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber4(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+
+        this.setDigits(s);
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber4(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        if (n instanceof NaturalNumber4) {
+            NaturalNumber4 localN = (NaturalNumber4) n;
+            this.digits = Arrays.copyOf(localN.digits,
+                    Math.max(localN.length, INITIAL_CAPACITY));
+            this.length = localN.length;
+        } else {
+            this.setDigits(n.toString());
+        }
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber4 : ""
+                + "Violation of: source is of dynamic type NaturalNumber4";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber4 localSource = (NaturalNumber4) source;
+        this.digits = localSource.digits;
+        this.length = localSource.length;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+
+        if (this.length > 0 || k != 0) {
+            if (this.length == this.digits.length) {
+                this.digits = Arrays.copyOf(this.digits, 2 * this.length);
+            }
+            this.digits[this.length] = (byte) k;
+            this.length++;
+        }
+    }
+
+    @Override
+    public final int divideBy10() {
+
+        int num = 0;
+        if (this.length > 0) {
+            this.length--;
+            num = this.digits[this.length];
+        }
+        return num;
+
+    }
+
+    @Override
+    public final boolean isZero() {
+
+        return this.length == 0;
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final String toString() {
+        String s = "0";
+        if (this.length > 0) {
+            char[] chars = new char[this.length];
+            for (int i = 0; i < this.length; i++) {
+                chars[i] = (char) ('0' + this.digits[i]);
+            }
+            s = new String(chars);
+        }
+        return s;
+    }
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        int result;
+        if (n instanceof NaturalNumber4) {
+            NaturalNumber4 localN = (NaturalNumber4) n;
+            result = Integer.compare(this.length, localN.length);
+            for (int i = 0; result == 0 && i < this.length; i++) {
+                result = Integer.compare(this.digits[i], localN.digits[i]);
+            }
+        } else {
+            result = super.compareTo(n);
+        }
+        return result;
+    }
+
+    @Override
+    public final void add(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        this.setLimbs(NaturalNumberLimbs.add(this.limbs(), limbsOf(n)));
+    }
+
+    @Override
+    public final void subtract(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        int[] a = this.limbs();
+        int[] b = limbsOf(n);
+        assert NaturalNumberLimbs.compare(a, b) >= 0 : ""
+                + "Violation of: this >= n";
+        this.setLimbs(NaturalNumberLimbs.subtract(a, b));
+    }
+
+    @Override
+    public final void multiply(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        this.setLimbs(NaturalNumberLimbs.multiply(this.limbs(), limbsOf(n)));
+    }
+
+    @Override
+    public final NaturalNumber divide(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert !n.isZero() : "Violation of: n > 0";
+
+        int[][] qr = NaturalNumberLimbs.divide(this.limbs(), limbsOf(n));
+        this.setLimbs(qr[0]);
+        NaturalNumber4 remainder = (NaturalNumber4) this.newInstance();
+        remainder.setLimbs(qr[1]);
+        return remainder;
+    }
+
+    @Override
+    public final void power(int p) {
+        assert p >= 0 : "Violation of: p >= 0";
+
+        this.setLimbs(NaturalNumberLimbs.power(this.limbs(), p));
+    }
+
+    @Override
+    public final void root(int r) {
+        assert r >= 2 : "Violation of: r >= 2";
+
+        this.setLimbs(NaturalNumberLimbs.root(this.limbs(), r));
+    }
+
+}
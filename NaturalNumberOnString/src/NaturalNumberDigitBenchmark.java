@@ -0,0 +1,104 @@
+import java.util.Random;
+
+import components.naturalnumber.NaturalNumber;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times the kernel digit operations of {@code NaturalNumber3} and
+ * {@code NaturalNumber4} on a number with a given number of digits: building
+ * it one {@code multiplyBy10} at a time, rendering it with {@code toString},
+ * and taking it apart one {@code divideBy10} at a time. Run with assertion
+ * checking off.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public final class NaturalNumberDigitBenchmark {
+
+    /**
+     * Default number of digits.
+     */
+    private static final int DEFAULT_DIGITS = 100000;
+
+    /**
+     * Seed for the random digits.
+     */
+    private static final long SEED = 1009;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumberDigitBenchmark() {
+    }
+
+    /**
+     * Builds {@code n} from {@code digits}, renders it, and takes it apart
+     * again, and reports the time each phase takes.
+     *
+     * @param out
+     *            the output stream
+     * @param name
+     *            the name of the implementation
+     * @param n
+     *            the number to build, initially zero
+     * @param digits
+     *            the digits, most significant first
+     * @updates out.content
+     * @requires out.is_open  and  n = 0  and  digits[0] /= 0
+     * @ensures out.content = #out.content * [one line of results]
+     */
+    private static void run(SimpleWriter out, String name, NaturalNumber n,
+            int[] digits) {
+        long start = System.nanoTime();
+        for (int d : digits) {
+            n.multiplyBy10(d);
+        }
+        long built = System.nanoTime();
+        int check = n.toString().length();
+        long rendered = System.nanoTime();
+        while (!n.isZero()) {
+            check += n.divideBy10();
+        }
+        long emptied = System.nanoTime();
+        out.println(name + "\t" + ((built - start) / NANOS_PER_MILLI) + "\t"
+                + ((rendered - built) / NANOS_PER_MILLI) + "\t"
+                + ((emptied - rendered) / NANOS_PER_MILLI) + "\t" + check);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the number of digits
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int count = DEFAULT_DIGITS;
+        if (args.length > 0) {
+            count = Integer.parseInt(args[0]);
+        }
+        Random random = new Random(SEED);
+        int[] digits = new int[count];
+        digits[0] = 1 + random.nextInt(NaturalNumber.RADIX - 1);
+        for (int i = 1; i < count; i++) {
+            digits[i] = random.nextInt(NaturalNumber.RADIX);
+        }
+
+        out.println("digits " + count);
+        out.println("number\tms multiplyBy10\tms toString\tms divideBy10"
+                + "\tcheck");
+        run(out, "NaturalNumber3", new NaturalNumber3(), digits);
+        run(out, "NaturalNumber4", new NaturalNumber4(), digits);
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,555 @@
+import java.util.Arrays;
+
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * Arithmetic on natural numbers represented as arrays of base-10^9 "limbs",
+ * least significant first, for {@code NaturalNumber} implementations that
+ * override the secondary methods.
+ *
+ * <p>
+ * Every array taken or returned is normalized: its last entry is not 0, so
+ * zero is the empty array. Every entry is in [0, 10^9). No method changes its
+ * arguments.
+ * </p>
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+final class NaturalNumberLimbs {
+
+    /**
+     * Radix of a limb.
+     */
+    static final int BASE = 1000000000;
+
+    /**
+     * Number of decimal digits in a limb.
+     */
+    static final int DIGITS_PER_LIMB = 9;
+
+    /**
+     * Length, in limbs, of the shorter factor below which {@code multiply}
+     * uses the schoolbook method instead of Karatsuba's.
+     */
+    static final int KARATSUBA_THRESHOLD = 40;
+
+    /**
+     * Zero.
+     */
+    private static final int[] ZERO = new int[0];
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumberLimbs() {
+    }
+
+    /**
+     * Returns {@code a[0, length)} with any zero limbs at the end dropped.
+     *
+     * @param a
+     *            the limbs
+     * @param length
+     *            the number of limbs to keep at most
+     * @return the normalized limbs
+     * @requires 0 <= length <= |a|
+     */
+    private static int[] trim(int[] a, int length) {
+        int n = length;
+        while (n > 0 && a[n - 1] == 0) {
+            n--;
+        }
+        int[] result = a;
+        if (n != a.length) {
+            result = Arrays.copyOf(a, n);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the limbs of {@code i}.
+     *
+     * @param i
+     *            the number
+     * @return the limbs
+     * @requires i >= 0
+     */
+    static int[] fromInt(int i) {
+        return trim(new int[] { i % BASE, i / BASE }, 2);
+    }
+
+    /**
+     * Returns the limbs of the number whose decimal digits, most significant
+     * first, are {@code digits[0, length)}.
+     *
+     * @param digits
+     *            the decimal digits
+     * @param length
+     *            the number of digits
+     * @return the limbs
+     * @requires <pre>
+     * 0 <= length <= |digits|  and
+     * (length = 0  or  digits[0] /= 0)
+     * </pre>
+     */
+    static int[] fromDigits(byte[] digits, int length) {
+        int[] limbs = new int[(length + DIGITS_PER_LIMB - 1)
+                / DIGITS_PER_LIMB];
+        for (int k = 0; k < limbs.length; k++) {
+            int end = length - k * DIGITS_PER_LIMB;
+            int start = Math.max(0, end - DIGITS_PER_LIMB);
+            int limb = 0;
+            for (int i = start; i < end; i++) {
+                limb = limb * NaturalNumber.RADIX + digits[i];
+            }
+            limbs[k] = limb;
+        }
+        return limbs;
+    }
+
+    /**
+     * Returns the number of decimal digits of {@code a}.
+     *
+     * @param a
+     *            the limbs
+     * @return the number of digits, 0 for zero
+     */
+    static int digitCount(int[] a) {
+        int count = 0;
+        if (a.length > 0) {
+            count = (a.length - 1) * DIGITS_PER_LIMB;
+            for (int top = a[a.length - 1]; top > 0;
+                    top /= NaturalNumber.RADIX) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the decimal digits of {@code a}, most significant first, into
+     * {@code digits}.
+     *
+     * @param a
+     *            the limbs
+     * @param digits
+     *            the array to write into
+     * @updates digits
+     * @requires |digits| >= digitCount(a)
+     * @ensures <pre>
+     * [digits[0, digitCount(a)) are the decimal digits of a, most significant
+     *  first]
+     * </pre>
+     */
+    static void toDigits(int[] a, byte[] digits) {
+        int i = digitCount(a);
+        for (int k = 0; k < a.length; k++) {
+            int limb = a[k];
+            int stop = Math.max(0, i - DIGITS_PER_LIMB);
+            while (i > stop) {
+                i--;
+                digits[i] = (byte) (limb % NaturalNumber.RADIX);
+                limb /= NaturalNumber.RADIX;
+            }
+        }
+    }
+
+    /**
+     * Compares {@code a} and {@code b}.
+     *
+     * @param a
+     *            the first number
+     * @param b
+     *            the second number
+     * @return a negative number, zero, or a positive number as {@code a} is
+     *         less than, equal to, or greater than {@code b}
+     */
+    static int compare(int[] a, int[] b) {
+        int result = Integer.compare(a.length, b.length);
+        for (int i = a.length - 1; result == 0 && i >= 0; i--) {
+            result = Integer.compare(a[i], b[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code a + b}.
+     *
+     * @param a
+     *            the first number
+     * @param b
+     *            the second number
+     * @return the sum
+     */
+    static int[] add(int[] a, int[] b) {
+        int[] longer = a;
+        int[] shorter = b;
+        if (a.length < b.length) {
+            longer = b;
+            shorter = a;
+        }
+        int[] sum = new int[longer.length + 1];
+        int carry = 0;
+        for (int i = 0; i < longer.length; i++) {
+            int s = longer[i] + carry;
+            if (i < shorter.length) {
+                s += shorter[i];
+            }
+            carry = 0;
+            if (s >= BASE) {
+                s -= BASE;
+                carry = 1;
+            }
+            sum[i] = s;
+        }
+        sum[longer.length] = carry;
+        return trim(sum, sum.length);
+    }
+
+    /**
+     * Returns {@code a - b}.
+     *
+     * @param a
+     *            the minuend
+     * @param b
+     *            the subtrahend
+     * @return the difference
+     * @requires a >= b
+     */
+    static int[] subtract(int[] a, int[] b) {
+        int[] difference = new int[a.length];
+        int borrow = 0;
+        for (int i = 0; i < a.length; i++) {
+            int d = a[i] - borrow;
+            if (i < b.length) {
+                d -= b[i];
+            }
+            borrow = 0;
+            if (d < 0) {
+                d += BASE;
+                borrow = 1;
+            }
+            difference[i] = d;
+        }
+        return trim(difference, difference.length);
+    }
+
+    /**
+     * Adds {@code x}, shifted up by {@code offset} limbs, into
+     * {@code result}.
+     *
+     * @param result
+     *            the array to add into
+     * @param x
+     *            the number to add
+     * @param offset
+     *            the number of limbs to shift x by
+     * @updates result
+     * @requires [result + x * BASE^offset fits in |result| limbs]
+     * @ensures result = #result + x * BASE^offset
+     */
+    private static void addInto(int[] result, int[] x, int offset) {
+        int carry = 0;
+        int i = 0;
+        while (i < x.length || carry != 0) {
+            int s = result[offset + i] + carry;
+            if (i < x.length) {
+                s += x[i];
+            }
+            carry = 0;
+            if (s >= BASE) {
+                s -= BASE;
+                carry = 1;
+            }
+            result[offset + i] = s;
+            i++;
+        }
+    }
+
+    /**
+     * Returns {@code a * b} by the schoolbook method.
+     *
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @return the product
+     */
+    private static int[] schoolbook(int[] a, int[] b) {
+        int[] product = new int[a.length + b.length];
+        for (int i = 0; i < a.length; i++) {
+            long ai = a[i];
+            long carry = 0;
+            for (int j = 0; j < b.length; j++) {
+                long t = ai * b[j] + product[i + j] + carry;
+                product[i + j] = (int) (t % BASE);
+                carry = t / BASE;
+            }
+            product[i + b.length] = (int) carry;
+        }
+        return trim(product, product.length);
+    }
+
+    /**
+     * Returns {@code a[from, min(to, |a|))} as a normalized number.
+     *
+     * @param a
+     *            the limbs
+     * @param from
+     *            the index of the first limb
+     * @param to
+     *            the index after the last limb
+     * @return the slice
+     * @requires 0 <= from <= to
+     */
+    private static int[] slice(int[] a, int from, int to) {
+        int[] result = ZERO;
+        int end = Math.min(to, a.length);
+        if (from < end) {
+            result = trim(Arrays.copyOfRange(a, from, end), end - from);
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code a * b}, by Karatsuba's method once both factors are at
+     * least {@code KARATSUBA_THRESHOLD} limbs long.
+     *
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @return the product
+     */
+    static int[] multiply(int[] a, int[] b) {
+        int[] longer = a;
+        int[] shorter = b;
+        if (a.length < b.length) {
+            longer = b;
+            shorter = a;
+        }
+        int[] product;
+        if (shorter.length < KARATSUBA_THRESHOLD) {
+            product = schoolbook(longer, shorter);
+        } else {
+            int half = (longer.length + 1) / 2;
+            product = new int[longer.length + shorter.length + 1];
+            int[] longLow = slice(longer, 0, half);
+            int[] longHigh = slice(longer, half, longer.length);
+            if (shorter.length <= half) {
+                /*
+                 * The shorter factor would have no high half, so split only
+                 * the longer one.
+                 */
+                addInto(product, multiply(longLow, shorter), 0);
+                addInto(product, multiply(longHigh, shorter), half);
+            } else {
+                int[] shortLow = slice(shorter, 0, half);
+                int[] shortHigh = slice(shorter, half, shorter.length);
+                int[] low = multiply(longLow, shortLow);
+                int[] high = multiply(longHigh, shortHigh);
+                int[] middle = subtract(
+                        subtract(multiply(add(longLow, longHigh),
+                                add(shortLow, shortHigh)), low),
+                        high);
+                addInto(product, low, 0);
+                addInto(product, middle, half);
+                addInto(product, high, 2 * half);
+            }
+            product = trim(product, product.length);
+        }
+        return product;
+    }
+
+    /**
+     * Returns {@code a * k}.
+     *
+     * @param a
+     *            the number
+     * @param k
+     *            the small factor
+     * @return the product
+     * @requires 0 <= k < BASE
+     */
+    static int[] multiply(int[] a, int k) {
+        int[] product = new int[a.length + 1];
+        long carry = 0;
+        for (int i = 0; i < a.length; i++) {
+            long t = (long) a[i] * k + carry;
+            product[i] = (int) (t % BASE);
+            carry = t / BASE;
+        }
+        product[a.length] = (int) carry;
+        return trim(product, product.length);
+    }
+
+    /**
+     * Divides {@code a} by {@code k}, putting the quotient in {@code q} and
+     * returning the remainder.
+     *
+     * @param a
+     *            the dividend
+     * @param k
+     *            the small divisor
+     * @param q
+     *            the array to put the quotient in
+     * @return the remainder
+     * @updates q
+     * @requires 0 < k < BASE  and  |q| >= |a|
+     * @ensures <pre>
+     * [q[0, |a|) is #a / k, with leading zero limbs]  and
+     * divideInto = a mod k
+     * </pre>
+     */
+    private static int divideInto(int[] a, int k, int[] q) {
+        long remainder = 0;
+        for (int i = a.length - 1; i >= 0; i--) {
+            long cur = remainder * BASE + a[i];
+            q[i] = (int) (cur / k);
+            remainder = cur % k;
+        }
+        return (int) remainder;
+    }
+
+    /**
+     * Returns {@code a / b} and {@code a mod b}, by Knuth's long division
+     * (Algorithm D) when {@code b} has more than one limb.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @return an array holding the quotient and then the remainder
+     * @requires b > 0
+     */
+    static int[][] divide(int[] a, int[] b) {
+        int[][] result;
+        if (compare(a, b) < 0) {
+            result = new int[][] { ZERO, a };
+        } else if (b.length == 1) {
+            int[] q = new int[a.length];
+            int r = divideInto(a, b[0], q);
+            result = new int[][] { trim(q, q.length),
+                    trim(new int[] { r }, 1) };
+        } else {
+            int n = b.length;
+            int m = a.length - n;
+            /*
+             * Scale both numbers so the top limb of the divisor is at least
+             * BASE / 2, which keeps each quotient limb estimate within 2 of
+             * the true value.
+             */
+            int scale = BASE / (b[n - 1] + 1);
+            int[] u = Arrays.copyOf(multiply(a, scale), a.length + 1);
+            int[] v = multiply(b, scale);
+            int[] q = new int[m + 1];
+            long vTop = v[n - 1];
+            long vNext = v[n - 2];
+            for (int j = m; j >= 0; j--) {
+                long num = (long) u[j + n] * BASE + u[j + n - 1];
+                long qhat = num / vTop;
+                long rhat = num % vTop;
+                while (qhat >= BASE || qhat * vNext > rhat * BASE
+                        + u[j + n - 2]) {
+                    qhat--;
+                    rhat += vTop;
+                    if (rhat >= BASE) {
+                        break;
+                    }
+                }
+                long carry = 0;
+                long borrow = 0;
+                for (int i = 0; i < n; i++) {
+                    long p = qhat * v[i] + carry;
+                    carry = p / BASE;
+                    long d = u[i + j] - p % BASE - borrow;
+                    borrow = 0;
+                    if (d < 0) {
+                        d += BASE;
+                        borrow = 1;
+                    }
+                    u[i + j] = (int) d;
+                }
+                long top = u[j + n] - carry - borrow;
+                if (top < 0) {
+                    /*
+                     * qhat was one too large, so add the divisor back.
+                     */
+                    qhat--;
+                    carry = 0;
+                    for (int i = 0; i < n; i++) {
+                        long s = (long) u[i + j] + v[i] + carry;
+                        u[i + j] = (int) (s % BASE);
+                        carry = s / BASE;
+                    }
+                    top += carry;
+                }
+                u[j + n] = (int) top;
+                q[j] = (int) qhat;
+            }
+            int[] r = new int[n];
+            divideInto(trim(Arrays.copyOf(u, n), n), scale, r);
+            result = new int[][] { trim(q, q.length), trim(r, n) };
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code a^p}, by repeated squaring.
+     *
+     * @param a
+     *            the base
+     * @param p
+     *            the exponent
+     * @return the power
+     * @requires p >= 0
+     */
+    static int[] power(int[] a, int p) {
+        int[] result = new int[] { 1 };
+        int[] square = a;
+        int e = p;
+        while (e > 0) {
+            if (e % 2 == 1) {
+                result = multiply(result, square);
+            }
+            e /= 2;
+            if (e > 0) {
+                square = multiply(square, square);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the largest number whose {@code r}-th power is at most
+     * {@code a}, by Newton's method starting from a power of 10 above it.
+     *
+     * @param a
+     *            the number
+     * @param r
+     *            the root
+     * @return the integer {@code r}-th root of a
+     * @requires r >= 2
+     */
+    static int[] root(int[] a, int r) {
+        int[] x = a;
+        if (a.length > 0) {
+            int exponent = (digitCount(a) + r - 1) / r;
+            x = power(new int[] { NaturalNumber.RADIX }, exponent);
+            boolean shrinking = true;
+            while (shrinking) {
+                int[] next = add(multiply(x, fromInt(r - 1)),
+                        divide(a, power(x, r - 1))[0]);
+                next = divide(next, fromInt(r))[0];
+                shrinking = compare(next, x) < 0;
+                if (shrinking) {
+                    x = next;
+                }
+            }
+        }
+        return x;
+    }
+
+}
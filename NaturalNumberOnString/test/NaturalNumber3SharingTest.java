@@ -0,0 +1,78 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber2;
+
+/**
+ * JUnit test fixture for the {@code String} sharing and the {@code toString},
+ * {@code compareTo}, and {@code equals} fast paths of {@code NaturalNumber3}.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public final class NaturalNumber3SharingTest {
+
+    @Test
+    public void testToStringReturnsSameString() {
+        String s = "12345678901234567890";
+        NaturalNumber n = new NaturalNumber3(s);
+        assertSame(s, n.toString());
+        assertSame(n.toString(), n.toString());
+        assertEquals("0", new NaturalNumber3().toString());
+    }
+
+    @Test
+    public void testCopySharesThenDiverges() {
+        NaturalNumber n = new NaturalNumber3("314159");
+        NaturalNumber copy = new NaturalNumber3(n);
+        assertSame(n.toString(), copy.toString());
+        copy.multiplyBy10(2);
+        assertEquals("314159", n.toString());
+        assertEquals("3141592", copy.toString());
+        int d = n.divideBy10();
+        assertEquals(9, d);
+        assertEquals("31415", n.toString());
+        assertEquals("3141592", copy.toString());
+    }
+
+    @Test
+    public void testCopyOfZeroAndOtherType() {
+        NaturalNumber zero = new NaturalNumber3(new NaturalNumber3());
+        assertEquals(true, zero.isZero());
+        NaturalNumber n = new NaturalNumber3(new NaturalNumber2("2718"));
+        assertEquals("2718", n.toString());
+        zero = new NaturalNumber3(new NaturalNumber2());
+        assertEquals(true, zero.isZero());
+    }
+
+    @Test
+    public void testCompareTo() {
+        String[][] pairs = { { "0", "0" }, { "0", "1" }, { "9", "10" },
+                { "123", "124" }, { "1000", "999" }, { "55", "55" },
+                { "98765", "98756" } };
+        for (String[] pair : pairs) {
+            int expected = Integer.signum(new NaturalNumber2(pair[0])
+                    .compareTo(new NaturalNumber2(pair[1])));
+            NaturalNumber a = new NaturalNumber3(pair[0]);
+            assertEquals(pair[0] + " vs " + pair[1], expected, Integer
+                    .signum(a.compareTo(new NaturalNumber3(pair[1]))));
+            assertEquals(pair[0] + " vs " + pair[1], expected, Integer
+                    .signum(a.compareTo(new NaturalNumber2(pair[1]))));
+        }
+    }
+
+    @Test
+    public void testEquals() {
+        NaturalNumber a = new NaturalNumber3("4096");
+        assertEquals(true, a.equals(new NaturalNumber3("4096")));
+        assertEquals(false, a.equals(new NaturalNumber3("4095")));
+        assertEquals(true, a.equals(new NaturalNumber2("4096")));
+        assertEquals(false, a.equals("4096"));
+        assertEquals(new NaturalNumber2("4096").hashCode(), a.hashCode());
+    }
+
+}
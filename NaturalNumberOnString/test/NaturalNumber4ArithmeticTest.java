@@ -0,0 +1,229 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber2;
+
+/**
+ * Randomized differential tests of the arithmetic methods that
+ * {@code NaturalNumber4} overrides, against {@code NaturalNumber2}.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public final class NaturalNumber4ArithmeticTest {
+
+    /**
+     * Seed for the random numbers, so failures can be reproduced.
+     */
+    private static final long SEED = 271828;
+
+    /**
+     * Numbers of digits to test, around limb boundaries and past the
+     * Karatsuba threshold.
+     */
+    private static final int[] LENGTHS = { 1, 2, 8, 9, 10, 17, 18, 19, 27, 50,
+            200, 400, 1000 };
+
+    /**
+     * Number of random cases per pair of lengths.
+     */
+    private static final int CASES = 4;
+
+    /**
+     * Random source.
+     */
+    private final Random random = new Random(SEED);
+
+    /**
+     * Returns a random decimal depiction with {@code length} digits, with
+     * runs of 0s and 9s mixed in to exercise carries, borrows, and quotient
+     * corrections.
+     *
+     * @param length
+     *            the number of digits
+     * @return the depiction
+     * @requires length > 0
+     */
+    private String randomDigits(int length) {
+        StringBuilder s = new StringBuilder();
+        s.append((char) ('1' + this.random.nextInt(9)));
+        int style = this.random.nextInt(3);
+        for (int i = 1; i < length; i++) {
+            char c = (char) ('0' + this.random.nextInt(10));
+            if (style == 1 && this.random.nextInt(4) != 0) {
+                c = '9';
+            } else if (style == 2 && this.random.nextInt(4) != 0) {
+                c = '0';
+            }
+            s.append(c);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Checks {@code add}, {@code subtract}, {@code multiply}, and
+     * {@code divide} on {@code a} and {@code b} against
+     * {@code NaturalNumber2}.
+     *
+     * @param a
+     *            the first operand
+     * @param b
+     *            the second operand
+     */
+    private static void checkPair(String a, String b) {
+        NaturalNumber n = new NaturalNumber4(a);
+        NaturalNumber nExpected = new NaturalNumber2(a);
+        n.add(new NaturalNumber4(b));
+        nExpected.add(new NaturalNumber2(b));
+        assertEquals(a + " + " + b, nExpected.toString(), n.toString());
+
+        n.subtract(new NaturalNumber4(b));
+        assertEquals(a + " + " + b + " - " + b, a, n.toString());
+
+        n = new NaturalNumber4(a);
+        nExpected = new NaturalNumber2(a);
+        n.multiply(new NaturalNumber4(b));
+        nExpected.multiply(new NaturalNumber2(b));
+        assertEquals(a + " * " + b, nExpected.toString(), n.toString());
+
+        n = new NaturalNumber4(a);
+        nExpected = new NaturalNumber2(a);
+        NaturalNumber r = n.divide(new NaturalNumber4(b));
+        NaturalNumber rExpected = nExpected.divide(new NaturalNumber2(b));
+        assertEquals(a + " / " + b, nExpected.toString(), n.toString());
+        assertEquals(a + " mod " + b, rExpected.toString(), r.toString());
+        assertEquals(true, r instanceof NaturalNumber4);
+    }
+
+    @Test
+    public void testRandomPairs() {
+        for (int la : LENGTHS) {
+            for (int lb : LENGTHS) {
+                for (int i = 0; i < CASES; i++) {
+                    checkPair(this.randomDigits(la), this.randomDigits(lb));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDivisionCorrectionCases() {
+        /*
+         * Divisors just above a power of the limb radix and dividends of
+         * nines make the first quotient limb estimate too large.
+         */
+        checkPair("999999999999999999999999999999999999",
+                "1000000000000000001");
+        checkPair("1000000000000000000000000000000000000000000000",
+                "999999999000000001");
+        checkPair("4999999999999999999999999999999999999",
+                "500000000000000000000000001");
+        checkPair("123456789123456789123456789", "123456789123456789");
+        checkPair("1000000000000000000", "1000000000");
+        checkPair("1000000000000000000", "999999999");
+    }
+
+    @Test
+    public void testZeroOperands() {
+        NaturalNumber n = new NaturalNumber4();
+        n.add(new NaturalNumber4("123"));
+        assertEquals("123", n.toString());
+        n.subtract(new NaturalNumber4("123"));
+        assertEquals("0", n.toString());
+        n = new NaturalNumber4("123");
+        n.multiply(new NaturalNumber4());
+        assertEquals("0", n.toString());
+        n = new NaturalNumber4();
+        NaturalNumber r = n.divide(new NaturalNumber4("7"));
+        assertEquals("0", n.toString());
+        assertEquals("0", r.toString());
+    }
+
+    @Test
+    public void testOperandOfOtherType() {
+        NaturalNumber n = new NaturalNumber4("123456789123");
+        n.multiply(new NaturalNumber2("1000000000000"));
+        assertEquals("123456789123000000000000", n.toString());
+        assertEquals(0, n.compareTo(new NaturalNumber2(n)));
+    }
+
+    @Test
+    public void testOperandIsThis() {
+        NaturalNumber n = new NaturalNumber4("987654321987654321");
+        n.multiply(n);
+        NaturalNumber nExpected = new NaturalNumber2("987654321987654321");
+        nExpected.multiply(new NaturalNumber2("987654321987654321"));
+        assertEquals(nExpected.toString(), n.toString());
+        NaturalNumber r = n.divide(n);
+        assertEquals("1", n.toString());
+        assertEquals("0", r.toString());
+    }
+
+    @Test
+    public void testPower() {
+        int[] exponents = { 0, 1, 2, 3, 7, 20, 64 };
+        for (int length : new int[] { 1, 9, 10, 30 }) {
+            String a = this.randomDigits(length);
+            for (int p : exponents) {
+                NaturalNumber n = new NaturalNumber4(a);
+                NaturalNumber nExpected = new NaturalNumber2(a);
+                n.power(p);
+                nExpected.power(p);
+                assertEquals(a + " ^ " + p, nExpected.toString(),
+                        n.toString());
+            }
+        }
+        NaturalNumber zero = new NaturalNumber4();
+        zero.power(0);
+        assertEquals("1", zero.toString());
+    }
+
+    @Test
+    public void testRoot() {
+        int[] roots = { 2, 3, 5, 17 };
+        for (int length : new int[] { 1, 2, 9, 10, 19, 60, 300 }) {
+            for (int i = 0; i < CASES; i++) {
+                String a = this.randomDigits(length);
+                for (int r : roots) {
+                    NaturalNumber n = new NaturalNumber4(a);
+                    NaturalNumber nExpected = new NaturalNumber2(a);
+                    n.root(r);
+                    nExpected.root(r);
+                    assertEquals("root(" + a + ", " + r + ")",
+                            nExpected.toString(), n.toString());
+                }
+            }
+        }
+        for (String a : new String[] { "0", "1", "8", "9", "1000000",
+                "999999", "1000000000000000000" }) {
+            NaturalNumber n = new NaturalNumber4(a);
+            NaturalNumber nExpected = new NaturalNumber2(a);
+            n.root(2);
+            nExpected.root(2);
+            assertEquals("root(" + a + ", 2)", nExpected.toString(),
+                    n.toString());
+        }
+    }
+
+    @Test
+    public void testCompareTo() {
+        for (int la : LENGTHS) {
+            for (int lb : LENGTHS) {
+                String a = this.randomDigits(la);
+                String b = this.randomDigits(lb);
+                int expected = Integer.signum(
+                        new NaturalNumber2(a).compareTo(new NaturalNumber2(b)));
+                assertEquals(a + " vs " + b, expected, Integer.signum(
+                        new NaturalNumber4(a).compareTo(new NaturalNumber4(b))));
+            }
+        }
+        assertEquals(0, new NaturalNumber4("42")
+                .compareTo(new NaturalNumber4("42")));
+    }
+
+}
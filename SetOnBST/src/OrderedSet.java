@@ -0,0 +1,115 @@
+import components.queue.Queue;
+import components.set.Set;
+
+/**
+ * {@code Set} whose elements are ordered by {@code compareTo}, with
+ * additional order-based queries: minimum and maximum, floor and ceiling,
+ * rank and select, and the elements within a range.
+ *
+ * @param <T>
+ *            type of {@code OrderedSet} elements
+ * @mathdefinitions <pre>
+ * RANK(
+ *   s: finite set of T,
+ *   x: T
+ *  ): integer is
+ *  |{y: T where (y is in s  and  y < x)  (y)}|
+ * </pre>
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public interface OrderedSet<T extends Comparable<T>> extends Set<T> {
+
+    /**
+     * Reports the smallest element of {@code this}.
+     *
+     * @return the smallest element
+     * @requires |this| > 0
+     * @ensures min is in this and for all y: T where (y is in this) (min <= y)
+     */
+    T min();
+
+    /**
+     * Reports the largest element of {@code this}.
+     *
+     * @return the largest element
+     * @requires |this| > 0
+     * @ensures max is in this and for all y: T where (y is in this) (y <= max)
+     */
+    T max();
+
+    /**
+     * Reports the largest element of {@code this} that is at most {@code x},
+     * or {@code null} if there is none.
+     *
+     * @param x
+     *            the upper bound
+     * @return the largest element <= x, or null
+     * @ensures <pre>
+     * if there exists y: T (y is in this  and  y <= x)
+     * then floor is in this  and  floor <= x  and
+     *      for all y: T where (y is in this  and  y <= x) (y <= floor)
+     * else floor = null
+     * </pre>
+     */
+    T floor(T x);
+
+    /**
+     * Reports the smallest element of {@code this} that is at least
+     * {@code x}, or {@code null} if there is none.
+     *
+     * @param x
+     *            the lower bound
+     * @return the smallest element >= x, or null
+     * @ensures <pre>
+     * if there exists y: T (y is in this  and  x <= y)
+     * then ceiling is in this  and  x <= ceiling  and
+     *      for all y: T where (y is in this  and  x <= y) (ceiling <= y)
+     * else ceiling = null
+     * </pre>
+     */
+    T ceiling(T x);
+
+    /**
+     * Reports the number of elements of {@code this} smaller than {@code x}.
+     *
+     * @param x
+     *            the element to rank
+     * @return the number of elements < x
+     * @ensures rank = RANK(this, x)
+     */
+    int rank(T x);
+
+    /**
+     * Reports the element of {@code this} with exactly {@code i} smaller
+     * elements, i.e., the {@code i}-th smallest counting from 0.
+     *
+     * @param i
+     *            the rank of the element to return
+     * @return the element of rank i
+     * @requires 0 <= i < |this|
+     * @ensures select is in this and RANK(this, select) = i
+     */
+    T select(int i);
+
+    /**
+     * Reports, in increasing order, the elements of {@code this} from
+     * {@code lo} through {@code hi}.
+     *
+     * @param lo
+     *            the lower bound
+     * @param hi
+     *            the upper bound
+     * @return the elements in [lo, hi] in increasing order
+     * @requires lo <= hi
+     * @ensures <pre>
+     * entries(range) = {y: T where (y is in this  and  lo <= y  and  y <= hi)
+     *                    (y)}  and
+     * [range is in increasing order]
+     * </pre>
+     */
+    Queue<T> range(T lo, T hi);
+
+}
@@ -0,0 +1,90 @@
+import components.queue.Queue;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Compares answering "all elements between lo and hi" with
+ * {@code OrderedSet.range} against filtering a full iteration of the set, for
+ * narrow windows over a large {@code Set3b}.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public final class RangeQueryBenchmark {
+
+    /**
+     * Number of elements in the set.
+     */
+    private static final int SIZE = 1000000;
+
+    /**
+     * Width of each queried window.
+     */
+    private static final int WIDTH = 100;
+
+    /**
+     * Number of windows queried with {@code range}.
+     */
+    private static final int RANGE_QUERIES = 100000;
+
+    /**
+     * Number of windows queried by full iteration.
+     */
+    private static final int SCAN_QUERIES = 100;
+
+    /**
+     * Multiplier spreading the window starts over the set.
+     */
+    private static final int STRIDE = 7919;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private RangeQueryBenchmark() {
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        OrderedSet<Integer> set = new Set3b<Integer>();
+        for (int i = 0; i < SIZE; i++) {
+            set.add(i);
+        }
+
+        long found = 0;
+        long start = System.nanoTime();
+        for (int q = 0; q < RANGE_QUERIES; q++) {
+            int lo = (int) ((long) q * STRIDE % (SIZE - WIDTH));
+            Queue<Integer> window = set.range(lo, lo + WIDTH - 1);
+            found += window.length();
+        }
+        long rangeTime = (System.nanoTime() - start) / RANGE_QUERIES;
+
+        start = System.nanoTime();
+        for (int q = 0; q < SCAN_QUERIES; q++) {
+            int lo = (int) ((long) q * STRIDE % (SIZE - WIDTH));
+            int hi = lo + WIDTH - 1;
+            for (int x : set) {
+                if (lo <= x && x <= hi) {
+                    found++;
+                }
+            }
+        }
+        long scanTime = (System.nanoTime() - start) / SCAN_QUERIES;
+
+        out.println("set size " + SIZE + ", window width " + WIDTH);
+        out.println("range:          " + rangeTime + " ns/query");
+        out.println("full iteration: " + scanTime + " ns/query");
+        out.println("(" + found + " elements found in total)");
+
+        out.close();
+    }
+
+}
@@ -1,13 +1,28 @@
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
-import components.binarytree.BinaryTree;
-import components.binarytree.BinaryTree1;
+import components.queue.Queue;
 import components.set.Set;
 import components.set.SetSecondary;
 
 /**
- * {@code Set} represented as a {@code BinaryTree} (maintained as a binary
- * search tree) of elements with implementations of primary methods.
+ * {@code Set} represented as a binary search tree of nodes, done
+ * "bare-handed", with implementations of primary methods.
+ *
+ * <p>
+ * Searching, inserting, and removing walk the tree with a loop rather than
+ * recursion, so {@code contains} allocates nothing, {@code add} allocates
+ * exactly one node, and no operation's stack depth depends on the height of
+ * the (unbalanced) tree.
+ * </p>
+ *
+ * <p>
+ * A {@code Set3a} can also be built in O(n) time from elements already in
+ * increasing order, producing a perfectly balanced tree, and {@code add(Set)}
+ * and {@code remove(Set)} with another {@code Set3a} merge the two sorted
+ * sequences of elements in linear time instead of adding or removing one
+ * element at a time.
+ * </p>
  *
  * @param <T>
  *            type of {@code Set} elements
@@ -19,8 +34,12 @@ import components.set.SetSecondary;
  *   slides with the ordering reported by compareTo for T, including that
  *   it has no duplicate labels]
  * </pre>
- * @convention IS_BST($this.tree)
- * @correspondence this = labels($this.tree)
+ * @convention <pre>
+ * [$this.root is the root of a binary tree of nodes (null if empty)]  and
+ * IS_BST([that tree])  and
+ * $this.size = [number of nodes of that tree]
+ * </pre>
+ * @correspondence this = labels([the tree rooted at $this.root])
  *
  * @author Nabeu Habetalsassa
  * @author Jay Jones
@@ -33,174 +52,451 @@ public class Set3a<T extends Comparable<T>> extends SetSecondary<T> {
      */
 
     /**
-     * Elements included in {@code this}.
+     * Node class for binary search tree nodes.
+     */
+    private final class Node {
+
+        /**
+         * Data in node.
+         */
+        private T data;
+
+        /**
+         * Root of left subtree, or null if it is empty.
+         */
+        private Node left;
+
+        /**
+         * Root of right subtree, or null if it is empty.
+         */
+        private Node right;
+
+    }
+
+    /**
+     * Root of the tree, or null if {@code this} is empty.
+     */
+    private Node root;
+
+    /**
+     * Number of elements in {@code this}.
      */
-    private BinaryTree<T> tree;
+    private int size;
 
     /**
-     * Returns whether {@code x} is in {@code t}.
+     * Returns the node of the tree labeled {@code x}, or null if there is
+     * none.
      *
-     * @param <T>
-     *            type of {@code BinaryTree} labels
-     * @param t
-     *            the {@code BinaryTree} to be searched
      * @param x
      *            the label to be searched for
-     * @return true if t contains x, false otherwise
-     * @requires IS_BST(t)
-     * @ensures isInTree = (x is in labels(t))
+     * @return the node labeled x, or null
+     * @requires IS_BST([the tree rooted at $this.root])
+     * @ensures <pre>
+     * if x is in this then findNode.data = x else findNode = null
+     * </pre>
      */
-    private static <T extends Comparable<T>> boolean isInTree(BinaryTree<T> t,
-            T x) {
-        assert t != null : "Violation of: t is not null";
+    private Node findNode(T x) {
         assert x != null : "Violation of: x is not null";
 
-        boolean inTree = false;
-        if (t.size() > 0) {
-            inTree = x.equals(t.root());
-
-            BinaryTree<T> left = t.newInstance();
-            BinaryTree<T> right = t.newInstance();
-            T root = t.disassemble(left, right);
-
-            //if x is the root, in left, or in right
-            if (root.equals(x) || isInTree(left, x) || isInTree(right, x)) {
-                inTree = true;
+        Node n = this.root;
+        int cmp = 1;
+        while (n != null && cmp != 0) {
+            cmp = x.compareTo(n.data);
+            if (cmp < 0) {
+                n = n.left;
+            } else if (cmp > 0) {
+                n = n.right;
             }
-            t.assemble(root, left, right);
-
         }
-        return inTree;
+        return n;
     }
 
     /**
-     * Inserts {@code x} in {@code t}.
+     * Inserts {@code x} in the tree as a new leaf.
      *
-     * @param <T>
-     *            type of {@code BinaryTree} labels
-     * @param t
-     *            the {@code BinaryTree} to be searched
      * @param x
      *            the label to be inserted
      * @aliases reference {@code x}
-     * @updates t
-     * @requires IS_BST(t) and x is not in labels(t)
-     * @ensures IS_BST(t) and labels(t) = labels(#t) union {x}
+     * @updates $this.root
+     * @requires IS_BST([the tree rooted at $this.root]) and x is not in this
+     * @ensures <pre>
+     * IS_BST([the tree rooted at $this.root])  and
+     * labels([the tree rooted at $this.root]) =
+     *   labels([the tree rooted at #$this.root]) union {x}
+     * </pre>
      */
-    private static <T extends Comparable<T>> void insertInTree(BinaryTree<T> t,
-            T x) {
-        assert t != null : "Violation of: t is not null";
+    private void insertInTree(T x) {
         assert x != null : "Violation of: x is not null";
 
-        BinaryTree<T> left = t.newInstance();
-        BinaryTree<T> right = t.newInstance();
-
-        //if t is empty & else statement
-        if (t.size() == 0) {
-            t.assemble(x, left, right);
+        Node newNode = new Node();
+        newNode.data = x;
+        if (this.root == null) {
+            this.root = newNode;
         } else {
-            T root = t.disassemble(left, right);
-
-            if (x.compareTo(root) < 0) {
-                insertInTree(left, x);
-
-            } else if (x.compareTo(root) > 0) {
-                insertInTree(right, x);
+            Node parent = this.root;
+            boolean placed = false;
+            while (!placed) {
+                if (x.compareTo(parent.data) < 0) {
+                    if (parent.left == null) {
+                        parent.left = newNode;
+                        placed = true;
+                    } else {
+                        parent = parent.left;
+                    }
+                } else {
+                    if (parent.right == null) {
+                        parent.right = newNode;
+                        placed = true;
+                    } else {
+                        parent = parent.right;
+                    }
+                }
             }
-            t.assemble(root, left, right);
+        }
+    }
 
+    /**
+     * Makes {@code replacement} take the place of {@code child} as a child of
+     * {@code parent}, or as the root if {@code parent} is null.
+     *
+     * @param parent
+     *            the parent of child, or null if child is the root
+     * @param child
+     *            the node being replaced
+     * @param replacement
+     *            the node (possibly null) replacing child
+     * @updates $this.root, parent
+     * @requires <pre>
+     * (parent = null  and  child = $this.root)  or
+     * (parent /= null  and  (parent.left = child  or  parent.right = child))
+     * </pre>
+     * @ensures [replacement is where child was]
+     */
+    private void replaceChild(Node parent, Node child, Node replacement) {
+        if (parent == null) {
+            this.root = replacement;
+        } else if (parent.left == child) {
+            parent.left = replacement;
+        } else {
+            parent.right = replacement;
         }
     }
 
     /**
-     * Removes and returns the smallest (left-most) label in {@code t}.
+     * Finds label {@code x} in the tree, removes it, and returns the label
+     * that was stored there.
      *
-     * @param <T>
-     *            type of {@code BinaryTree} labels
-     * @param t
-     *            the {@code BinaryTree} from which to remove the label
-     * @return the smallest label in the given {@code BinaryTree}
-     * @updates t
-     * @requires IS_BST(t) and |t| > 0
+     * @param x
+     *            the label to be removed
+     * @return the removed label
+     * @updates $this.root
+     * @requires IS_BST([the tree rooted at $this.root]) and x is in this
      * @ensures <pre>
-     * IS_BST(t)  and  removeSmallest = [the smallest label in #t]  and
-     *  labels(t) = labels(#t) \ {removeSmallest}
+     * IS_BST([the tree rooted at $this.root])  and  removeFromTree = x  and
+     * labels([the tree rooted at $this.root]) =
+     *   labels([the tree rooted at #$this.root]) \ {x}
      * </pre>
      */
-    private static <T> T removeSmallest(BinaryTree<T> t) {
-        assert t != null : "Violation of: t is not null";
-        assert t.size() > 0 : "Violation of: |t| > 0";
-
-        T root = t.root();
-
-        T smallest = root;
-
-        //if t isn't empty
+    private T removeFromTree(T x) {
+        assert x != null : "Violation of: x is not null";
 
-        BinaryTree<T> left = t.newInstance();
-        BinaryTree<T> right = t.newInstance();
-        t.disassemble(left, right);
+        Node parent = null;
+        Node n = this.root;
+        int cmp = x.compareTo(n.data);
+        while (cmp != 0) {
+            parent = n;
+            if (cmp < 0) {
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+            assert n != null : "Violation of: x is in this";
+            cmp = x.compareTo(n.data);
+        }
+        T removed = n.data;
 
-        //if you can keep going left
-        if (left.size() > 0) {
-            smallest = removeSmallest(left);
-            t.assemble(root, left, right);
+        if (n.left == null) {
+            this.replaceChild(parent, n, n.right);
+        } else if (n.right == null) {
+            this.replaceChild(parent, n, n.left);
         } else {
-            t.transferFrom(right);
+            /*
+             * Move the smallest label of the right subtree into n, and unlink
+             * the node it came from (which has no left child)
+             */
+            Node successorParent = n;
+            Node successor = n.right;
+            while (successor.left != null) {
+                successorParent = successor;
+                successor = successor.left;
+            }
+            n.data = successor.data;
+            this.replaceChild(successorParent, successor, successor.right);
         }
+        return removed;
+    }
 
-        return smallest;
+    /**
+     * Removes and returns the smallest (left-most) label in the tree.
+     *
+     * @return the smallest label in the tree
+     * @updates $this.root
+     * @requires IS_BST([the tree rooted at $this.root]) and $this.root /= null
+     * @ensures <pre>
+     * IS_BST([the tree rooted at $this.root])  and
+     * removeSmallest = [the smallest label in #this]  and
+     * labels([the tree rooted at $this.root]) =
+     *   labels([the tree rooted at #$this.root]) \ {removeSmallest}
+     * </pre>
+     */
+    private T removeSmallest() {
+        assert this.root != null : "Violation of: $this.root /= null";
+
+        Node parent = null;
+        Node n = this.root;
+        while (n.left != null) {
+            parent = n;
+            n = n.left;
+        }
+        this.replaceChild(parent, n, n.right);
+        return n.data;
+    }
 
+    /**
+     * Returns the labels of the tree in increasing order. Uses a Morris
+     * in-order traversal, which visits the nodes in order with no stack by
+     * temporarily threading each in-order predecessor's empty right link back
+     * to its successor, and undoing that thread on the way back up.
+     *
+     * @return the labels of the tree, in increasing order
+     * @ensures <pre>
+     * entries(inOrderLabels) = this  and  |inOrderLabels| = |this|  and
+     * [inOrderLabels is in increasing order]
+     * </pre>
+     */
+    private Object[] inOrderLabels() {
+        Object[] labels = new Object[this.size];
+        int count = 0;
+        Node n = this.root;
+        while (n != null) {
+            if (n.left == null) {
+                labels[count] = n.data;
+                count++;
+                n = n.right;
+            } else {
+                Node predecessor = n.left;
+                while (predecessor.right != null && predecessor.right != n) {
+                    predecessor = predecessor.right;
+                }
+                if (predecessor.right == null) {
+                    predecessor.right = n;
+                    n = n.left;
+                } else {
+                    predecessor.right = null;
+                    labels[count] = n.data;
+                    count++;
+                    n = n.right;
+                }
+            }
+        }
+        return labels;
     }
 
     /**
-     * Finds label {@code x} in {@code t}, removes it from {@code t}, and
-     * returns it.
+     * Builds a perfectly balanced binary search tree from
+     * {@code labels[lo, hi)} and returns its root.
      *
-     * @param <T>
-     *            type of {@code BinaryTree} labels
-     * @param t
-     *            the {@code BinaryTree} from which to remove label {@code x}
-     * @param x
-     *            the label to be removed
-     * @return the removed label
-     * @updates t
-     * @requires IS_BST(t) and x is in labels(t)
+     * @param labels
+     *            the labels, in increasing order
+     * @param lo
+     *            the first index to use
+     * @param hi
+     *            one past the last index to use
+     * @return the root of the new tree, or null if lo = hi
+     * @requires <pre>
+     * 0 <= lo <= hi <= |labels|  and
+     * [labels[lo, hi) is in strictly increasing order]
+     * </pre>
      * @ensures <pre>
-     * IS_BST(t)  and  removeFromTree = x  and
-     *  labels(t) = labels(#t) \ {x}
+     * IS_BST(buildTree)  and  labels(buildTree) = entries(labels[lo, hi))  and
+     * [the sizes of the two subtrees of every node differ by at most 1]
      * </pre>
      */
-    private static <T extends Comparable<T>> T removeFromTree(BinaryTree<T> t,
-            T x) {
-        assert t != null : "Violation of: t is not null";
-        assert x != null : "Violation of: x is not null";
-        assert t.size() > 0 : "Violation of: x is in labels(t)";
+    @SuppressWarnings("unchecked")
+    private Node buildTree(Object[] labels, int lo, int hi) {
+        Node t = null;
+        if (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            t = new Node();
+            t.data = (T) labels[mid];
+            t.left = this.buildTree(labels, lo, mid);
+            t.right = this.buildTree(labels, mid + 1, hi);
+        }
+        return t;
+    }
 
-        BinaryTree<T> left = t.newInstance();
-        BinaryTree<T> right = t.newInstance();
-        T root = t.disassemble(left, right);
+    /**
+     * Replaces the contents of {@code this} with {@code labels[0, length)}.
+     *
+     * @param labels
+     *            the labels, in increasing order
+     * @param length
+     *            the number of labels to use
+     * @replaces this
+     * @requires <pre>
+     * 0 <= length <= |labels|  and
+     * [labels[0, length) is in strictly increasing order]
+     * </pre>
+     * @ensures this = entries(labels[0, length))
+     */
+    private void setFromSorted(Object[] labels, int length) {
+        this.root = this.buildTree(labels, 0, length);
+        this.size = length;
+    }
+
+    /**
+     * Compares {@code x} and {@code y}, which are labels of type {@code T}.
+     *
+     * @param x
+     *            one label
+     * @param y
+     *            the other label
+     * @return the result of x.compareTo(y)
+     * @requires [x and y are of type T]
+     * @ensures compare = [result of x.compareTo(y)]
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(Object x, Object y) {
+        return ((T) x).compareTo((T) y);
+    }
 
-        // if root is x
-        if (root.equals(x)) {
-            if (right.size() > 0) {
-                T newRoot = removeSmallest(right);
-                t.assemble(newRoot, left, right);
+    /**
+     * Merges the increasing sequences {@code a} and {@code b} into their
+     * union.
+     *
+     * @param a
+     *            one sequence, in strictly increasing order
+     * @param b
+     *            the other sequence, in strictly increasing order
+     * @param out
+     *            receives the union, in increasing order
+     * @return the number of labels put in out
+     * @updates out
+     * @requires |out| >= |a| + |b|
+     * @ensures <pre>
+     * entries(out[0, union)) = entries(a) union entries(b)  and
+     * [out[0, union) is in strictly increasing order]
+     * </pre>
+     */
+    private int union(Object[] a, Object[] b, Object[] out) {
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            int cmp = this.compare(a[i], b[j]);
+            if (cmp < 0) {
+                out[k] = a[i];
+                i++;
+            } else if (cmp > 0) {
+                out[k] = b[j];
+                j++;
             } else {
-                t.transferFrom(left);
+                out[k] = a[i];
+                i++;
+                j++;
             }
+            k++;
+        }
+        while (i < a.length) {
+            out[k] = a[i];
+            i++;
+            k++;
+        }
+        while (j < b.length) {
+            out[k] = b[j];
+            j++;
+            k++;
+        }
+        return k;
+    }
 
-            //if x is in left tree
-        } else if (x.compareTo(root) < 0) {
-            removeFromTree(left, x);
-            t.assemble(root, left, right);
+    /**
+     * Merges the increasing sequences {@code a} and {@code b} into their
+     * intersection.
+     *
+     * @param a
+     *            one sequence, in strictly increasing order
+     * @param b
+     *            the other sequence, in strictly increasing order
+     * @param out
+     *            receives the intersection, in increasing order
+     * @return the number of labels put in out
+     * @updates out
+     * @requires |out| >= min(|a|, |b|)
+     * @ensures <pre>
+     * entries(out[0, intersection)) = entries(a) intersection entries(b)  and
+     * [out[0, intersection) is in strictly increasing order]
+     * </pre>
+     */
+    private int intersection(Object[] a, Object[] b, Object[] out) {
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            int cmp = this.compare(a[i], b[j]);
+            if (cmp < 0) {
+                i++;
+            } else if (cmp > 0) {
+                j++;
+            } else {
+                out[k] = a[i];
+                i++;
+                j++;
+                k++;
+            }
+        }
+        return k;
+    }
 
-            //if x is in right tree
-        } else if (x.compareTo(root) > 0) {
-            removeFromTree(right, x);
-            t.assemble(root, left, right);
+    /**
+     * Merges the increasing sequences {@code a} and {@code b} into the labels
+     * of {@code a} that are not in {@code b}.
+     *
+     * @param a
+     *            one sequence, in strictly increasing order
+     * @param b
+     *            the other sequence, in strictly increasing order
+     * @param out
+     *            receives the difference, in increasing order
+     * @return the number of labels put in out
+     * @updates out
+     * @requires |out| >= |a|
+     * @ensures <pre>
+     * entries(out[0, difference)) = entries(a) \ entries(b)  and
+     * [out[0, difference) is in strictly increasing order]
+     * </pre>
+     */
+    private int difference(Object[] a, Object[] b, Object[] out) {
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length) {
+            int cmp = 1;
+            if (j < b.length) {
+                cmp = this.compare(a[i], b[j]);
+            }
+            if (cmp < 0 || j == b.length) {
+                out[k] = a[i];
+                i++;
+                k++;
+            } else if (cmp > 0) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
         }
-        return x;
+        return k;
     }
 
     /**
@@ -208,7 +504,8 @@ public class Set3a<T extends Comparable<T>> extends SetSecondary<T> {
      */
     private void createNewRep() {
 
-        this.tree = new BinaryTree1<T>();
+        this.root = null;
+        this.size = 0;
 
     }
 
@@ -225,6 +522,53 @@ public class Set3a<T extends Comparable<T>> extends SetSecondary<T> {
 
     }
 
+    /**
+     * Constructor from a sorted {@code Queue}, building a balanced tree in
+     * linear time. {@code sorted} is left unchanged.
+     *
+     * @param sorted
+     *            the elements of the new set, in increasing order
+     * @requires [sorted is in strictly increasing order]
+     * @ensures this = entries(sorted)
+     */
+    public Set3a(Queue<T> sorted) {
+        assert sorted != null : "Violation of: sorted is not null";
+
+        Object[] labels = new Object[sorted.length()];
+        int count = 0;
+        for (T x : sorted) {
+            assert x != null : "Violation of: every entry in sorted is not null";
+            assert count == 0 || this.compare(labels[count - 1], x) < 0 : ""
+                    + "Violation of: sorted is in strictly increasing order";
+            labels[count] = x;
+            count++;
+        }
+        this.setFromSorted(labels, count);
+    }
+
+    /**
+     * Constructor from a sorted array, building a balanced tree in linear
+     * time. {@code sorted} is left unchanged.
+     *
+     * @param sorted
+     *            the elements of the new set, in increasing order
+     * @requires [sorted is in strictly increasing order]
+     * @ensures this = entries(sorted)
+     */
+    public Set3a(T[] sorted) {
+        assert sorted != null : "Violation of: sorted is not null";
+
+        Object[] labels = new Object[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            assert sorted[i] != null : ""
+                    + "Violation of: every entry in sorted is not null";
+            assert i == 0 || this.compare(sorted[i - 1], sorted[i]) < 0 : ""
+                    + "Violation of: sorted is in strictly increasing order";
+            labels[i] = sorted[i];
+        }
+        this.setFromSorted(labels, labels.length);
+    }
+
     /*
      * Standard methods -------------------------------------------------------
      */
@@ -257,7 +601,8 @@ public class Set3a<T extends Comparable<T>> extends SetSecondary<T> {
          * the ? must be T or the call would not have compiled.
          */
         Set3a<T> localSource = (Set3a<T>) source;
-        this.tree = localSource.tree;
+        this.root = localSource.root;
+        this.size = localSource.size;
         localSource.createNewRep();
     }
 
@@ -270,8 +615,8 @@ public class Set3a<T extends Comparable<T>> extends SetSecondary<T> {
         assert x != null : "Violation of: x is not null";
         assert !this.contains(x) : "Violation of: x is not in this";
 
-        insertInTree(this.tree, x);
-
+        this.insertInTree(x);
+        this.size++;
     }
 
     @Override
@@ -279,7 +624,8 @@ public class Set3a<T extends Comparable<T>> extends SetSecondary<T> {
         assert x != null : "Violation of: x is not null";
         assert this.contains(x) : "Violation of: x is in this";
 
-        T removed = removeFromTree(this.tree, x);
+        T removed = this.removeFromTree(x);
+        this.size--;
         return removed;
     }
 
@@ -287,7 +633,8 @@ public class Set3a<T extends Comparable<T>> extends SetSecondary<T> {
     public final T removeAny() {
         assert this.size() > 0 : "Violation of: this /= empty_set";
 
-        T removed = removeSmallest(this.tree);
+        T removed = this.removeSmallest();
+        this.size--;
         return removed;
     }
 
@@ -295,18 +642,125 @@ public class Set3a<T extends Comparable<T>> extends SetSecondary<T> {
     public final boolean contains(T x) {
         assert x != null : "Violation of: x is not null";
 
-        return isInTree(this.tree, x);
+        return this.findNode(x) != null;
     }
 
     @Override
     public final int size() {
 
-        return this.tree.size();
+        return this.size;
     }
 
     @Override
     public final Iterator<T> iterator() {
-        return this.tree.iterator();
+        return new Set3aIterator();
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void add(Set<T> s) {
+        assert s != null : "Violation of: s is not null";
+        assert s != this : "Violation of: s is not this";
+
+        if (s instanceof Set3a<?>) {
+            /*
+             * Both sets are in increasing order, so the union and the
+             * intersection each come out of one linear merge and go straight
+             * back into balanced trees.
+             */
+            Set3a<T> other = (Set3a<T>) s;
+            Object[] a = this.inOrderLabels();
+            Object[] b = other.inOrderLabels();
+            Object[] out = new Object[a.length + b.length];
+            int length = this.union(a, b, out);
+            this.setFromSorted(out, length);
+            out = new Object[Math.min(a.length, b.length)];
+            length = this.intersection(a, b, out);
+            other.setFromSorted(out, length);
+        } else {
+            super.add(s);
+        }
+    }
+
+    @Override
+    public final Set<T> remove(Set<T> s) {
+        assert s != null : "Violation of: s is not null";
+        assert s != this : "Violation of: s is not this";
+
+        Set<T> removed;
+        if (s instanceof Set3a<?>) {
+            Set3a<T> other = (Set3a<T>) s;
+            Object[] a = this.inOrderLabels();
+            Object[] b = other.inOrderLabels();
+            Object[] out = new Object[Math.min(a.length, b.length)];
+            int length = this.intersection(a, b, out);
+            Set3a<T> result = new Set3a<T>();
+            result.setFromSorted(out, length);
+            removed = result;
+            out = new Object[a.length];
+            length = this.difference(a, b, out);
+            this.setFromSorted(out, length);
+        } else {
+            removed = super.remove(s);
+        }
+        return removed;
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Set3a}, visiting
+     * elements in increasing order.
+     */
+    private final class Set3aIterator implements Iterator<T> {
+
+        /**
+         * Labels of the tree in increasing order, collected on construction.
+         */
+        private Object[] labels;
+
+        /**
+         * Index of the next label to return.
+         */
+        private int current;
+
+        /**
+         * No-argument constructor.
+         */
+        private Set3aIterator() {
+            this.labels = Set3a.this.inOrderLabels();
+            this.current = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current < this.labels.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = (T) this.labels[this.current];
+            this.current++;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
     }
 
 }
@@ -0,0 +1,710 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.queue.Queue;
+import components.queue.Queue1L;
+import components.set.Set;
+import components.set.SetSecondary;
+
+/**
+ * {@code Set} represented as a self-balancing (AVL) binary search tree of
+ * nodes, done "bare-handed", with implementations of primary methods.
+ *
+ * <p>
+ * Unlike {@code Set3a}, the tree is rebalanced by rotations after every
+ * {@code add} and {@code remove}, so its height stays below 1.45 log(n + 2)
+ * even when elements arrive in sorted order. Execution-time performance of
+ * {@code add}, {@code remove}, {@code removeAny}, and {@code contains} is
+ * therefore O(log n), and the recursion depth of {@code add} and
+ * {@code remove} is O(log n) as well.
+ * </p>
+ *
+ * <p>
+ * Each node also records the size of its subtree, so the {@code OrderedSet}
+ * queries {@code rank} and {@code select} take O(log n) time, and
+ * {@code range} takes O(log n + k) time for k results.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code Set} elements
+ * @mathdefinitions <pre>
+ * IS_BST(
+ *   tree: binary tree of T
+ *  ): boolean satisfies
+ *  [tree satisfies the binary search tree properties as described in the
+ *   slides with the ordering reported by compareTo for T, including that
+ *   it has no duplicate labels]
+ *
+ * IS_AVL(
+ *   tree: binary tree of T
+ *  ): boolean satisfies
+ *  [for every node of tree, the heights of its two subtrees differ by at
+ *   most 1]
+ * </pre>
+ * @convention <pre>
+ * [$this.root is the root of a binary tree of nodes (null if empty)]  and
+ * IS_BST([that tree])  and  IS_AVL([that tree])  and
+ * [for every node n of that tree, n.height = height of the subtree rooted
+ *  at n]  and
+ * [for every node n of that tree, n.size = number of nodes of the subtree
+ *  rooted at n]  and
+ * $this.size = [number of nodes of that tree]
+ * </pre>
+ * @correspondence this = labels([the tree rooted at $this.root])
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public class Set3b<T extends Comparable<T>> extends SetSecondary<T>
+        implements OrderedSet<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Node class for binary search tree nodes.
+     */
+    private final class Node {
+
+        /**
+         * Data in node.
+         */
+        private T data;
+
+        /**
+         * Root of left subtree, or null if it is empty.
+         */
+        private Node left;
+
+        /**
+         * Root of right subtree, or null if it is empty.
+         */
+        private Node right;
+
+        /**
+         * Height of the subtree rooted at this node.
+         */
+        private int height;
+
+        /**
+         * Number of nodes of the subtree rooted at this node.
+         */
+        private int size;
+
+    }
+
+    /**
+     * Root of the tree, or null if {@code this} is empty.
+     */
+    private Node root;
+
+    /**
+     * Number of elements in {@code this}.
+     */
+    private int size;
+
+    /**
+     * Returns the height of the subtree rooted at {@code t}.
+     *
+     * @param t
+     *            the root of the subtree, or null
+     * @return the height of the subtree
+     * @ensures height = [height of the subtree rooted at t]
+     */
+    private int height(Node t) {
+        int h = 0;
+        if (t != null) {
+            h = t.height;
+        }
+        return h;
+    }
+
+    /**
+     * Returns the number of nodes of the subtree rooted at {@code t}.
+     *
+     * @param t
+     *            the root of the subtree, or null
+     * @return the size of the subtree
+     * @ensures sizeOf = [number of nodes of the subtree rooted at t]
+     */
+    private int sizeOf(Node t) {
+        int s = 0;
+        if (t != null) {
+            s = t.size;
+        }
+        return s;
+    }
+
+    /**
+     * Recomputes {@code t.height} and {@code t.size} from those of its
+     * subtrees.
+     *
+     * @param t
+     *            the node
+     * @updates t.height, t.size
+     * @requires t /= null
+     * @ensures <pre>
+     * t.height = 1 + max(height(t.left), height(t.right))  and
+     * t.size = 1 + sizeOf(t.left) + sizeOf(t.right)
+     * </pre>
+     */
+    private void updateNode(Node t) {
+        t.height = 1 + Math.max(this.height(t.left), this.height(t.right));
+        t.size = 1 + this.sizeOf(t.left) + this.sizeOf(t.right);
+    }
+
+    /**
+     * Rotates the subtree rooted at {@code t} to the right and returns its new
+     * root.
+     *
+     * @param t
+     *            the root of the subtree
+     * @return the new root of the subtree
+     * @requires t /= null and t.left /= null
+     * @ensures <pre>
+     * [the subtree has the same labels in the same order, with #t.left as
+     *  its root and t as the right child of that root]
+     * </pre>
+     */
+    private Node rotateRight(Node t) {
+        Node newRoot = t.left;
+        t.left = newRoot.right;
+        newRoot.right = t;
+        this.updateNode(t);
+        this.updateNode(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Rotates the subtree rooted at {@code t} to the left and returns its new
+     * root.
+     *
+     * @param t
+     *            the root of the subtree
+     * @return the new root of the subtree
+     * @requires t /= null and t.right /= null
+     * @ensures <pre>
+     * [the subtree has the same labels in the same order, with #t.right as
+     *  its root and t as the left child of that root]
+     * </pre>
+     */
+    private Node rotateLeft(Node t) {
+        Node newRoot = t.right;
+        t.right = newRoot.left;
+        newRoot.left = t;
+        this.updateNode(t);
+        this.updateNode(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Restores the AVL property at {@code t}, whose subtrees are AVL trees
+     * whose heights differ by at most 2, and returns the new root.
+     *
+     * @param t
+     *            the root of the subtree
+     * @return the new root of the subtree
+     * @requires t /= null
+     * @ensures <pre>
+     * IS_AVL([subtree rooted at rebalance])  and
+     * [the subtree has the same labels in the same order]
+     * </pre>
+     */
+    private Node rebalance(Node t) {
+        this.updateNode(t);
+        int balance = this.height(t.left) - this.height(t.right);
+        Node newRoot = t;
+        if (balance > 1) {
+            if (this.height(t.left.left) < this.height(t.left.right)) {
+                t.left = this.rotateLeft(t.left);
+            }
+            newRoot = this.rotateRight(t);
+        } else if (balance < -1) {
+            if (this.height(t.right.right) < this.height(t.right.left)) {
+                t.right = this.rotateRight(t.right);
+            }
+            newRoot = this.rotateLeft(t);
+        }
+        return newRoot;
+    }
+
+    /**
+     * Inserts {@code x} in the subtree rooted at {@code t} and returns the new
+     * root of that subtree.
+     *
+     * @param t
+     *            the root of the subtree, or null
+     * @param x
+     *            the label to be inserted
+     * @return the new root of the subtree
+     * @aliases reference {@code x}
+     * @requires IS_BST(t) and IS_AVL(t) and x is not in labels(t)
+     * @ensures <pre>
+     * IS_BST(insertInTree)  and  IS_AVL(insertInTree)  and
+     * labels(insertInTree) = labels(#t) union {x}
+     * </pre>
+     */
+    private Node insertInTree(Node t, T x) {
+        Node newRoot;
+        if (t == null) {
+            newRoot = new Node();
+            newRoot.data = x;
+            newRoot.height = 1;
+            newRoot.size = 1;
+        } else {
+            if (x.compareTo(t.data) < 0) {
+                t.left = this.insertInTree(t.left, x);
+            } else {
+                t.right = this.insertInTree(t.right, x);
+            }
+            newRoot = this.rebalance(t);
+        }
+        return newRoot;
+    }
+
+    /**
+     * Removes the smallest (left-most) label from the subtree rooted at
+     * {@code t} and returns the new root of that subtree.
+     *
+     * @param t
+     *            the root of the subtree
+     * @return the new root of the subtree
+     * @requires t /= null and IS_BST(t) and IS_AVL(t)
+     * @ensures <pre>
+     * IS_BST(removeSmallest)  and  IS_AVL(removeSmallest)  and
+     * labels(removeSmallest) = labels(#t) \ {[the smallest label in #t]}
+     * </pre>
+     */
+    private Node removeSmallest(Node t) {
+        Node newRoot;
+        if (t.left == null) {
+            newRoot = t.right;
+        } else {
+            t.left = this.removeSmallest(t.left);
+            newRoot = this.rebalance(t);
+        }
+        return newRoot;
+    }
+
+    /**
+     * Removes {@code x} from the subtree rooted at {@code t} and returns the
+     * new root of that subtree.
+     *
+     * @param t
+     *            the root of the subtree
+     * @param x
+     *            the label to be removed
+     * @return the new root of the subtree
+     * @requires IS_BST(t) and IS_AVL(t) and x is in labels(t)
+     * @ensures <pre>
+     * IS_BST(removeFromTree)  and  IS_AVL(removeFromTree)  and
+     * labels(removeFromTree) = labels(#t) \ {x}
+     * </pre>
+     */
+    private Node removeFromTree(Node t, T x) {
+        assert t != null : "Violation of: x is in labels(t)";
+
+        Node newRoot;
+        int cmp = x.compareTo(t.data);
+        if (cmp < 0) {
+            t.left = this.removeFromTree(t.left, x);
+            newRoot = this.rebalance(t);
+        } else if (cmp > 0) {
+            t.right = this.removeFromTree(t.right, x);
+            newRoot = this.rebalance(t);
+        } else if (t.left == null) {
+            newRoot = t.right;
+        } else if (t.right == null) {
+            newRoot = t.left;
+        } else {
+            /*
+             * Replace the label of t by its successor, which is then removed
+             * from the right subtree
+             */
+            Node successor = t.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            t.data = successor.data;
+            t.right = this.removeSmallest(t.right);
+            newRoot = this.rebalance(t);
+        }
+        return newRoot;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.root = null;
+        this.size = 0;
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Set3b() {
+
+        this.createNewRep();
+
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Set<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Set<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Set3b<?> : ""
+                + "Violation of: source is of dynamic type Set3b<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Set3b<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        Set3b<T> localSource = (Set3b<T>) source;
+        this.root = localSource.root;
+        this.size = localSource.size;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert !this.contains(x) : "Violation of: x is not in this";
+
+        this.root = this.insertInTree(this.root, x);
+        this.size++;
+    }
+
+    @Override
+    public final T remove(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.contains(x) : "Violation of: x is in this";
+
+        /*
+         * Return the element stored in the set, which is equal to x but need
+         * not be the same object
+         */
+        Node n = this.root;
+        int cmp = x.compareTo(n.data);
+        while (cmp != 0) {
+            if (cmp < 0) {
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+            cmp = x.compareTo(n.data);
+        }
+        T removed = n.data;
+        this.root = this.removeFromTree(this.root, x);
+        this.size--;
+        return removed;
+    }
+
+    @Override
+    public final T removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        Node smallest = this.root;
+        while (smallest.left != null) {
+            smallest = smallest.left;
+        }
+        T removed = smallest.data;
+        this.root = this.removeSmallest(this.root);
+        this.size--;
+        return removed;
+    }
+
+    @Override
+    public final boolean contains(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        boolean found = false;
+        Node n = this.root;
+        while (n != null && !found) {
+            int cmp = x.compareTo(n.data);
+            if (cmp < 0) {
+                n = n.left;
+            } else if (cmp > 0) {
+                n = n.right;
+            } else {
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Set3bIterator();
+    }
+
+    /*
+     * OrderedSet methods -----------------------------------------------------
+     */
+
+    @Override
+    public final T min() {
+        assert this.size() > 0 : "Violation of: |this| > 0";
+
+        Node n = this.root;
+        while (n.left != null) {
+            n = n.left;
+        }
+        return n.data;
+    }
+
+    @Override
+    public final T max() {
+        assert this.size() > 0 : "Violation of: |this| > 0";
+
+        Node n = this.root;
+        while (n.right != null) {
+            n = n.right;
+        }
+        return n.data;
+    }
+
+    @Override
+    public final T floor(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        T floor = null;
+        Node n = this.root;
+        while (n != null) {
+            int cmp = x.compareTo(n.data);
+            if (cmp < 0) {
+                n = n.left;
+            } else {
+                floor = n.data;
+                if (cmp == 0) {
+                    n = null;
+                } else {
+                    n = n.right;
+                }
+            }
+        }
+        return floor;
+    }
+
+    @Override
+    public final T ceiling(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        T ceiling = null;
+        Node n = this.root;
+        while (n != null) {
+            int cmp = x.compareTo(n.data);
+            if (cmp > 0) {
+                n = n.right;
+            } else {
+                ceiling = n.data;
+                if (cmp == 0) {
+                    n = null;
+                } else {
+                    n = n.left;
+                }
+            }
+        }
+        return ceiling;
+    }
+
+    @Override
+    public final int rank(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        int rank = 0;
+        Node n = this.root;
+        while (n != null) {
+            int cmp = x.compareTo(n.data);
+            if (cmp < 0) {
+                n = n.left;
+            } else if (cmp > 0) {
+                rank += this.sizeOf(n.left) + 1;
+                n = n.right;
+            } else {
+                rank += this.sizeOf(n.left);
+                n = null;
+            }
+        }
+        return rank;
+    }
+
+    @Override
+    public final T select(int i) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.size() : "Violation of: i < |this|";
+
+        Node n = this.root;
+        int remaining = i;
+        int leftSize = this.sizeOf(n.left);
+        while (remaining != leftSize) {
+            if (remaining < leftSize) {
+                n = n.left;
+            } else {
+                remaining -= leftSize + 1;
+                n = n.right;
+            }
+            leftSize = this.sizeOf(n.left);
+        }
+        return n.data;
+    }
+
+    @Override
+    public final Queue<T> range(T lo, T hi) {
+        assert lo != null : "Violation of: lo is not null";
+        assert hi != null : "Violation of: hi is not null";
+        assert lo.compareTo(hi) <= 0 : "Violation of: lo <= hi";
+
+        Queue<T> result = new Queue1L<T>();
+        this.collectRange(this.root, lo, hi, result);
+        return result;
+    }
+
+    /**
+     * Appends to {@code q}, in increasing order, the labels of the subtree
+     * rooted at {@code t} from {@code lo} through {@code hi}, skipping every
+     * subtree that lies entirely outside that range.
+     *
+     * @param t
+     *            the root of the subtree, or null
+     * @param lo
+     *            the lower bound
+     * @param hi
+     *            the upper bound
+     * @param q
+     *            the queue to append to
+     * @updates q
+     * @requires lo <= hi
+     * @ensures <pre>
+     * q = #q * [labels y of the subtree rooted at t with lo <= y <= hi,
+     *           in increasing order]
+     * </pre>
+     */
+    private void collectRange(Node t, T lo, T hi, Queue<T> q) {
+        if (t != null) {
+            boolean aboveLo = lo.compareTo(t.data) <= 0;
+            boolean belowHi = t.data.compareTo(hi) <= 0;
+            if (aboveLo) {
+                this.collectRange(t.left, lo, hi, q);
+            }
+            if (aboveLo && belowHi) {
+                q.enqueue(t.data);
+            }
+            if (belowHi) {
+                this.collectRange(t.right, lo, hi, q);
+            }
+        }
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Set3b}, visiting
+     * elements in increasing order.
+     */
+    private final class Set3bIterator implements Iterator<T> {
+
+        /**
+         * Nodes whose labels and right subtrees are still to be visited, with
+         * the next one on top (at index {@code depth - 1}).
+         */
+        private Object[] pending;
+
+        /**
+         * Number of nodes in {@code pending}.
+         */
+        private int depth;
+
+        /**
+         * No-argument constructor.
+         */
+        private Set3bIterator() {
+            this.pending = new Object[Set3b.this.height(Set3b.this.root)];
+            this.depth = 0;
+            this.pushLeftSpine(Set3b.this.root);
+        }
+
+        /**
+         * Pushes {@code t} and all its left descendants along the left-most
+         * path onto {@code pending}.
+         *
+         * @param t
+         *            the root of the subtree, or null
+         */
+        private void pushLeftSpine(Node t) {
+            Node n = t;
+            while (n != null) {
+                this.pending[this.depth] = n;
+                this.depth++;
+                n = n.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.depth > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            this.depth--;
+            Node n = (Node) this.pending[this.depth];
+            this.pending[this.depth] = null;
+            this.pushLeftSpine(n.right);
+            return n.data;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
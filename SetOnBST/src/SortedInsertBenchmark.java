@@ -0,0 +1,91 @@
+import components.set.Set;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times adding sorted input to, and searching, {@code Set3a} (unbalanced) and
+ * {@code Set3b} (AVL) -- the adversarial case for an unbalanced binary search
+ * tree.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public final class SortedInsertBenchmark {
+
+    /**
+     * Largest number of elements given to {@code Set3a}, whose sorted-input
+     * cost is quadratic.
+     */
+    private static final int SET3A_LIMIT = 1 << 12;
+
+    /**
+     * Smallest number of elements.
+     */
+    private static final int FIRST_SIZE = 1 << 10;
+
+    /**
+     * Largest number of elements given to {@code Set3b}.
+     */
+    private static final int SET3B_LIMIT = 1 << 20;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private SortedInsertBenchmark() {
+    }
+
+    /**
+     * Adds 0 through {@code n - 1} to {@code s} in increasing order, then
+     * looks each one up, and returns the elapsed time in nanoseconds.
+     *
+     * @param s
+     *            the set
+     * @param n
+     *            the number of elements
+     * @return elapsed nanoseconds
+     * @updates s
+     * @requires s = {}
+     * @ensures s = {0, 1, ..., n - 1}
+     */
+    private static long time(Set<Integer> s, int n) {
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            s.add(i);
+        }
+        for (int i = 0; i < n; i++) {
+            if (!s.contains(i)) {
+                throw new AssertionError("missing " + i);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        out.println("n\tSet3a (ms)\tSet3b (ms)");
+        for (int n = FIRST_SIZE; n <= SET3B_LIMIT; n *= 2) {
+            String set3a = "-";
+            if (n <= SET3A_LIMIT) {
+                set3a = "" + time(new Set3a<Integer>(), n) / NANOS_PER_MILLI;
+            }
+            out.println(n + "\t" + set3a + "\t"
+                    + time(new Set3b<Integer>(), n) / NANOS_PER_MILLI);
+        }
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,155 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.queue.Queue;
+import components.queue.Queue1L;
+import components.set.Set;
+import components.set.Set1L;
+
+/**
+ * JUnit test fixture for the bulk constructors and the bulk {@code add} and
+ * {@code remove} of {@code Set3a}.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public class Set3aBulkTest {
+
+    /**
+     * Creates and returns a {@code Queue<String>} with the given entries.
+     *
+     * @param args
+     *            the entries for the queue
+     * @return the constructed queue
+     * @ensures createQueue = [entries in args, in order]
+     */
+    private static Queue<String> createQueue(String... args) {
+        Queue<String> q = new Queue1L<String>();
+        for (String s : args) {
+            q.enqueue(s);
+        }
+        return q;
+    }
+
+    /**
+     * Creates and returns a {@code Set<String>} of the reference
+     * implementation type with the given entries.
+     *
+     * @param args
+     *            the entries for the set
+     * @return the constructed set
+     * @requires [every entry in args is unique]
+     * @ensures createFromArgsRef = [entries in args]
+     */
+    private static Set<String> createFromArgsRef(String... args) {
+        Set<String> set = new Set1L<String>();
+        for (String s : args) {
+            set.add(s);
+        }
+        return set;
+    }
+
+    /*
+     * Constructor tests
+     */
+    @Test
+    public final void testConstructorQueueEmpty() {
+        Queue<String> q = createQueue();
+        Set<String> s = new Set3a<String>(q);
+        assertEquals(0, s.size());
+        assertEquals("{}", s.toString());
+        assertEquals(createQueue(), q);
+    }
+
+    @Test
+    public final void testConstructorQueueMany() {
+        Queue<String> q = createQueue("a", "b", "c", "d", "e");
+        Set<String> s = new Set3a<String>(q);
+        assertEquals(5, s.size());
+        assertEquals("{a,b,c,d,e}", s.toString());
+        assertEquals(createQueue("a", "b", "c", "d", "e"), q);
+    }
+
+    @Test
+    public final void testConstructorArrayMany() {
+        String[] sorted = { "a", "b", "c", "d" };
+        Set<String> s = new Set3a<String>(sorted);
+        assertEquals(4, s.size());
+        assertEquals("{a,b,c,d}", s.toString());
+        assertEquals("a", sorted[0]);
+    }
+
+    @Test
+    public final void testConstructorArrayThenKernel() {
+        String[] sorted = { "b", "d", "f", "h", "j" };
+        Set<String> s = new Set3a<String>(sorted);
+        s.add("a");
+        s.add("e");
+        assertEquals("f", s.remove("f"));
+        assertEquals(createFromArgsRef("a", "b", "d", "e", "h", "j"), s);
+    }
+
+    /*
+     * Bulk add tests
+     */
+    @Test
+    public final void testAddSetDisjoint() {
+        Set<String> s = new Set3a<String>(createQueue("a", "c", "e"));
+        Set<String> t = new Set3a<String>(createQueue("b", "d"));
+        s.add(t);
+        assertEquals("{a,b,c,d,e}", s.toString());
+        assertEquals(0, t.size());
+    }
+
+    @Test
+    public final void testAddSetOverlapping() {
+        Set<String> s = new Set3a<String>(createQueue("a", "b", "c", "e"));
+        Set<String> t = new Set3a<String>(createQueue("b", "d", "e", "f"));
+        s.add(t);
+        assertEquals("{a,b,c,d,e,f}", s.toString());
+        assertEquals("{b,e}", t.toString());
+    }
+
+    @Test
+    public final void testAddSetOtherImplementation() {
+        Set<String> s = new Set3a<String>(createQueue("a", "b"));
+        Set<String> t = createFromArgsRef("b", "c");
+        s.add(t);
+        assertEquals(createFromArgsRef("a", "b", "c"), s);
+        assertEquals(createFromArgsRef("b"), t);
+    }
+
+    /*
+     * Bulk remove tests
+     */
+    @Test
+    public final void testRemoveSetOverlapping() {
+        Set<String> s = new Set3a<String>(createQueue("a", "b", "c", "d"));
+        Set<String> t = new Set3a<String>(createQueue("b", "d", "f"));
+        Set<String> removed = s.remove(t);
+        assertEquals("{a,c}", s.toString());
+        assertEquals("{b,d}", removed.toString());
+        assertEquals("{b,d,f}", t.toString());
+    }
+
+    @Test
+    public final void testRemoveSetEmpty() {
+        Set<String> s = new Set3a<String>(createQueue("a", "b"));
+        Set<String> t = new Set3a<String>();
+        Set<String> removed = s.remove(t);
+        assertEquals("{a,b}", s.toString());
+        assertEquals(0, removed.size());
+    }
+
+    @Test
+    public final void testRemoveSetOtherImplementation() {
+        Set<String> s = new Set3a<String>(createQueue("a", "b", "c"));
+        Set<String> t = createFromArgsRef("a", "c", "z");
+        Set<String> removed = s.remove(t);
+        assertEquals(createFromArgsRef("b"), s);
+        assertEquals(createFromArgsRef("a", "c"), removed);
+    }
+
+}
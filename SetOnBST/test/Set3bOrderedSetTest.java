@@ -0,0 +1,137 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.queue.Queue;
+import components.queue.Queue1L;
+
+/**
+ * JUnit test fixture for the {@code OrderedSet} methods of {@code Set3b}.
+ *
+ * @author Nabeu Habetaslassa
+ * @author Jay Jones
+ *
+ */
+public class Set3bOrderedSetTest {
+
+    /**
+     * Creates and returns a {@code Set3b<String>} with the given entries.
+     *
+     * @param args
+     *            the entries for the set
+     * @return the constructed set
+     * @requires [every entry in args is unique]
+     * @ensures createFromArgs = [entries in args]
+     */
+    private static OrderedSet<String> createFromArgs(String... args) {
+        OrderedSet<String> set = new Set3b<String>();
+        for (String s : args) {
+            set.add(s);
+        }
+        return set;
+    }
+
+    /**
+     * Creates and returns a {@code Queue<String>} with the given entries.
+     *
+     * @param args
+     *            the entries for the queue
+     * @return the constructed queue
+     * @ensures createQueue = [entries in args, in order]
+     */
+    private static Queue<String> createQueue(String... args) {
+        Queue<String> q = new Queue1L<String>();
+        for (String s : args) {
+            q.enqueue(s);
+        }
+        return q;
+    }
+
+    @Test
+    public final void testMinMaxOne() {
+        OrderedSet<String> s = createFromArgs("m");
+        assertEquals("m", s.min());
+        assertEquals("m", s.max());
+    }
+
+    @Test
+    public final void testMinMaxMany() {
+        OrderedSet<String> s = createFromArgs("m", "c", "x", "a", "q");
+        assertEquals("a", s.min());
+        assertEquals("x", s.max());
+    }
+
+    @Test
+    public final void testFloorExact() {
+        OrderedSet<String> s = createFromArgs("b", "d", "f");
+        assertEquals("d", s.floor("d"));
+    }
+
+    @Test
+    public final void testFloorBetween() {
+        OrderedSet<String> s = createFromArgs("b", "d", "f");
+        assertEquals("d", s.floor("e"));
+    }
+
+    @Test
+    public final void testFloorNone() {
+        OrderedSet<String> s = createFromArgs("b", "d", "f");
+        assertEquals(null, s.floor("a"));
+    }
+
+    @Test
+    public final void testCeilingBetween() {
+        OrderedSet<String> s = createFromArgs("b", "d", "f");
+        assertEquals("d", s.ceiling("c"));
+    }
+
+    @Test
+    public final void testCeilingNone() {
+        OrderedSet<String> s = createFromArgs("b", "d", "f");
+        assertEquals(null, s.ceiling("g"));
+    }
+
+    @Test
+    public final void testRank() {
+        OrderedSet<String> s = createFromArgs("e", "b", "h", "a", "c");
+        assertEquals(0, s.rank("a"));
+        assertEquals(2, s.rank("c"));
+        assertEquals(3, s.rank("d"));
+        assertEquals(5, s.rank("z"));
+    }
+
+    @Test
+    public final void testSelect() {
+        OrderedSet<String> s = createFromArgs("e", "b", "h", "a", "c");
+        assertEquals("a", s.select(0));
+        assertEquals("c", s.select(2));
+        assertEquals("h", s.select(4));
+    }
+
+    @Test
+    public final void testSelectAfterRemove() {
+        OrderedSet<String> s = createFromArgs("e", "b", "h", "a", "c");
+        s.remove("b");
+        assertEquals("c", s.select(1));
+        assertEquals(4, s.size());
+    }
+
+    @Test
+    public final void testRangeInside() {
+        OrderedSet<String> s = createFromArgs("e", "b", "h", "a", "c", "g");
+        assertEquals(createQueue("c", "e", "g"), s.range("c", "g"));
+    }
+
+    @Test
+    public final void testRangeBoundsNotInSet() {
+        OrderedSet<String> s = createFromArgs("e", "b", "h", "a", "c", "g");
+        assertEquals(createQueue("b", "c"), s.range("aa", "d"));
+    }
+
+    @Test
+    public final void testRangeEmpty() {
+        OrderedSet<String> s = createFromArgs("e", "b", "h");
+        assertEquals(createQueue(), s.range("f", "g"));
+    }
+
+}
@@ -0,0 +1,145 @@
+import java.util.Comparator;
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Counts the calls to {@code compare} made by {@code SortingMachine5a} with
+ * the usual sift-down and with bottom-up sift-down, sorting the same random
+ * words, and reports the calls and the time spent in each phase.
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public final class BottomUpSiftBenchmark {
+
+    /**
+     * Default number of words.
+     */
+    private static final int DEFAULT_WORDS = 1000000;
+
+    /**
+     * Length of each random word.
+     */
+    private static final int WORD_LENGTH = 8;
+
+    /**
+     * Number of letters words are made of.
+     */
+    private static final int LETTERS = 26;
+
+    /**
+     * Seed for the random words.
+     */
+    private static final long SEED = 4242;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private BottomUpSiftBenchmark() {
+    }
+
+    /**
+     * Compare {@code String}s in lexicographic order, counting the calls.
+     */
+    private static final class CountingStringLT implements Comparator<String> {
+
+        /**
+         * Number of calls to compare so far.
+         */
+        private long calls = 0;
+
+        @Override
+        public int compare(String s1, String s2) {
+            this.calls++;
+            return s1.compareTo(s2);
+        }
+
+    }
+
+    /**
+     * Sorts {@code words} with a {@code SortingMachine5a} and reports the
+     * calls to {@code compare} and the time in each phase.
+     *
+     * @param out
+     *            the output stream
+     * @param words
+     *            the words to sort
+     * @param bottomUp
+     *            whether to use bottom-up sift-down
+     * @updates out.content
+     * @requires out.is_open
+     * @ensures out.content = #out.content * [one line of results]
+     */
+    private static void run(SimpleWriter out, String[] words,
+            boolean bottomUp) {
+        CountingStringLT order = new CountingStringLT();
+        SortingMachine<String> sm = new SortingMachine5a<String>(order,
+                bottomUp);
+        for (String w : words) {
+            sm.add(w);
+        }
+        long start = System.nanoTime();
+        sm.changeToExtractionMode();
+        long buildTime = System.nanoTime() - start;
+        long buildCalls = order.calls;
+        start = System.nanoTime();
+        String previous = "";
+        while (sm.size() > 0) {
+            String w = sm.removeFirst();
+            assert previous.compareTo(w) <= 0 : "Violation of: sorted output";
+            previous = w;
+        }
+        long removeTime = System.nanoTime() - start;
+        long removeCalls = order.calls - buildCalls;
+        String name = "top-down";
+        if (bottomUp) {
+            name = "bottom-up";
+        }
+        out.println(name + "\t" + buildCalls + "\t" + removeCalls + "\t"
+                + ((double) removeCalls / words.length) + "\t"
+                + (buildTime / NANOS_PER_MILLI) + "\t"
+                + (removeTime / NANOS_PER_MILLI));
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the number of words
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int n = DEFAULT_WORDS;
+        if (args.length > 0) {
+            n = Integer.parseInt(args[0]);
+        }
+        Random random = new Random(SEED);
+        String[] words = new String[n];
+        char[] letters = new char[WORD_LENGTH];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < WORD_LENGTH; j++) {
+                letters[j] = (char) ('a' + random.nextInt(LETTERS));
+            }
+            words[i] = new String(letters);
+        }
+
+        out.println("words " + n);
+        out.println("siftDown\tbuild calls\tremove calls\tcalls/remove"
+                + "\tms build\tms remove");
+        run(out, words, false);
+        run(out, words, true);
+
+        out.close();
+    }
+
+}
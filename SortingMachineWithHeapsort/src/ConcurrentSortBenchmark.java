@@ -0,0 +1,166 @@
+import java.util.Comparator;
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Compares filling one {@code SortingMachine5a} behind a lock with filling a
+ * {@code SortingMachine5aConcurrent} directly, from 1 up to the number of
+ * available cores producer threads, and reports the time to add all the keys
+ * and then to change mode and extract them all in order.
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public final class ConcurrentSortBenchmark {
+
+    /**
+     * Total number of keys, split evenly among the producers.
+     */
+    private static final int KEYS = 4000000;
+
+    /**
+     * Seed for the random keys.
+     */
+    private static final long SEED = 777;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private ConcurrentSortBenchmark() {
+    }
+
+    /**
+     * Compare {@code Integer}s in increasing order.
+     */
+    private static final class IntegerLT implements Comparator<Integer> {
+
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return Integer.compare(o1, o2);
+        }
+
+    }
+
+    /**
+     * Adds {@code x} to {@code sm} while holding the monitor of {@code sm},
+     * the way producers had to share a {@code SortingMachine5a}.
+     *
+     * @param sm
+     *            the sorting machine
+     * @param x
+     *            the entry to add
+     * @updates sm
+     */
+    private static void addLocked(SortingMachine<Integer> sm, Integer x) {
+        synchronized (sm) {
+            sm.add(x);
+        }
+    }
+
+    /**
+     * Runs {@code threads} producers that together add all of {@code keys}
+     * to {@code sm}, then extracts them all, and returns the elapsed times in
+     * nanoseconds of the two phases.
+     *
+     * @param threads
+     *            the number of producer threads
+     * @param sm
+     *            the sorting machine to fill
+     * @param locked
+     *            whether producers must lock {@code sm} to add
+     * @param keys
+     *            the keys to add
+     * @return the nanoseconds spent adding and the nanoseconds spent in
+     *         changeToExtractionMode and removeFirst
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    private static long[] run(int threads, SortingMachine<Integer> sm,
+            boolean locked, Integer[] keys) throws InterruptedException {
+        Thread[] producers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int from = (int) ((long) keys.length * t / threads);
+            final int to = (int) ((long) keys.length * (t + 1) / threads);
+            producers[t] = new Thread(() -> {
+                for (int i = from; i < to; i++) {
+                    if (locked) {
+                        addLocked(sm, keys[i]);
+                    } else {
+                        sm.add(keys[i]);
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        long addTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        sm.changeToExtractionMode();
+        int previous = Integer.MIN_VALUE;
+        while (sm.size() > 0) {
+            int x = sm.removeFirst();
+            assert previous <= x : "Violation of: output in order";
+            previous = x;
+        }
+        long extractTime = System.nanoTime() - start;
+        return new long[] { addTime, extractTime };
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the largest number of
+     *            producer threads, which defaults to the number of cores
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public static void main(String[] args) throws InterruptedException {
+        SimpleWriter out = new SimpleWriter1L();
+
+        Random random = new Random(SEED);
+        Integer[] keys = new Integer[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = random.nextInt();
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = cores;
+        if (args.length > 0) {
+            maxThreads = Integer.parseInt(args[0]);
+        }
+        out.println("keys " + KEYS + ", cores " + cores);
+        out.println("threads\t5a+lock add ms\t5a extract ms"
+                + "\tconcurrent add ms\tconcurrent extract ms");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long[] locked = run(threads,
+                    new SortingMachine5a<Integer>(new IntegerLT()), true,
+                    keys);
+            long[] concurrent = run(threads,
+                    new SortingMachine5aConcurrent<Integer>(new IntegerLT()),
+                    false, keys);
+            out.println(threads + "\t" + (locked[0] / NANOS_PER_MILLI) + "\t"
+                    + (locked[1] / NANOS_PER_MILLI) + "\t"
+                    + (concurrent[0] / NANOS_PER_MILLI) + "\t"
+                    + (concurrent[1] / NANOS_PER_MILLI));
+        }
+
+        out.close();
+    }
+
+}
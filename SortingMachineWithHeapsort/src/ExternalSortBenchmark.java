@@ -0,0 +1,122 @@
+import java.io.File;
+import java.util.Comparator;
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Sorts a stream of random {@code Integer} keys with
+ * {@code SortingMachine5aExternal}, generating each key as it is added so
+ * that only the machine holds entries, then extracts them all, checks that
+ * they come out in order with the same sum, and reports the time spent in
+ * each phase. Run with a heap much smaller than the keys (for example
+ * {@code -Xmx64m} for the default 20 million keys, which take over 300 MiB as
+ * {@code Integer}s) and assertion checking off.
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public final class ExternalSortBenchmark {
+
+    /**
+     * Default number of keys.
+     */
+    private static final int DEFAULT_KEYS = 20000000;
+
+    /**
+     * Default largest number of entries held in memory.
+     */
+    private static final int DEFAULT_RUN_LENGTH = 1 << 19;
+
+    /**
+     * Seed for the random keys.
+     */
+    private static final long SEED = 8675309;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private ExternalSortBenchmark() {
+    }
+
+    /**
+     * Compare {@code Integer}s in increasing order.
+     */
+    private static final class IntegerLT implements Comparator<Integer> {
+
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return Integer.compare(o1, o2);
+        }
+
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the number of keys,
+     *            the run length, and the directory for run files
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int n = DEFAULT_KEYS;
+        int runLength = DEFAULT_RUN_LENGTH;
+        File directory = null;
+        if (args.length > 0) {
+            n = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            runLength = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2) {
+            directory = new File(args[2]);
+        }
+
+        SortingMachine<Integer> sm = new SortingMachine5aExternal<Integer>(
+                new IntegerLT(),
+                new SortingMachine5aExternal.IntegerSerializer(), runLength,
+                directory);
+        Random random = new Random(SEED);
+        long sumIn = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            int x = random.nextInt();
+            sumIn += x;
+            sm.add(x);
+        }
+        long added = System.nanoTime();
+        sm.changeToExtractionMode();
+        long changed = System.nanoTime();
+        long sumOut = 0;
+        int previous = Integer.MIN_VALUE;
+        boolean inOrder = true;
+        while (sm.size() > 0) {
+            int x = sm.removeFirst();
+            inOrder = inOrder && previous <= x;
+            previous = x;
+            sumOut += x;
+        }
+        long removed = System.nanoTime();
+
+        out.println("keys " + n + ", run length " + runLength + ", max heap "
+                + (Runtime.getRuntime().maxMemory() >> 20) + " MiB");
+        out.println("ms add\tms change\tms remove\tin order\tsums match");
+        out.println(((added - start) / NANOS_PER_MILLI) + "\t"
+                + ((changed - added) / NANOS_PER_MILLI) + "\t"
+                + ((removed - changed) / NANOS_PER_MILLI) + "\t" + inOrder
+                + "\t" + (sumIn == sumOut));
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,136 @@
+import java.util.Comparator;
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Sorts the same random {@code int} keys with {@code SortingMachine5a} over
+ * boxed {@code Integer}s and with {@code SortingMachine5aInt}, and reports
+ * the time each spends in insertion mode, in {@code changeToExtractionMode},
+ * and in extracting every key. Run with assertion checking off.
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public final class PrimitiveSortBenchmark {
+
+    /**
+     * Default number of keys.
+     */
+    private static final int DEFAULT_KEYS = 10000000;
+
+    /**
+     * Seed for the random keys.
+     */
+    private static final long SEED = 20231;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private PrimitiveSortBenchmark() {
+    }
+
+    /**
+     * Compare {@code Integer}s in increasing order.
+     */
+    private static final class IntegerLT implements Comparator<Integer> {
+
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return Integer.compare(o1, o2);
+        }
+
+    }
+
+    /**
+     * Reports the times, in milliseconds, from {@code times}.
+     *
+     * @param out
+     *            the output stream
+     * @param name
+     *            the name of the machine
+     * @param times
+     *            the four instants bracketing the three phases, in
+     *            nanoseconds
+     * @param check
+     *            checksum of the extracted keys, so the work is not optimized
+     *            away
+     * @updates out.content
+     * @requires out.is_open  and  |times| = 4
+     * @ensures out.content = #out.content * [one line of results]
+     */
+    private static void report(SimpleWriter out, String name, long[] times,
+            long check) {
+        out.println(name + "\t" + ((times[1] - times[0]) / NANOS_PER_MILLI)
+                + "\t" + ((times[2] - times[1]) / NANOS_PER_MILLI) + "\t"
+                + ((times[3] - times[2]) / NANOS_PER_MILLI) + "\t"
+                + ((times[3] - times[0]) / NANOS_PER_MILLI) + "\t" + check);
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the number of keys
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int n = DEFAULT_KEYS;
+        if (args.length > 0) {
+            n = Integer.parseInt(args[0]);
+        }
+        int[] keys = new int[n];
+        Random random = new Random(SEED);
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt();
+        }
+
+        out.println("keys " + n);
+        out.println("machine\tms add\tms change\tms remove\tms total\tcheck");
+
+        long[] times = new long[4];
+        times[0] = System.nanoTime();
+        SortingMachine<Integer> boxed = new SortingMachine5a<Integer>(
+                new IntegerLT());
+        for (int i = 0; i < n; i++) {
+            boxed.add(keys[i]);
+        }
+        times[1] = System.nanoTime();
+        boxed.changeToExtractionMode();
+        times[2] = System.nanoTime();
+        long check = 0;
+        for (int i = 0; i < n; i++) {
+            check = check * 31 + boxed.removeFirst();
+        }
+        times[3] = System.nanoTime();
+        report(out, "SortingMachine5a", times, check);
+        boxed = null;
+
+        times[0] = System.nanoTime();
+        SortingMachine5aInt primitive = new SortingMachine5aInt();
+        for (int i = 0; i < n; i++) {
+            primitive.add(keys[i]);
+        }
+        times[1] = System.nanoTime();
+        primitive.changeToExtractionMode();
+        times[2] = System.nanoTime();
+        check = 0;
+        for (int i = 0; i < n; i++) {
+            check = check * 31 + primitive.removeFirst();
+        }
+        times[3] = System.nanoTime();
+        report(out, "SortingMachine5aInt", times, check);
+
+        out.close();
+    }
+
+}
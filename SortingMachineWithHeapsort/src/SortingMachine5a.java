@@ -1,15 +1,30 @@
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
-import components.queue.Queue;
-import components.queue.Queue1L;
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachineSecondary;
 
 /**
- * {@code SortingMachine} represented as a {@code Queue} and an array (using an
- * embedding of heap sort), with implementations of primary methods.
+ * {@code SortingMachine} represented as a growable array (using an embedding
+ * of heap sort), with implementations of primary methods.
+ *
+ * <p>
+ * In insertion mode, {@code add} writes each entry straight into the array,
+ * doubling it when it is full, and {@code changeToExtractionMode} turns the
+ * filled prefix of that same array into a heap in place, so entries are
+ * neither staged elsewhere nor copied when the mode changes.
+ * </p>
+ *
+ * <p>
+ * A machine constructed with {@code bottomUp} set extracts with bottom-up
+ * heapsort: {@code removeFirst} moves the hole left at the root down to a leaf
+ * along the smaller child, at one comparison per level, and then bubbles the
+ * displaced last entry up from there. That entry almost always belongs near
+ * the bottom, so this makes about half as many calls to {@code compare} as
+ * the usual sift-down, which pays off when comparisons are expensive.
+ * </p>
  *
  * @param <T>
  *            type of {@code SortingMachine} entries
@@ -42,22 +57,17 @@ import components.sortingmachine.SortingMachineSecondary;
  * </pre>
  * @convention <pre>
  * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
- * if $this.insertionMode then
- *   $this.heapSize = 0
- * else
- *   $this.entries = <>  and
- *   for all i: integer
- *       where (0 <= i  and  i < |$this.heap|)
- *     ([entry at position i in $this.heap is not null])  and
+ * 0 <= $this.heapSize <= |$this.heap|  and
+ * for all i: integer
+ *     where (0 <= i  and  i < $this.heapSize)
+ *   ([entry at position i in $this.heap is not null])  and
+ * if not $this.insertionMode then
  *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
- *     [relation computed by $this.machineOrder.compare method])  and
- *   0 <= $this.heapSize <= |$this.heap|
+ *     [relation computed by $this.machineOrder.compare method])
  * </pre>
  * @correspondence <pre>
- * if $this.insertionMode then
- *   this = (true, $this.machineOrder, multiset_entries($this.entries))
- * else
- *   this = (false, $this.machineOrder, multiset_entries($this.heap[0, $this.heapSize)))
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.heap[0, $this.heapSize)))
  * </pre>
  *
  * @author Nabeu Habetalsassa
@@ -81,12 +91,12 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     private boolean insertionMode;
 
     /**
-     * Entries.
+     * Initial length of the heap array.
      */
-    private Queue<T> entries;
+    private static final int INITIAL_CAPACITY = 16;
 
     /**
-     * Heap.
+     * Entries, in positions [0, heapSize); a heap in extraction mode.
      */
     private T[] heap;
 
@@ -95,6 +105,11 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      */
     private int heapSize;
 
+    /**
+     * Whether removeFirst uses bottom-up sift-down.
+     */
+    private boolean bottomUp;
+
     /**
      * Exchanges entries at indices {@code i} and {@code j} of {@code array}.
      *
@@ -144,7 +159,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * @requires <pre>
      * 0 <= top  and  last < |array|  and
      * for all i: integer
-     *     where (0 <= i  and  i < |array|)
+     *     where (0 <= i  and  i <= last)
      *   ([entry at position i in array is not null])  and
      * [subtree rooted at {@code top} is a complete binary tree]  and
      * SUBTREE_IS_HEAP(array, 2 * top + 1, last,
@@ -168,9 +183,9 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert order != null : "Violation of: order is not null";
         assert 0 <= top : "Violation of: 0 <= top";
         assert last < array.length : "Violation of: last < |array|";
-        for (int i = 0; i < array.length; i++) {
+        for (int i = 0; i <= last; i++) {
             assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+                    + "Violation of: all entries in array[0, last] are not null";
         }
         assert isHeap(array, 2 * top + 1, last, order) : ""
                 + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 1, last,"
@@ -214,6 +229,81 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
 
     }
 
+    /**
+     * Same as {@link #siftDown}, but using bottom-up sift-down: first moves
+     * the hole at {@code top} down to a leaf, each time filling it with the
+     * smaller child, and then moves the old root entry up from that leaf to
+     * where it belongs. This uses about one call to {@code order.compare} per
+     * level instead of two.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and
+     * for all i: integer
+     *     where (0 <= i  and  i <= last)
+     *   ([entry at position i in array is not null])  and
+     * [subtree rooted at {@code top} is a complete binary tree]  and
+     * SUBTREE_IS_HEAP(array, 2 * top + 1, last,
+     *     [relation computed by order.compare method])  and
+     * SUBTREE_IS_HEAP(array, 2 * top + 2, last,
+     *     [relation computed by order.compare method])  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP(array, top, last,
+     *     [relation computed by order.compare method])  and
+     * perms(array, #array)  and
+     * SUBTREE_ARRAY_ENTRIES(array, top, last) =
+     *  SUBTREE_ARRAY_ENTRIES(#array, top, last)  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> void siftDownBottomUp(T[] array, int top, int last,
+            Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert order != null : "Violation of: order is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+        assert isHeap(array, 2 * top + 1, last, order) : ""
+                + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 1, last,"
+                + " [relation computed by order.compare method])";
+        assert isHeap(array, 2 * top + 2, last, order) : ""
+                + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 2, last,"
+                + " [relation computed by order.compare method])";
+
+        if (last - top > 0) {
+            T x = array[top];
+            int hole = top;
+            int child = 2 * hole + 1;
+            while (child <= last) {
+                if (child < last
+                        && order.compare(array[child + 1], array[child]) < 0) {
+                    child++;
+                }
+                array[hole] = array[child];
+                hole = child;
+                child = 2 * hole + 1;
+            }
+            while (hole > top
+                    && order.compare(x, array[(hole - 1) / 2]) < 0) {
+                array[hole] = array[(hole - 1) / 2];
+                hole = (hole - 1) / 2;
+            }
+            array[hole] = x;
+        }
+
+    }
+
     /**
      * Heapifies the subtree of the given array rooted at the given {@code top}.
      *
@@ -223,30 +313,35 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      *            the complete binary tree
      * @param top
      *            the index of the root of the "subtree" to heapify
+     * @param last
+     *            the index of the last entry in the heap
      * @param order
      *            the total preorder for sorting
      * @updates array
      * @requires <pre>
-     * 0 <= top  and
+     * 0 <= top  and  last < |array|  and
      * for all i: integer
-     *     where (0 <= i  and  i < |array|)
+     *     where (0 <= i  and  i <= last)
      *   ([entry at position i in array is not null])  and
      * [subtree rooted at {@code top} is a complete binary tree]  and
      * IS_TOTAL_PREORDER([relation computed by order.compare method])
      * </pre>
      * @ensures <pre>
-     * SUBTREE_IS_HEAP(array, top, |array| - 1,
+     * SUBTREE_IS_HEAP(array, top, last,
      *     [relation computed by order.compare method])  and
-     * perms(array, #array)
+     * perms(array, #array)  and
+     * [the entries in array after position last are the same as in #array]
      * </pre>
      */
-    private static <T> void heapify(T[] array, int top, Comparator<T> order) {
+    private static <T> void heapify(T[] array, int top, int last,
+            Comparator<T> order) {
         assert array != null : "Violation of: array is not null";
         assert order != null : "Violation of: order is not null";
         assert 0 <= top : "Violation of: 0 <= top";
-        for (int i = 0; i < array.length; i++) {
+        assert last < array.length : "Violation of: last < |array|";
+        for (int i = 0; i <= last; i++) {
             assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+                    + "Violation of: all entries in array[0, last] are not null";
         }
 
         /*
@@ -257,69 +352,22 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
 
         int left = 2 * top + 1;
         int right = left + 1;
-        boolean leftExists = left < array.length;
-        boolean rightExists = right < array.length;
+        boolean leftExists = left <= last;
+        boolean rightExists = right <= last;
 
-        if (top < array.length) {
+        if (top <= last) {
 
             if (leftExists) {
-                heapify(array, left, order);
+                heapify(array, left, last, order);
             }
             if (rightExists) {
-                heapify(array, right, order);
+                heapify(array, right, last, order);
             }
 
         }
 
-        siftDown(array, top, array.length - 1, order);
-
-    }
-
-    /**
-     * Constructs and returns an array representing a heap with the entries from
-     * the given {@code Queue}.
-     *
-     * @param <T>
-     *            type of {@code Queue} and array entries
-     * @param q
-     *            the {@code Queue} with the entries for the heap
-     * @param order
-     *            the total preorder for sorting
-     * @return the array representation of a heap
-     * @clears q
-     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method])
-     * @ensures <pre>
-     * SUBTREE_IS_HEAP(buildHeap, 0, |buildHeap| - 1)  and
-     * perms(buildHeap, #q)  and
-     * for all i: integer
-     *     where (0 <= i  and  i < |buildHeap|)
-     *   ([entry at position i in buildHeap is not null])  and
-     * </pre>
-     */
-    @SuppressWarnings("unchecked")
-    private static <T> T[] buildHeap(Queue<T> q, Comparator<T> order) {
-        assert q != null : "Violation of: q is not null";
-        assert order != null : "Violation of: order is not null";
-        /*
-         * Impractical to check the requires clause.
-         */
-        /*
-         * With "new T[...]" in place of "new Object[...]" it does not compile;
-         * as shown, it results in a warning about an unchecked cast, though it
-         * cannot fail.
-         */
-        T[] heap = (T[]) (new Object[q.length()]);
-
-        int i = 0;
-        int length = q.length();
-        while (i < length) {
-            heap[i] = q.dequeue();
-            i++;
-        }
-
-        heapify(heap, 0, order);
+        siftDown(array, top, last, order);
 
-        return heap;
     }
 
     /**
@@ -341,7 +389,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * @requires <pre>
      * 0 <= top  and  last < |array|  and
      * for all i: integer
-     *     where (0 <= i  and  i < |array|)
+     *     where (0 <= i  and  i <= last)
      *   ([entry at position i in array is not null])  and
      * [subtree rooted at {@code top} is a complete binary tree]
      * </pre>
@@ -355,9 +403,9 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert array != null : "Violation of: array is not null";
         assert 0 <= top : "Violation of: 0 <= top";
         assert last < array.length : "Violation of: last < |array|";
-        for (int i = 0; i < array.length; i++) {
+        for (int i = 0; i <= last; i++) {
             assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+                    + "Violation of: all entries in array[0, last] are not null";
         }
         /*
          * No need to check the other requires clause, because it must be true
@@ -384,35 +432,25 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * @return true if the convention holds (or if assertion checking is off);
      *         otherwise reports a violated assertion
      * @convention <pre>
-     * if $this.insertionMode then
-     *   $this.heapSize = 0
-     * else
-     *   $this.entries = <>  and
-     *   for all i: integer
-     *       where (0 <= i  and  i < |$this.heap|)
-     *     ([entry at position i in $this.heap is not null])  and
+     * 0 <= $this.heapSize <= |$this.heap|  and
+     * for all i: integer
+     *     where (0 <= i  and  i < $this.heapSize)
+     *   ([entry at position i in $this.heap is not null])  and
+     * if not $this.insertionMode then
      *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
-     *     [relation computed by $this.machineOrder.compare method])  and
-     *   0 <= $this.heapSize <= |$this.heap|
+     *     [relation computed by $this.machineOrder.compare method])
      * </pre>
      */
     private boolean conventionHolds() {
-        if (this.insertionMode) {
-            assert this.heapSize == 0 : ""
-                    + "Violation of: if $this.insertionMode then $this.heapSize = 0";
-        } else {
-            assert this.entries.length() == 0 : ""
-                    + "Violation of: if not $this.insertionMode then $this.entries = <>";
-            assert 0 <= this.heapSize : ""
-                    + "Violation of: if not $this.insertionMode then 0 <= $this.heapSize";
-            assert this.heapSize <= this.heap.length : ""
-                    + "Violation of: if not $this.insertionMode then"
-                    + " $this.heapSize <= |$this.heap|";
-            for (int i = 0; i < this.heap.length; i++) {
-                assert this.heap[i] != null : ""
-                        + "Violation of: if not $this.insertionMode then"
-                        + " all entries in $this.heap are not null";
-            }
+        assert 0 <= this.heapSize : "Violation of: 0 <= $this.heapSize";
+        assert this.heapSize <= this.heap.length : ""
+                + "Violation of: $this.heapSize <= |$this.heap|";
+        for (int i = 0; i < this.heapSize; i++) {
+            assert this.heap[i] != null : ""
+                    + "Violation of: all entries in $this.heap[0, $this.heapSize)"
+                    + " are not null";
+        }
+        if (!this.insertionMode) {
             assert isHeap(this.heap, 0, this.heapSize - 1,
                     this.machineOrder) : ""
                             + "Violation of: if not $this.insertionMode then"
@@ -432,15 +470,21 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * @ensures <pre>
      * $this.insertionMode = true  and
      * $this.machineOrder = order  and
-     * $this.entries = <>  and
+     * |$this.heap| = INITIAL_CAPACITY  and
      * $this.heapSize = 0
      * </pre>
      */
+    @SuppressWarnings("unchecked")
     private void createNewRep(Comparator<T> order) {
 
         this.insertionMode = true;
         this.machineOrder = order;
-        this.entries = new Queue1L<T>();
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        this.heap = (T[]) (new Object[INITIAL_CAPACITY]);
         this.heapSize = 0;
 
     }
@@ -460,6 +504,20 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert this.conventionHolds();
     }
 
+    /**
+     * Constructor from order and extraction strategy.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param bottomUp
+     *            whether removeFirst uses bottom-up sift-down
+     */
+    public SortingMachine5a(Comparator<T> order, boolean bottomUp) {
+        this.bottomUp = bottomUp;
+        this.createNewRep(order);
+        assert this.conventionHolds();
+    }
+
     /*
      * Standard methods -------------------------------------------------------
      */
@@ -468,8 +526,9 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     @Override
     public final SortingMachine<T> newInstance() {
         try {
-            return this.getClass().getConstructor(Comparator.class)
-                    .newInstance(this.machineOrder);
+            return this.getClass()
+                    .getConstructor(Comparator.class, boolean.class)
+                    .newInstance(this.machineOrder, this.bottomUp);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -497,9 +556,9 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         SortingMachine5a<T> localSource = (SortingMachine5a<T>) source;
         this.insertionMode = localSource.insertionMode;
         this.machineOrder = localSource.machineOrder;
-        this.entries = localSource.entries;
         this.heap = localSource.heap;
         this.heapSize = localSource.heapSize;
+        this.bottomUp = localSource.bottomUp;
         localSource.createNewRep(localSource.machineOrder);
         assert this.conventionHolds();
         assert localSource.conventionHolds();
@@ -514,7 +573,11 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert x != null : "Violation of: x is not null";
         assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
 
-        this.entries.enqueue(x);
+        if (this.heapSize == this.heap.length) {
+            this.heap = Arrays.copyOf(this.heap, 2 * this.heapSize);
+        }
+        this.heap[this.heapSize] = x;
+        this.heapSize++;
         assert this.conventionHolds();
     }
 
@@ -523,8 +586,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
 
         this.insertionMode = false;
-        this.heapSize = this.entries.length();
-        this.heap = buildHeap(this.entries, this.machineOrder);
+        heapify(this.heap, 0, this.heapSize - 1, this.machineOrder);
         assert this.conventionHolds();
     }
 
@@ -537,7 +599,12 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         T removed = this.heap[0];
         exchangeEntries(this.heap, 0, this.heapSize - 1);
         this.heapSize--;
-        siftDown(this.heap, 0, this.heapSize - 1, this.machineOrder);
+        if (this.bottomUp) {
+            siftDownBottomUp(this.heap, 0, this.heapSize - 1,
+                    this.machineOrder);
+        } else {
+            siftDown(this.heap, 0, this.heapSize - 1, this.machineOrder);
+        }
 
         assert this.conventionHolds();
         return removed;
@@ -558,14 +625,8 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     @Override
     public final int size() {
 
-        int length = 0;
-        if (this.insertionMode) {
-            length = this.entries.length();
-        } else {
-            length = this.heapSize;
-        }
         assert this.conventionHolds();
-        return length;
+        return this.heapSize;
     }
 
     @Override
@@ -580,12 +641,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     private final class SortingMachine5aIterator implements Iterator<T> {
 
         /**
-         * Representation iterator when in insertion mode.
-         */
-        private Iterator<T> queueIterator;
-
-        /**
-         * Representation iterator count when in extraction mode.
+         * Representation iterator count.
          */
         private int arrayCurrentIndex;
 
@@ -593,22 +649,14 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
          * No-argument constructor.
          */
         private SortingMachine5aIterator() {
-            if (SortingMachine5a.this.insertionMode) {
-                this.queueIterator = SortingMachine5a.this.entries.iterator();
-            } else {
-                this.arrayCurrentIndex = 0;
-            }
+            this.arrayCurrentIndex = 0;
             assert SortingMachine5a.this.conventionHolds();
         }
 
         @Override
         public boolean hasNext() {
-            boolean hasNext;
-            if (SortingMachine5a.this.insertionMode) {
-                hasNext = this.queueIterator.hasNext();
-            } else {
-                hasNext = this.arrayCurrentIndex < SortingMachine5a.this.heapSize;
-            }
+            boolean hasNext = this.arrayCurrentIndex
+                    < SortingMachine5a.this.heapSize;
             assert SortingMachine5a.this.conventionHolds();
             return hasNext;
         }
@@ -624,13 +672,8 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
                  */
                 throw new NoSuchElementException();
             }
-            T next;
-            if (SortingMachine5a.this.insertionMode) {
-                next = this.queueIterator.next();
-            } else {
-                next = SortingMachine5a.this.heap[this.arrayCurrentIndex];
-                this.arrayCurrentIndex++;
-            }
+            T next = SortingMachine5a.this.heap[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
             assert SortingMachine5a.this.conventionHolds();
             return next;
         }
@@ -0,0 +1,577 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} that many producer threads can fill at once,
+ * represented as one heap per producer thread and, in extraction mode, a
+ * "tournament" heap over those heaps, with implementations of primary
+ * methods.
+ *
+ * <p>
+ * In insertion mode, each thread that calls {@code add} gets a heap of its
+ * own and adds to it with no locking, so producers never contend. In
+ * extraction mode, the smallest entry overall is the smallest of the tops of
+ * the per-thread heaps, so {@code changeToExtractionMode} only builds a heap
+ * of the non-empty per-thread heaps ordered by their tops, and each
+ * {@code removeFirst} takes the top of the heap at the root of that
+ * tournament, re-sifts that one heap, and re-sifts the tournament: a k-way
+ * merge streaming entries in order, at O(log n + log k) per entry.
+ * </p>
+ *
+ * <p>
+ * {@code add} may be called from any number of threads at the same time. No
+ * other method may run while an {@code add} is in progress, and every
+ * {@code add} must happen-before {@code changeToExtractionMode} (for example,
+ * by joining the producer threads first). In extraction mode the machine is
+ * used by one thread at a time, like any other {@code SortingMachine}.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_HEAP (
+ *   a: string of T,
+ *   n: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all i: integer where (0 < i  and  i < n)
+ *   (r(a[(i - 1) / 2], a[i]))
+ * </pre>
+ * @convention <pre>
+ * [every LocalHeap h that $this.local gives a thread with
+ *  h.runs = $this.runs is in $this.runs]  and
+ * [for every LocalHeap h in $this.runs,
+ *   h.runs = $this.runs  and
+ *   0 <= h.size <= |h.heap|  and
+ *   IS_HEAP(h.heap, h.size,
+ *     [relation computed by $this.machineOrder.compare method])]  and
+ * if not $this.insertionMode then
+ *   [$this.merged holds the LocalHeaps of $this.runs]  and
+ *   0 <= $this.tournamentSize <= |$this.tournament|  and
+ *   [$this.tournament[0, $this.tournamentSize) holds the indices in
+ *    $this.merged of the non-empty LocalHeaps, in heap order by the
+ *    first entry of each LocalHeap]  and
+ *   $this.size = [the sum of h.size over the LocalHeaps h in $this.runs]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         [the union of multiset_entries(h.heap[0, h.size)) over the
+ *          LocalHeaps h in $this.runs])
+ * </pre>
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public class SortingMachine5aConcurrent<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial length of the array of each per-thread heap.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Heap of entries added by one thread.
+     *
+     * @param <T>
+     *            type of entries
+     */
+    private static final class LocalHeap<T> {
+
+        /**
+         * Entries, in positions [0, size), in heap order.
+         */
+        private T[] heap;
+
+        /**
+         * Number of entries.
+         */
+        private int size;
+
+        /**
+         * Queue of per-thread heaps this heap is registered in.
+         */
+        private final ConcurrentLinkedQueue<LocalHeap<T>> runs;
+
+        /**
+         * Constructor from the queue this heap is registered in.
+         *
+         * @param runs
+         *            the queue this heap is registered in
+         */
+        @SuppressWarnings("unchecked")
+        private LocalHeap(ConcurrentLinkedQueue<LocalHeap<T>> runs) {
+            this.heap = (T[]) (new Object[INITIAL_CAPACITY]);
+            this.size = 0;
+            this.runs = runs;
+        }
+
+        /**
+         * Adds {@code x} to this heap, sifting it up into place.
+         *
+         * @param x
+         *            the entry to add
+         * @param order
+         *            total preorder for sorting
+         * @updates this
+         */
+        private void add(T x, Comparator<T> order) {
+            if (this.size == this.heap.length) {
+                this.heap = Arrays.copyOf(this.heap, 2 * this.size);
+            }
+            int hole = this.size;
+            while (hole > 0
+                    && order.compare(x, this.heap[(hole - 1) / 2]) < 0) {
+                this.heap[hole] = this.heap[(hole - 1) / 2];
+                hole = (hole - 1) / 2;
+            }
+            this.heap[hole] = x;
+            this.size++;
+        }
+
+        /**
+         * Removes and returns the smallest entry of this heap, sifting the
+         * last entry down into the vacated root.
+         *
+         * @param order
+         *            total preorder for sorting
+         * @return the entry removed
+         * @updates this
+         * @requires this.size > 0
+         */
+        private T removeFirst(Comparator<T> order) {
+            T removed = this.heap[0];
+            this.size--;
+            T x = this.heap[this.size];
+            this.heap[this.size] = null;
+            if (this.size > 0) {
+                int hole = 0;
+                int child = 1;
+                while (child < this.size) {
+                    if (child + 1 < this.size && order.compare(
+                            this.heap[child + 1], this.heap[child]) < 0) {
+                        child++;
+                    }
+                    if (order.compare(this.heap[child], x) >= 0) {
+                        break;
+                    }
+                    this.heap[hole] = this.heap[child];
+                    hole = child;
+                    child = 2 * hole + 1;
+                }
+                this.heap[hole] = x;
+            }
+            return removed;
+        }
+
+    }
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Every per-thread heap.
+     */
+    private ConcurrentLinkedQueue<LocalHeap<T>> runs;
+
+    /**
+     * The calling thread's heap, one {@code ThreadLocal} for the lifetime of
+     * this machine; a heap registered in a queue other than runs is stale.
+     */
+    private final ThreadLocal<LocalHeap<T>> local =
+            new ThreadLocal<LocalHeap<T>>();
+
+    /**
+     * Per-thread heaps, fixed on entering extraction mode.
+     */
+    private LocalHeap<T>[] merged;
+
+    /**
+     * Indices in merged of the non-empty heaps, in heap order by their tops.
+     */
+    private int[] tournament;
+
+    /**
+     * Number of indices in tournament.
+     */
+    private int tournamentSize;
+
+    /**
+     * Number of entries, in extraction mode.
+     */
+    private int size;
+
+    /**
+     * Sifts the index at position {@code top} of the tournament down to where
+     * the top of its heap belongs.
+     *
+     * @param top
+     *            the position in the tournament to sift down
+     * @updates this.tournament
+     * @requires <pre>
+     * 0 <= top < $this.tournamentSize  and
+     * [the tournament would be in heap order except for position top]
+     * </pre>
+     * @ensures [the tournament is in heap order]
+     */
+    private void siftTournament(int top) {
+        int[] t = this.tournament;
+        int n = this.tournamentSize;
+        int index = t[top];
+        T x = this.merged[index].heap[0];
+        int hole = top;
+        int child = 2 * hole + 1;
+        while (child < n) {
+            if (child + 1 < n && this.machineOrder.compare(
+                    this.merged[t[child + 1]].heap[0],
+                    this.merged[t[child]].heap[0]) < 0) {
+                child++;
+            }
+            if (this.machineOrder.compare(this.merged[t[child]].heap[0],
+                    x) >= 0) {
+                break;
+            }
+            t[hole] = t[child];
+            hole = child;
+            child = 2 * hole + 1;
+        }
+        t[hole] = index;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * if not $this.insertionMode then
+     *   0 <= $this.tournamentSize <= |$this.tournament|  and
+     *   [$this.tournament[0, $this.tournamentSize) holds the indices in
+     *    $this.merged of the non-empty LocalHeaps, in heap order by the
+     *    first entry of each LocalHeap]  and
+     *   $this.size = [the sum of h.size over the LocalHeaps h in $this.merged]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        if (!this.insertionMode) {
+            assert 0 <= this.tournamentSize
+                    && this.tournamentSize <= this.tournament.length : ""
+                            + "Violation of: 0 <= $this.tournamentSize"
+                            + " <= |$this.tournament|";
+            int total = 0;
+            int nonEmpty = 0;
+            for (LocalHeap<T> h : this.merged) {
+                total += h.size;
+                if (h.size > 0) {
+                    nonEmpty++;
+                }
+            }
+            assert total == this.size : ""
+                    + "Violation of: $this.size = [the sum of h.size over the"
+                    + " LocalHeaps h in $this.merged]";
+            assert nonEmpty == this.tournamentSize : ""
+                    + "Violation of: [$this.tournament[0, $this.tournamentSize)"
+                    + " holds the indices of the non-empty LocalHeaps]";
+            for (int i = 1; i < this.tournamentSize; i++) {
+                assert this.machineOrder.compare(
+                        this.merged[this.tournament[(i - 1) / 2]].heap[0],
+                        this.merged[this.tournament[i]].heap[0]) <= 0 : ""
+                                + "Violation of: [$this.tournament is in heap"
+                                + " order by the first entry of each LocalHeap]";
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.runs = <>
+     * </pre>
+     */
+    private void createNewRep(Comparator<T> order) {
+
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.runs = new ConcurrentLinkedQueue<LocalHeap<T>>();
+        this.merged = null;
+        this.tournament = null;
+        this.tournamentSize = 0;
+        this.size = 0;
+
+    }
+
+    /**
+     * Drops the entries of every per-thread heap in {@code $this.runs}, which
+     * is about to be discarded, so the stale heaps that threads still reach
+     * through {@code $this.local} until their next {@code add} hold no
+     * entries.
+     *
+     * @updates this.runs
+     */
+    private void releaseRuns() {
+        for (LocalHeap<T> h : this.runs) {
+            h.heap = null;
+            h.size = 0;
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public SortingMachine5aConcurrent(Comparator<T> order) {
+        this.createNewRep(order);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(Comparator.class)
+                    .newInstance(this.machineOrder);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.releaseRuns();
+        this.createNewRep(this.machineOrder);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine5aConcurrent<?> : ""
+                + "Violation of: source is of dynamic type"
+                + " SortingMachine5aConcurrent<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine5aConcurrent<?>, and the ? must be T or the call would
+         * not have compiled.
+         */
+        SortingMachine5aConcurrent<T> localSource =
+                (SortingMachine5aConcurrent<T>) source;
+        this.releaseRuns();
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.runs = localSource.runs;
+        this.merged = localSource.merged;
+        this.tournament = localSource.tournament;
+        this.tournamentSize = localSource.tournamentSize;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        LocalHeap<T> h = this.local.get();
+        if (h == null || h.runs != this.runs) {
+            h = new LocalHeap<T>(this.runs);
+            this.runs.add(h);
+            this.local.set(h);
+        }
+        h.add(x, this.machineOrder);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        this.insertionMode = false;
+        this.merged = this.runs.toArray(new LocalHeap[0]);
+        this.tournament = new int[this.merged.length];
+        this.tournamentSize = 0;
+        this.size = 0;
+        for (int i = 0; i < this.merged.length; i++) {
+            if (this.merged[i].size > 0) {
+                this.tournament[this.tournamentSize] = i;
+                this.tournamentSize++;
+                this.size += this.merged[i].size;
+            }
+        }
+        for (int top = this.tournamentSize / 2 - 1; top >= 0; top--) {
+            this.siftTournament(top);
+        }
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        LocalHeap<T> first = this.merged[this.tournament[0]];
+        T removed = first.removeFirst(this.machineOrder);
+        this.size--;
+        if (first.size == 0) {
+            this.tournamentSize--;
+            this.tournament[0] = this.tournament[this.tournamentSize];
+        }
+        if (this.tournamentSize > 0) {
+            this.siftTournament(0);
+        }
+
+        assert this.conventionHolds();
+        return removed;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+
+        int length = this.size;
+        if (this.insertionMode) {
+            length = 0;
+            for (LocalHeap<T> h : this.runs) {
+                length += h.size;
+            }
+        }
+        assert this.conventionHolds();
+        return length;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine5aConcurrentIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine5aConcurrent}.
+     */
+    private final class SortingMachine5aConcurrentIterator
+            implements Iterator<T> {
+
+        /**
+         * Iterator over the per-thread heaps.
+         */
+        private Iterator<LocalHeap<T>> heaps;
+
+        /**
+         * Current per-thread heap, or null when there are no more.
+         */
+        private LocalHeap<T> current;
+
+        /**
+         * Index in this.current of the next entry to return.
+         */
+        private int index;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine5aConcurrentIterator() {
+            this.heaps = SortingMachine5aConcurrent.this.runs.iterator();
+            this.current = null;
+            this.index = 0;
+            this.skipEmpty();
+            assert SortingMachine5aConcurrent.this.conventionHolds();
+        }
+
+        /**
+         * Moves to the next per-thread heap that still has entries to return,
+         * if any.
+         */
+        private void skipEmpty() {
+            while ((this.current == null || this.index == this.current.size)
+                    && this.heaps.hasNext()) {
+                this.current = this.heaps.next();
+                this.index = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != null && this.index < this.current.size;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = this.current.heap[this.index];
+            this.index++;
+            this.skipEmpty();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,1101 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} that holds at most a fixed number of entries in
+ * memory and spills the rest to disk as sorted runs, represented as an
+ * in-memory buffer, a list of run files, and, in extraction mode, a
+ * "tournament" heap over readers of those runs, with implementations of
+ * primary methods.
+ *
+ * <p>
+ * In insertion mode, {@code add} appends to a buffer of at most
+ * {@code runLength} entries. When the buffer is full, it is heapsorted in
+ * place and written to a temporary file in {@code directory} with the
+ * machine's {@code Serializer}, and the buffer is reused. If nothing was ever
+ * spilled, {@code changeToExtractionMode} just sorts the buffer and
+ * {@code removeFirst} takes entries from its front, so small inputs never
+ * touch the disk. Otherwise the last buffer is spilled too, groups of
+ * {@code MERGE_FAN_IN} runs are merged into longer runs until at most that
+ * many remain, and {@code removeFirst} streams a k-way merge of the remaining
+ * runs, reading each one sequentially through a small buffer. A run's file is
+ * deleted as soon as its last entry is removed, and {@code clear} deletes all
+ * of them. Run files are not registered with {@code File.deleteOnExit}, which
+ * would keep every path ever spilled in memory until the JVM exits, so the
+ * files of a machine that is neither drained nor cleared stay in
+ * {@code directory}.
+ * </p>
+ *
+ * <p>
+ * Memory use is O({@code runLength}) in insertion mode and O(1) per open run
+ * in extraction mode, independent of the number of entries. Iterating reads
+ * the run files from disk; an iterator that is abandoned before it is
+ * exhausted leaves a file open until it is collected.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * RUN_ENTRIES (
+ *   r: Run
+ *  ) : finite multiset of T is
+ *  [the multiset of entries serialized in r.file]
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * 0 < $this.runLength  and
+ * 0 <= $this.first <= $this.bufferSize <= |$this.buffer| <= $this.runLength  and
+ * [entries of $this.buffer[$this.first, $this.bufferSize) are not null]  and
+ * [each Run r in $this.runs and each RunReader's run holds r.count > 0
+ *  entries, sorted by $this.machineOrder]  and
+ * if $this.insertionMode then
+ *   $this.first = 0  and  $this.readers = null  and
+ *   $this.size = $this.bufferSize + [sum of r.count over r in $this.runs]
+ * else
+ *   $this.runs = <>  and
+ *   [$this.buffer[$this.first, $this.bufferSize) is sorted by
+ *    $this.machineOrder]  and
+ *   ($this.bufferSize = 0  or  |$this.readers| = 0)  and
+ *   [$this.tournament[0, $this.tournamentSize) holds the indices in
+ *    $this.readers of the readers with entries left, in heap order by
+ *    their heads]  and
+ *   $this.size = $this.bufferSize - $this.first +
+ *     [sum of remaining over the readers]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.buffer[$this.first, $this.bufferSize)) union
+ *         [union of RUN_ENTRIES(r) over r in $this.runs] union
+ *         [union of the last remaining entries of RUN_ENTRIES(reader.run)
+ *          over the readers in $this.readers])
+ * </pre>
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public class SortingMachine5aExternal<T> extends SortingMachineSecondary<T> {
+
+    /**
+     * Writes entries of type {@code T} to, and reads them back from, a binary
+     * stream.
+     *
+     * @param <T>
+     *            type of entries
+     */
+    public interface Serializer<T> {
+
+        /**
+         * Writes {@code x} to {@code out}.
+         *
+         * @param out
+         *            the stream to write to
+         * @param x
+         *            the entry to write
+         * @throws IOException
+         *             if the stream cannot be written
+         */
+        void write(DataOutput out, T x) throws IOException;
+
+        /**
+         * Reads an entry written by {@code write} from {@code in}.
+         *
+         * @param in
+         *            the stream to read from
+         * @return the entry read
+         * @throws IOException
+         *             if the stream cannot be read
+         */
+        T read(DataInput in) throws IOException;
+
+    }
+
+    /**
+     * {@code Serializer} for {@code Integer}s, as four bytes each.
+     */
+    public static final class IntegerSerializer
+            implements Serializer<Integer> {
+
+        @Override
+        public void write(DataOutput out, Integer x) throws IOException {
+            out.writeInt(x);
+        }
+
+        @Override
+        public Integer read(DataInput in) throws IOException {
+            return in.readInt();
+        }
+
+    }
+
+    /**
+     * {@code Serializer} for {@code String}s, as a four-byte length followed
+     * by the UTF-8 bytes.
+     */
+    public static final class StringSerializer implements Serializer<String> {
+
+        @Override
+        public void write(DataOutput out, String x) throws IOException {
+            byte[] bytes = x.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+    }
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Default largest number of entries held in memory.
+     */
+    private static final int DEFAULT_RUN_LENGTH = 1 << 20;
+
+    /**
+     * Initial length of the buffer array, if the run length is larger.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Largest number of runs merged at once.
+     */
+    private static final int MERGE_FAN_IN = 64;
+
+    /**
+     * Size in bytes of the stream buffer for each run file.
+     */
+    private static final int STREAM_BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Sorted run of entries in a temporary file.
+     */
+    private static final class Run {
+
+        /**
+         * File holding the serialized entries.
+         */
+        private final File file;
+
+        /**
+         * Number of entries in the file.
+         */
+        private final int count;
+
+        /**
+         * Constructor from file and number of entries.
+         *
+         * @param file
+         *            the file holding the entries
+         * @param count
+         *            the number of entries in the file
+         */
+        private Run(File file, int count) {
+            this.file = file;
+            this.count = count;
+        }
+
+    }
+
+    /**
+     * Sequential reader of the entries of a {@code Run}, holding the next
+     * entry to return as its head.
+     *
+     * @param <T>
+     *            type of entries
+     */
+    private static final class RunReader<T> {
+
+        /**
+         * The run being read.
+         */
+        private final Run run;
+
+        /**
+         * Deserializer for entries.
+         */
+        private final Serializer<T> serializer;
+
+        /**
+         * Stream positioned just after the head, or null once closed.
+         */
+        private DataInputStream in;
+
+        /**
+         * Next entry, or null once there are none left.
+         */
+        private T head;
+
+        /**
+         * Number of entries left, including the head.
+         */
+        private int remaining;
+
+        /**
+         * Opens {@code run}, skips its first {@code skip} entries, and reads
+         * the next one as the head.
+         *
+         * @param run
+         *            the run to read
+         * @param skip
+         *            the number of entries to skip
+         * @param serializer
+         *            deserializer for entries
+         * @requires 0 <= skip < run.count
+         */
+        private RunReader(Run run, int skip, Serializer<T> serializer) {
+            this.run = run;
+            this.serializer = serializer;
+            try {
+                this.in = new DataInputStream(new BufferedInputStream(
+                        new FileInputStream(run.file), STREAM_BUFFER_BYTES));
+                for (int i = 0; i < skip; i++) {
+                    serializer.read(this.in);
+                }
+                this.remaining = run.count - skip;
+                this.head = serializer.read(this.in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Replaces the head with the next entry of the run, and closes the
+         * file once none are left.
+         *
+         * @updates this
+         * @requires this.remaining > 0
+         */
+        private void advance() {
+            this.remaining--;
+            try {
+                if (this.remaining > 0) {
+                    this.head = this.serializer.read(this.in);
+                } else {
+                    this.head = null;
+                    this.close();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Closes the file, if it is open.
+         *
+         * @updates this
+         */
+        private void close() {
+            if (this.in != null) {
+                try {
+                    this.in.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    this.in = null;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Serializer for run files.
+     */
+    private Serializer<T> serializer;
+
+    /**
+     * Largest number of entries held in memory.
+     */
+    private int runLength;
+
+    /**
+     * Directory for run files, or null for the default temporary directory.
+     */
+    private File directory;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries not spilled, in positions [first, bufferSize); sorted in
+     * extraction mode.
+     */
+    private T[] buffer;
+
+    /**
+     * Index of the next entry of buffer to remove, in extraction mode.
+     */
+    private int first;
+
+    /**
+     * Number of entries filled in buffer.
+     */
+    private int bufferSize;
+
+    /**
+     * Runs spilled in insertion mode.
+     */
+    private List<Run> runs;
+
+    /**
+     * Readers of the runs being merged, in extraction mode.
+     */
+    private RunReader<T>[] readers;
+
+    /**
+     * Indices in readers of the readers with entries left, in heap order by
+     * their heads.
+     */
+    private int[] tournament;
+
+    /**
+     * Number of indices in tournament.
+     */
+    private int tournamentSize;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Given an array that represents a complete binary tree and an index
+     * referring to the root of a subtree that would be a heap (with the last
+     * entry in {@code order} at the root) except for its root, sifts the root
+     * down to turn that whole subtree into a heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param size
+     *            the number of entries in the heap
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= top < size <= |array|  and
+     * [the subtrees rooted at 2 * top + 1 and 2 * top + 2, through entry
+     *  size - 1 of array, are heaps]
+     * </pre>
+     * @ensures <pre>
+     * [the subtree rooted at top, through entry size - 1 of array, is a heap
+     *  and holds the same entries as in #array]  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> void siftDown(T[] array, int top, int size,
+            Comparator<T> order) {
+        T x = array[top];
+        int hole = top;
+        int child = 2 * hole + 1;
+        while (child < size) {
+            if (child + 1 < size
+                    && order.compare(array[child + 1], array[child]) > 0) {
+                child++;
+            }
+            if (order.compare(array[child], x) <= 0) {
+                break;
+            }
+            array[hole] = array[child];
+            hole = child;
+            child = 2 * hole + 1;
+        }
+        array[hole] = x;
+    }
+
+    /**
+     * Heapsorts {@code array[0, size)} in place.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array to sort
+     * @param size
+     *            the number of entries to sort
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires 0 <= size <= |array|
+     * @ensures <pre>
+     * perms(array[0, size), #array[0, size))  and
+     * [array[0, size) is sorted by the relation computed by order.compare
+     *  method]  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> void heapsort(T[] array, int size,
+            Comparator<T> order) {
+        for (int top = size / 2 - 1; top >= 0; top--) {
+            siftDown(array, top, size, order);
+        }
+        for (int last = size - 1; last > 0; last--) {
+            T root = array[0];
+            array[0] = array[last];
+            array[last] = root;
+            siftDown(array, 0, last, order);
+        }
+    }
+
+    /**
+     * Sifts the index at position {@code top} of {@code tournament} down to
+     * where the head of its reader belongs.
+     *
+     * @param <T>
+     *            type of entries
+     * @param readers
+     *            the readers
+     * @param tournament
+     *            indices in readers, in heap order by their heads except at
+     *            position top
+     * @param size
+     *            the number of indices in tournament
+     * @param top
+     *            the position in tournament to sift down
+     * @param order
+     *            total preorder for sorting
+     * @updates tournament
+     * @requires 0 <= top < size <= |tournament|
+     * @ensures [tournament[0, size) is in heap order by the heads of readers]
+     */
+    private static <T> void siftTournament(RunReader<T>[] readers,
+            int[] tournament, int size, int top, Comparator<T> order) {
+        int index = tournament[top];
+        T x = readers[index].head;
+        int hole = top;
+        int child = 2 * hole + 1;
+        while (child < size) {
+            if (child + 1 < size
+                    && order.compare(readers[tournament[child + 1]].head,
+                            readers[tournament[child]].head) < 0) {
+                child++;
+            }
+            if (order.compare(readers[tournament[child]].head, x) >= 0) {
+                break;
+            }
+            tournament[hole] = tournament[child];
+            hole = child;
+            child = 2 * hole + 1;
+        }
+        tournament[hole] = index;
+    }
+
+    /**
+     * Writes {@code array[0, size)} to a new temporary file and returns it as
+     * a run.
+     *
+     * @param array
+     *            the sorted entries
+     * @param size
+     *            the number of entries to write
+     * @return the new run
+     * @requires 0 < size <= |array|
+     * @ensures spill.count = size
+     */
+    private Run spill(T[] array, int size) {
+        File file = this.createRunFile();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file),
+                        STREAM_BUFFER_BYTES))) {
+            for (int i = 0; i < size; i++) {
+                this.serializer.write(out, array[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Run(file, size);
+    }
+
+    /**
+     * Creates a new, empty temporary file for a run.
+     *
+     * @return the new file
+     */
+    private File createRunFile() {
+        try {
+            return File.createTempFile("sortingmachine", ".run",
+                    this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a reader on each of {@code group} and builds a tournament over
+     * them in {@code tournament}.
+     *
+     * @param group
+     *            the runs to open
+     * @param tournament
+     *            the array to build the tournament in
+     * @return the readers
+     * @replaces tournament
+     * @requires |tournament| = |group|
+     * @ensures <pre>
+     * [openRuns[i] reads group[i]]  and
+     * [tournament is in heap order by the heads of openRuns]
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private RunReader<T>[] openRuns(List<Run> group, int[] tournament) {
+        RunReader<T>[] opened = new RunReader[group.size()];
+        for (int i = 0; i < opened.length; i++) {
+            opened[i] = new RunReader<T>(group.get(i), 0, this.serializer);
+            tournament[i] = i;
+        }
+        for (int top = opened.length / 2 - 1; top >= 0; top--) {
+            siftTournament(opened, tournament, opened.length, top,
+                    this.machineOrder);
+        }
+        return opened;
+    }
+
+    /**
+     * Merges the runs of {@code group} into one new run, deleting their
+     * files.
+     *
+     * @param group
+     *            the runs to merge
+     * @return the merged run
+     * @requires |group| > 0
+     */
+    private Run merge(List<Run> group) {
+        int[] order = new int[group.size()];
+        RunReader<T>[] opened = this.openRuns(group, order);
+        int left = opened.length;
+        int count = 0;
+        File file = this.createRunFile();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file),
+                        STREAM_BUFFER_BYTES))) {
+            while (left > 0) {
+                RunReader<T> reader = opened[order[0]];
+                this.serializer.write(out, reader.head);
+                count++;
+                reader.advance();
+                if (reader.remaining == 0) {
+                    reader.run.file.delete();
+                    left--;
+                    order[0] = order[left];
+                }
+                if (left > 0) {
+                    siftTournament(opened, order, left, 0, this.machineOrder);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Run(file, count);
+    }
+
+    /**
+     * Closes and deletes the files of every run.
+     *
+     * @updates this
+     */
+    private void discardRuns() {
+        for (Run run : this.runs) {
+            run.file.delete();
+        }
+        if (this.readers != null) {
+            for (RunReader<T> reader : this.readers) {
+                reader.close();
+                reader.run.file.delete();
+            }
+        }
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 < $this.runLength  and
+     * 0 <= $this.first <= $this.bufferSize <= |$this.buffer| <= $this.runLength  and
+     * [entries of $this.buffer[$this.first, $this.bufferSize) are not null]  and
+     * if $this.insertionMode then
+     *   $this.first = 0  and  $this.readers = null  and
+     *   $this.size = $this.bufferSize + [sum of r.count over r in $this.runs]
+     * else
+     *   $this.runs = <>  and
+     *   [$this.buffer[$this.first, $this.bufferSize) is sorted by
+     *    $this.machineOrder]  and
+     *   ($this.bufferSize = 0  or  |$this.readers| = 0)  and
+     *   [$this.tournament[0, $this.tournamentSize) holds the indices in
+     *    $this.readers of the readers with entries left, in heap order by
+     *    their heads]  and
+     *   $this.size = $this.bufferSize - $this.first +
+     *     [sum of remaining over the readers]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 < this.runLength : "Violation of: 0 < $this.runLength";
+        assert 0 <= this.first && this.first <= this.bufferSize : ""
+                + "Violation of: 0 <= $this.first <= $this.bufferSize";
+        assert this.bufferSize <= this.buffer.length : ""
+                + "Violation of: $this.bufferSize <= |$this.buffer|";
+        assert this.buffer.length <= this.runLength : ""
+                + "Violation of: |$this.buffer| <= $this.runLength";
+        for (int i = this.first; i < this.bufferSize; i++) {
+            assert this.buffer[i] != null : ""
+                    + "Violation of: [entries of $this.buffer[$this.first,"
+                    + " $this.bufferSize) are not null]";
+        }
+        int total = this.bufferSize - this.first;
+        if (this.insertionMode) {
+            assert this.first == 0 : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " $this.first = 0";
+            assert this.readers == null : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " $this.readers = null";
+            for (Run run : this.runs) {
+                assert run.count > 0 : "Violation of: r.count > 0";
+                total += run.count;
+            }
+        } else {
+            assert this.runs.isEmpty() : ""
+                    + "Violation of: if not $this.insertionMode then"
+                    + " $this.runs = <>";
+            for (int i = this.first + 1; i < this.bufferSize; i++) {
+                assert this.machineOrder.compare(this.buffer[i - 1],
+                        this.buffer[i]) <= 0 : ""
+                                + "Violation of: [$this.buffer[$this.first,"
+                                + " $this.bufferSize) is sorted]";
+            }
+            assert this.bufferSize == 0 || this.readers.length == 0 : ""
+                    + "Violation of: $this.bufferSize = 0  or"
+                    + "  |$this.readers| = 0";
+            int nonEmpty = 0;
+            for (RunReader<T> reader : this.readers) {
+                total += reader.remaining;
+                if (reader.remaining > 0) {
+                    nonEmpty++;
+                }
+            }
+            assert nonEmpty == this.tournamentSize : ""
+                    + "Violation of: [$this.tournament[0,"
+                    + " $this.tournamentSize) holds the indices of the"
+                    + " readers with entries left]";
+            for (int i = 1; i < this.tournamentSize; i++) {
+                assert this.machineOrder.compare(
+                        this.readers[this.tournament[(i - 1) / 2]].head,
+                        this.readers[this.tournament[i]].head) <= 0 : ""
+                                + "Violation of: [$this.tournament is in heap"
+                                + " order by the heads of the readers]";
+            }
+        }
+        assert total == this.size : "Violation of: [$this.size is the"
+                + " number of entries]";
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param entrySerializer
+     *            serializer for run files
+     * @param length
+     *            largest number of entries held in memory
+     * @param dir
+     *            directory for run files, or null for the default temporary
+     *            directory
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method]  and
+     * length > 0
+     * </pre>
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.runLength = length  and
+     * $this.bufferSize = 0  and
+     * $this.runs = <>
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order,
+            Serializer<T> entrySerializer, int length, File dir) {
+
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.serializer = entrySerializer;
+        this.runLength = length;
+        this.directory = dir;
+        this.buffer = (T[]) (new Object[Math.min(length, INITIAL_CAPACITY)]);
+        this.first = 0;
+        this.bufferSize = 0;
+        this.runs = new ArrayList<Run>();
+        this.readers = null;
+        this.tournament = null;
+        this.tournamentSize = 0;
+        this.size = 0;
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order and serializer, holding up to a default number
+     * of entries in memory and spilling to the default temporary directory.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param serializer
+     *            serializer for run files
+     */
+    public SortingMachine5aExternal(Comparator<T> order,
+            Serializer<T> serializer) {
+        this(order, serializer, DEFAULT_RUN_LENGTH, null);
+    }
+
+    /**
+     * Constructor from order, serializer, run length, and directory.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param serializer
+     *            serializer for run files
+     * @param runLength
+     *            largest number of entries held in memory
+     * @param directory
+     *            directory for run files, or null for the default temporary
+     *            directory
+     * @requires runLength > 0
+     */
+    public SortingMachine5aExternal(Comparator<T> order,
+            Serializer<T> serializer, int runLength, File directory) {
+        assert order != null : "Violation of: order is not null";
+        assert serializer != null : "Violation of: serializer is not null";
+        assert runLength > 0 : "Violation of: runLength > 0";
+        this.createNewRep(order, serializer, runLength, directory);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass()
+                    .getConstructor(Comparator.class, Serializer.class,
+                            int.class, File.class)
+                    .newInstance(this.machineOrder, this.serializer,
+                            this.runLength, this.directory);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.discardRuns();
+        this.createNewRep(this.machineOrder, this.serializer, this.runLength,
+                this.directory);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine5aExternal<?> : ""
+                + "Violation of: source is of dynamic type"
+                + " SortingMachine5aExternal<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine5aExternal<?>, and the ? must be T or the call would
+         * not have compiled.
+         */
+        SortingMachine5aExternal<T> localSource =
+                (SortingMachine5aExternal<T>) source;
+        this.discardRuns();
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.serializer = localSource.serializer;
+        this.runLength = localSource.runLength;
+        this.directory = localSource.directory;
+        this.buffer = localSource.buffer;
+        this.first = localSource.first;
+        this.bufferSize = localSource.bufferSize;
+        this.runs = localSource.runs;
+        this.readers = localSource.readers;
+        this.tournament = localSource.tournament;
+        this.tournamentSize = localSource.tournamentSize;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder,
+                localSource.serializer, localSource.runLength,
+                localSource.directory);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        if (this.bufferSize == this.runLength) {
+            heapsort(this.buffer, this.bufferSize, this.machineOrder);
+            this.runs.add(this.spill(this.buffer, this.bufferSize));
+            Arrays.fill(this.buffer, 0, this.bufferSize, null);
+            this.bufferSize = 0;
+        } else if (this.bufferSize == this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer,
+                    (int) Math.min(2L * this.bufferSize, this.runLength));
+        }
+        this.buffer[this.bufferSize] = x;
+        this.bufferSize++;
+        this.size++;
+
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        this.insertionMode = false;
+        heapsort(this.buffer, this.bufferSize, this.machineOrder);
+        if (this.runs.isEmpty()) {
+            this.readers = new RunReader[0];
+            this.tournament = new int[0];
+        } else {
+            if (this.bufferSize > 0) {
+                this.runs.add(this.spill(this.buffer, this.bufferSize));
+            }
+            this.buffer = (T[]) (new Object[Math.min(this.runLength,
+                    INITIAL_CAPACITY)]);
+            this.bufferSize = 0;
+            while (this.runs.size() > MERGE_FAN_IN) {
+                List<Run> group = this.runs.subList(0, MERGE_FAN_IN);
+                Run merged = this.merge(group);
+                group.clear();
+                this.runs.add(merged);
+            }
+            this.tournament = new int[this.runs.size()];
+            this.readers = this.openRuns(this.runs, this.tournament);
+            this.tournamentSize = this.readers.length;
+            this.runs = new ArrayList<Run>();
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        T removed;
+        if (this.first < this.bufferSize) {
+            removed = this.buffer[this.first];
+            this.buffer[this.first] = null;
+            this.first++;
+        } else {
+            RunReader<T> reader = this.readers[this.tournament[0]];
+            removed = reader.head;
+            reader.advance();
+            if (reader.remaining == 0) {
+                reader.run.file.delete();
+                this.tournamentSize--;
+                this.tournament[0] = this.tournament[this.tournamentSize];
+            }
+            if (this.tournamentSize > 0) {
+                siftTournament(this.readers, this.tournament,
+                        this.tournamentSize, 0, this.machineOrder);
+            }
+        }
+        this.size--;
+
+        assert this.conventionHolds();
+        return removed;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine5aExternalIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine5aExternal}, which reads each run with entries
+     * left from its file in turn and then the buffer.
+     */
+    private final class SortingMachine5aExternalIterator
+            implements Iterator<T> {
+
+        /**
+         * Runs still to read.
+         */
+        private final List<Run> pending;
+
+        /**
+         * Number of entries to skip in each run of pending.
+         */
+        private final List<Integer> skips;
+
+        /**
+         * Reader of the current run, or null when reading the buffer.
+         */
+        private RunReader<T> current;
+
+        /**
+         * Index in buffer of the next entry to return, once the runs are
+         * done.
+         */
+        private int bufferIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine5aExternalIterator() {
+            SortingMachine5aExternal<T> sm = SortingMachine5aExternal.this;
+            this.pending = new ArrayList<Run>();
+            this.skips = new ArrayList<Integer>();
+            for (Run run : sm.runs) {
+                this.pending.add(run);
+                this.skips.add(0);
+            }
+            if (sm.readers != null) {
+                for (RunReader<T> reader : sm.readers) {
+                    if (reader.remaining > 0) {
+                        this.pending.add(reader.run);
+                        this.skips.add(reader.run.count - reader.remaining);
+                    }
+                }
+            }
+            this.bufferIndex = sm.first;
+            this.openNext();
+            assert SortingMachine5aExternal.this.conventionHolds();
+        }
+
+        /**
+         * Opens the next pending run, if any, as the current one.
+         */
+        private void openNext() {
+            this.current = null;
+            if (!this.pending.isEmpty()) {
+                this.current = new RunReader<T>(this.pending.remove(0),
+                        this.skips.remove(0),
+                        SortingMachine5aExternal.this.serializer);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != null || this.bufferIndex
+                    < SortingMachine5aExternal.this.bufferSize;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next;
+            if (this.current != null) {
+                next = this.current.head;
+                this.current.advance();
+                if (this.current.remaining == 0) {
+                    this.openNext();
+                }
+            } else {
+                next = SortingMachine5aExternal.this.buffer[this.bufferIndex];
+                this.bufferIndex++;
+            }
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
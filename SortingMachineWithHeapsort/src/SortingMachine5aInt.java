@@ -0,0 +1,302 @@
+import java.util.Arrays;
+
+/**
+ * Sorting machine for {@code int} keys in increasing order, with the same
+ * insertion-mode/extraction-mode contract as {@code SortingMachine}, but
+ * represented as a single growable {@code int[]} that is heapified in place,
+ * so keys are never boxed and no {@code Comparator} is called.
+ *
+ * <p>
+ * In insertion mode, {@code add} appends to the array, doubling it when it is
+ * full. {@code changeToExtractionMode} turns the filled prefix of the array
+ * into a heap bottom-up in linear time, and {@code removeFirst} swaps the
+ * smallest key out to the end of the heap and sifts the new root down.
+ * </p>
+ *
+ * @mathdefinitions <pre>
+ * IS_HEAP (
+ *   a: string of integer,
+ *   n: integer
+ *  ) : boolean is
+ *  for all i: integer where (0 < i  and  i < n)
+ *   (a[(i - 1) / 2] <= a[i])
+ * </pre>
+ * @convention <pre>
+ * 0 <= $this.size <= |$this.entries|  and
+ * if not $this.insertionMode then
+ *   IS_HEAP($this.entries, $this.size)
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, <=,
+ *         multiset_entries($this.entries[0, $this.size)))
+ * </pre>
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public class SortingMachine5aInt {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial length of the entries array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries, in positions [0, size); a heap in extraction mode.
+     */
+    private int[] entries;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Given an array that represents a complete binary tree and an index
+     * referring to the root of a subtree that would be a heap except for its
+     * root, sifts the root down to turn that whole subtree into a heap.
+     *
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param size
+     *            the number of entries in the heap
+     * @updates array
+     * @requires <pre>
+     * 0 <= top < size <= |array|  and
+     * [the subtrees rooted at 2 * top + 1 and 2 * top + 2, through entry
+     *  size - 1 of array, are heaps]
+     * </pre>
+     * @ensures <pre>
+     * [the subtree rooted at top, through entry size - 1 of array, is a heap
+     *  and holds the same entries as in #array]  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static void siftDown(int[] array, int top, int size) {
+        int x = array[top];
+        int i = top;
+        int child = 2 * i + 1;
+        while (child < size) {
+            if (child + 1 < size && array[child + 1] < array[child]) {
+                child++;
+            }
+            if (array[child] >= x) {
+                break;
+            }
+            array[i] = array[child];
+            i = child;
+            child = 2 * i + 1;
+        }
+        array[i] = x;
+    }
+
+    /**
+     * Turns {@code array[0, size)} into a heap.
+     *
+     * @param array
+     *            the complete binary tree
+     * @param size
+     *            the number of entries in the heap
+     * @updates array
+     * @requires 0 <= size <= |array|
+     * @ensures <pre>
+     * IS_HEAP(array, size)  and  perms(array[0, size), #array[0, size))  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static void heapify(int[] array, int size) {
+        for (int top = size / 2 - 1; top >= 0; top--) {
+            siftDown(array, top, size);
+        }
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.size <= |$this.entries|  and
+     * if not $this.insertionMode then
+     *   IS_HEAP($this.entries, $this.size)
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.size : "Violation of: 0 <= $this.size";
+        assert this.size <= this.entries.length : ""
+                + "Violation of: $this.size <= |$this.entries|";
+        if (!this.insertionMode) {
+            for (int i = 1; i < this.size; i++) {
+                assert this.entries[(i - 1) / 2] <= this.entries[i] : ""
+                        + "Violation of: if not $this.insertionMode then"
+                        + " IS_HEAP($this.entries, $this.size)";
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.insertionMode = true;
+        this.entries = new int[INITIAL_CAPACITY];
+        this.size = 0;
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public SortingMachine5aInt() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    /**
+     * Resets {@code this} to an initial value of its type.
+     *
+     * @clears this
+     */
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Sets {@code this} to the incoming value of {@code source}, and resets
+     * {@code source} to an initial value.
+     *
+     * @param source
+     *            object whose value is to be transferred
+     * @replaces this
+     * @clears source
+     * @requires source is not this
+     * @ensures this = #source
+     */
+    public final void transferFrom(SortingMachine5aInt source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+
+        this.insertionMode = source.insertionMode;
+        this.entries = source.entries;
+        this.size = source.size;
+        source.createNewRep();
+        assert this.conventionHolds();
+        assert source.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the contents of {@code this}.
+     *
+     * @param x
+     *            the element to be added
+     * @updates this.contents
+     * @requires this.insertion_mode
+     * @ensures this.contents = #this.contents union {x}
+     */
+    public final void add(int x) {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        if (this.size == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, 2 * this.size);
+        }
+        this.entries[this.size] = x;
+        this.size++;
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Changes the mode of {@code this} from insertion to extraction.
+     *
+     * @updates this.insertion_mode
+     * @requires this.insertion_mode
+     * @ensures not this.insertion_mode
+     */
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        this.insertionMode = false;
+        heapify(this.entries, this.size);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Removes and returns the smallest entry in {@code this}.
+     *
+     * @return the entry removed
+     * @updates this.contents
+     * @requires not this.insertion_mode and this.contents /= {}
+     * @ensures <pre>
+     * removeFirst is in #this.contents  and
+     * this.contents = #this.contents \ {removeFirst}  and
+     * for all x: integer where (x is in this.contents)
+     *   (removeFirst <= x)
+     * </pre>
+     */
+    public final int removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        int removed = this.entries[0];
+        this.size--;
+        this.entries[0] = this.entries[this.size];
+        this.entries[this.size] = removed;
+        if (this.size > 0) {
+            siftDown(this.entries, 0, this.size);
+        }
+
+        assert this.conventionHolds();
+        return removed;
+    }
+
+    /**
+     * Reports whether {@code this} is in insertion mode.
+     *
+     * @return true iff {@code this} is in insertion mode
+     * @ensures isInInsertionMode = this.insertion_mode
+     */
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    /**
+     * Reports the number of entries in {@code this}.
+     *
+     * @return the (multiset) size of {@code this.contents}
+     * @ensures size = |this.contents|
+     */
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size;
+    }
+
+}
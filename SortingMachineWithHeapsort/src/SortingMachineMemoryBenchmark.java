@@ -0,0 +1,132 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Comparator;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Measures the memory {@code SortingMachine5a} needs to sort a given number
+ * of keys: the heap retained after insertion mode and after
+ * {@code changeToExtractionMode}, and the peak heap use (summed over the heap
+ * memory pools) while the machine is filled and changes mode. The keys are
+ * allocated before measuring starts, so only the machine's own memory is
+ * counted. Run with a fixed heap size and assertion checking off; numbers
+ * are approximate, since they depend on when the collector runs.
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public final class SortingMachineMemoryBenchmark {
+
+    /**
+     * Default number of keys.
+     */
+    private static final int DEFAULT_KEYS = 5000000;
+
+    /**
+     * Bytes per mebibyte.
+     */
+    private static final double BYTES_PER_MIB = 1024.0 * 1024.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private SortingMachineMemoryBenchmark() {
+    }
+
+    /**
+     * Compare {@code Integer}s in increasing order.
+     */
+    private static final class IntegerLT implements Comparator<Integer> {
+
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return Integer.compare(o1, o2);
+        }
+
+    }
+
+    /**
+     * Runs the collector and reports the heap in use afterwards.
+     *
+     * @return the bytes of heap in use
+     */
+    private static long retainedBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Resets the peak usage of every heap memory pool.
+     */
+    private static void resetPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Reports the sum of the peak usage of every heap memory pool since the
+     * last {@code resetPeaks}.
+     *
+     * @return the bytes of peak heap use
+     */
+    private static long peakBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; optionally the number of keys
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        int n = DEFAULT_KEYS;
+        if (args.length > 0) {
+            n = Integer.parseInt(args[0]);
+        }
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = (i * 7919) % n;
+        }
+
+        long base = retainedBytes();
+        resetPeaks();
+        SortingMachine<Integer> sm = new SortingMachine5a<Integer>(
+                new IntegerLT());
+        for (int i = 0; i < n; i++) {
+            sm.add(keys[i]);
+        }
+        long afterAdd = retainedBytes() - base;
+        resetPeaks();
+        sm.changeToExtractionMode();
+        long peakChange = peakBytes() - base;
+        long afterChange = retainedBytes() - base;
+
+        out.println("keys " + n);
+        out.println("MiB after add\tMiB peak in change\tMiB after change");
+        out.println((afterAdd / BYTES_PER_MIB) + "\t"
+                + (peakChange / BYTES_PER_MIB) + "\t"
+                + (afterChange / BYTES_PER_MIB) + "\t" + sm.size());
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,125 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+import java.util.function.IntConsumer;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+
+/**
+ * JUnit test fixture filling {@code SortingMachine5aConcurrent} from several
+ * threads at once.
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public class SortingMachine5aConcurrentStressTest {
+
+    /**
+     * Number of threads in each test.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * Number of entries each thread adds.
+     */
+    private static final int PER_THREAD = 20000;
+
+    /**
+     * Compare {@code Integer}s in increasing order.
+     */
+    private static final class IntegerLT implements Comparator<Integer> {
+
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return Integer.compare(o1, o2);
+        }
+
+    }
+
+    /**
+     * Starts {@code THREADS} threads running {@code task} and waits for all of
+     * them to finish.
+     *
+     * @param task
+     *            the work of each thread, given the thread's number
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    private static void runInParallel(IntConsumer task)
+            throws InterruptedException {
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> task.accept(id));
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    @Test
+    public final void testInterleavedProducersMergeInOrder()
+            throws InterruptedException {
+        SortingMachine<Integer> sm = new SortingMachine5aConcurrent<Integer>(
+                new IntegerLT());
+        runInParallel(id -> {
+            for (int i = 0; i < PER_THREAD; i++) {
+                sm.add(i * THREADS + id);
+            }
+        });
+        assertEquals(THREADS * PER_THREAD, sm.size());
+        sm.changeToExtractionMode();
+        for (int i = 0; i < THREADS * PER_THREAD; i++) {
+            assertEquals(Integer.valueOf(i), sm.removeFirst());
+        }
+        assertEquals(0, sm.size());
+    }
+
+    @Test
+    public final void testDuplicatesAcrossProducers()
+            throws InterruptedException {
+        SortingMachine<Integer> sm = new SortingMachine5aConcurrent<Integer>(
+                new IntegerLT());
+        runInParallel(id -> {
+            for (int i = PER_THREAD - 1; i >= 0; i--) {
+                sm.add(i);
+            }
+        });
+        sm.changeToExtractionMode();
+        for (int i = 0; i < PER_THREAD; i++) {
+            for (int t = 0; t < THREADS; t++) {
+                assertEquals(Integer.valueOf(i), sm.removeFirst());
+            }
+        }
+        assertEquals(0, sm.size());
+    }
+
+    @Test
+    public final void testSomeProducersAddNothing()
+            throws InterruptedException {
+        SortingMachine<Integer> sm = new SortingMachine5aConcurrent<Integer>(
+                new IntegerLT());
+        runInParallel(id -> {
+            if (id % 2 == 0) {
+                for (int i = 0; i < PER_THREAD; i++) {
+                    sm.add(PER_THREAD - i);
+                }
+            } else {
+                sm.size();
+            }
+        });
+        sm.changeToExtractionMode();
+        assertEquals((THREADS / 2) * PER_THREAD, sm.size());
+        int previous = Integer.MIN_VALUE;
+        while (sm.size() > 0) {
+            int x = sm.removeFirst();
+            assertEquals(true, previous <= x);
+            previous = x;
+        }
+    }
+
+}
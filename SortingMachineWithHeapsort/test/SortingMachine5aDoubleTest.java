@@ -0,0 +1,154 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code SortingMachine5aDouble}.
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public final class SortingMachine5aDoubleTest {
+
+    /**
+     * Seed for the random keys, so failures can be reproduced.
+     */
+    private static final long SEED = 12345;
+
+    /**
+     * Number of random keys, enough for the entries array to grow.
+     */
+    private static final int RANDOM_KEYS = 1000;
+
+    /**
+     * Creates and returns a {@code SortingMachine5aDouble} with the given entries
+     * and mode.
+     *
+     * @param insertionMode
+     *            flag indicating the machine mode
+     * @param args
+     *            the entries for the machine
+     * @return the constructed machine
+     * @ensures createFromArgs = (insertionMode, <=, [multiset of args])
+     */
+    private static SortingMachine5aDouble createFromArgs(boolean insertionMode,
+            double... args) {
+        SortingMachine5aDouble sm = new SortingMachine5aDouble();
+        for (double x : args) {
+            sm.add(x);
+        }
+        if (!insertionMode) {
+            sm.changeToExtractionMode();
+        }
+        return sm;
+    }
+
+    /**
+     * Removes all entries of {@code sm} and returns them in the order removed.
+     *
+     * @param sm
+     *            the machine to drain
+     * @return the entries of sm, in the order removeFirst returned them
+     * @updates sm
+     * @requires not sm.insertion_mode
+     * @ensures sm.contents = {}
+     */
+    private static double[] drain(SortingMachine5aDouble sm) {
+        double[] removed = new double[sm.size()];
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = sm.removeFirst();
+        }
+        return removed;
+    }
+
+    @Test
+    public void testConstructor() {
+        SortingMachine5aDouble sm = new SortingMachine5aDouble();
+        assertEquals(true, sm.isInInsertionMode());
+        assertEquals(0, sm.size());
+    }
+
+    @Test
+    public void testAddSize() {
+        SortingMachine5aDouble sm = createFromArgs(true, 3, 1, 2);
+        sm.add(0);
+        assertEquals(true, sm.isInInsertionMode());
+        assertEquals(4, sm.size());
+    }
+
+    @Test
+    public void testChangeToExtractionModeEmpty() {
+        SortingMachine5aDouble sm = createFromArgs(true);
+        sm.changeToExtractionMode();
+        assertEquals(false, sm.isInInsertionMode());
+        assertEquals(0, sm.size());
+    }
+
+    @Test
+    public void testRemoveFirstOne() {
+        SortingMachine5aDouble sm = createFromArgs(false, 7);
+        assertEquals(7.0, sm.removeFirst(), 0.0);
+        assertEquals(0, sm.size());
+    }
+
+    @Test
+    public void testRemoveFirstDuplicatesAndNegatives() {
+        SortingMachine5aDouble sm = createFromArgs(false, 5.5, -2, 5.5,
+                Double.NEGATIVE_INFINITY, 0, Double.MAX_VALUE, -2);
+        assertArrayEquals(new double[] { Double.NEGATIVE_INFINITY, -2, -2, 0,
+                5.5, 5.5, Double.MAX_VALUE }, drain(sm), 0.0);
+    }
+
+    @Test
+    public void testRemoveFirstSignedZeroAndNaN() {
+        SortingMachine5aDouble sm = createFromArgs(false, Double.NaN, 0.0, 1,
+                -0.0, Double.POSITIVE_INFINITY);
+        double[] removed = drain(sm);
+        assertEquals(Double.doubleToRawLongBits(-0.0),
+                Double.doubleToRawLongBits(removed[0]));
+        assertEquals(Double.doubleToRawLongBits(0.0),
+                Double.doubleToRawLongBits(removed[1]));
+        assertEquals(1.0, removed[2], 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, removed[3], 0.0);
+        assertEquals(true, Double.isNaN(removed[4]));
+    }
+
+    @Test
+    public void testRemoveFirstRandom() {
+        Random random = new Random(SEED);
+        double[] keys = new double[RANDOM_KEYS];
+        SortingMachine5aDouble sm = new SortingMachine5aDouble();
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextGaussian();
+            sm.add(keys[i]);
+        }
+        sm.changeToExtractionMode();
+        Arrays.sort(keys);
+        assertArrayEquals(keys, drain(sm), 0.0);
+    }
+
+    @Test
+    public void testClear() {
+        SortingMachine5aDouble sm = createFromArgs(false, 1, 2);
+        sm.clear();
+        assertEquals(true, sm.isInInsertionMode());
+        assertEquals(0, sm.size());
+    }
+
+    @Test
+    public void testTransferFrom() {
+        SortingMachine5aDouble sm = new SortingMachine5aDouble();
+        SortingMachine5aDouble source = createFromArgs(false, 2, 1);
+        sm.transferFrom(source);
+        assertEquals(true, source.isInInsertionMode());
+        assertEquals(0, source.size());
+        assertEquals(false, sm.isInInsertionMode());
+        assertArrayEquals(new double[] { 1, 2 }, drain(sm), 0.0);
+    }
+
+}
@@ -0,0 +1,225 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+
+/**
+ * JUnit test fixture for {@code SortingMachine5aExternal} spilling runs to a
+ * temporary directory of its own.
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public final class SortingMachine5aExternalSpillTest {
+
+    /**
+     * Seed for the random keys, so failures can be reproduced.
+     */
+    private static final long SEED = 31337;
+
+    /**
+     * Number of random keys; with a run length of 4 this is more runs than
+     * are merged at once, so runs are merged before extraction.
+     */
+    private static final int RANDOM_KEYS = 2000;
+
+    /**
+     * Compare {@code Integer}s in increasing order.
+     */
+    private static final class IntegerLT implements Comparator<Integer> {
+
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return Integer.compare(o1, o2);
+        }
+
+    }
+
+    /**
+     * Creates a new, empty temporary directory.
+     *
+     * @return the directory
+     * @throws IOException
+     *             if the directory cannot be created
+     */
+    private static File newDirectory() throws IOException {
+        return Files.createTempDirectory("sortingmachinetest").toFile();
+    }
+
+    /**
+     * Reports the number of files in {@code directory}.
+     *
+     * @param directory
+     *            the directory
+     * @return the number of files in directory
+     */
+    private static int fileCount(File directory) {
+        return directory.list().length;
+    }
+
+    /**
+     * Creates and returns a {@code SortingMachine5aExternal} of
+     * {@code Integer}s with the given run length and directory, with the
+     * given entries added.
+     *
+     * @param runLength
+     *            largest number of entries held in memory
+     * @param directory
+     *            directory for run files
+     * @param args
+     *            the entries to add
+     * @return the constructed machine, in insertion mode
+     */
+    private static SortingMachine<Integer> createFromArgs(int runLength,
+            File directory, int... args) {
+        SortingMachine<Integer> sm = new SortingMachine5aExternal<Integer>(
+                new IntegerLT(),
+                new SortingMachine5aExternal.IntegerSerializer(), runLength,
+                directory);
+        for (int x : args) {
+            sm.add(x);
+        }
+        return sm;
+    }
+
+    /**
+     * Removes all entries of {@code sm} and returns them in the order removed.
+     *
+     * @param sm
+     *            the machine to drain
+     * @return the entries of sm, in the order removeFirst returned them
+     * @updates sm
+     * @requires not sm.insertion_mode
+     * @ensures sm.contents = {}
+     */
+    private static int[] drain(SortingMachine<Integer> sm) {
+        int[] removed = new int[sm.size()];
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = sm.removeFirst();
+        }
+        return removed;
+    }
+
+    @Test
+    public void testNoSpillBelowRunLength() throws IOException {
+        File directory = newDirectory();
+        SortingMachine<Integer> sm = createFromArgs(4, directory, 3, 1, 4, 2);
+        assertEquals(0, fileCount(directory));
+        sm.changeToExtractionMode();
+        assertEquals(0, fileCount(directory));
+        assertArrayEquals(new int[] { 1, 2, 3, 4 }, drain(sm));
+        assertTrue(directory.delete());
+    }
+
+    @Test
+    public void testSpillsFullRuns() throws IOException {
+        File directory = newDirectory();
+        SortingMachine<Integer> sm = createFromArgs(2, directory, 5, 3, 1, 4,
+                2);
+        assertEquals(2, fileCount(directory));
+        assertEquals(5, sm.size());
+        sm.changeToExtractionMode();
+        assertEquals(3, fileCount(directory));
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, drain(sm));
+        assertEquals(0, fileCount(directory));
+        assertTrue(directory.delete());
+    }
+
+    @Test
+    public void testRandomMatchesSortWithMergePasses() throws IOException {
+        File directory = newDirectory();
+        Random random = new Random(SEED);
+        int[] keys = new int[RANDOM_KEYS];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt();
+        }
+        SortingMachine<Integer> sm = createFromArgs(4, directory, keys);
+        sm.changeToExtractionMode();
+        int[] expected = keys.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, drain(sm));
+        assertEquals(0, fileCount(directory));
+        assertTrue(directory.delete());
+    }
+
+    @Test
+    public void testIteratorAfterPartialRemove() throws IOException {
+        File directory = newDirectory();
+        SortingMachine<Integer> sm = createFromArgs(2, directory, 6, 2, 5, 1,
+                4, 3);
+        sm.changeToExtractionMode();
+        sm.removeFirst();
+        sm.removeFirst();
+        int[] seen = new int[sm.size()];
+        int i = 0;
+        for (int x : sm) {
+            seen[i] = x;
+            i++;
+        }
+        Arrays.sort(seen);
+        assertArrayEquals(new int[] { 3, 4, 5, 6 }, seen);
+        assertArrayEquals(new int[] { 3, 4, 5, 6 }, drain(sm));
+        assertTrue(directory.delete());
+    }
+
+    @Test
+    public void testClearDeletesRuns() throws IOException {
+        File directory = newDirectory();
+        SortingMachine<Integer> sm = createFromArgs(2, directory, 5, 3, 1, 4,
+                2);
+        sm.clear();
+        assertEquals(0, fileCount(directory));
+        sm = createFromArgs(2, directory, 5, 3, 1, 4, 2);
+        sm.changeToExtractionMode();
+        sm.removeFirst();
+        sm.clear();
+        assertEquals(0, fileCount(directory));
+        assertTrue(directory.delete());
+    }
+
+    @Test
+    public void testTransferFromMovesRuns() throws IOException {
+        File directory = newDirectory();
+        SortingMachine<Integer> source = createFromArgs(2, directory, 5, 3, 1,
+                4, 2);
+        SortingMachine<Integer> sm = createFromArgs(2, directory, 9, 8, 7);
+        sm.transferFrom(source);
+        assertEquals(2, fileCount(directory));
+        assertEquals(0, source.size());
+        sm.changeToExtractionMode();
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, drain(sm));
+        assertEquals(0, fileCount(directory));
+        assertTrue(directory.delete());
+    }
+
+    @Test
+    public void testStringSerializerRoundTrip() throws IOException {
+        File directory = newDirectory();
+        SortingMachine<String> sm = new SortingMachine5aExternal<String>(
+                Comparator.naturalOrder(),
+                new SortingMachine5aExternal.StringSerializer(), 1, directory);
+        sm.add("\u00e9t\u00e9");
+        sm.add("");
+        sm.add("b");
+        sm.add("a\nb");
+        sm.changeToExtractionMode();
+        assertEquals("", sm.removeFirst());
+        assertEquals("a\nb", sm.removeFirst());
+        assertEquals("b", sm.removeFirst());
+        assertEquals("\u00e9t\u00e9", sm.removeFirst());
+        assertEquals(0, fileCount(directory));
+        assertTrue(directory.delete());
+    }
+
+}
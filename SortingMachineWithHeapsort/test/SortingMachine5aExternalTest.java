@@ -0,0 +1,68 @@
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+
+import org.junit.After;
+import org.junit.Before;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5aExternal} holding
+ * so few entries in memory that most tests spill runs to disk, in a temporary
+ * directory of each test's own that is deleted after the test along with the
+ * runs of the machines it left undrained.
+ */
+public final class SortingMachine5aExternalTest extends SortingMachineTest {
+
+    /**
+     * Largest number of entries held in memory.
+     */
+    private static final int RUN_LENGTH = 2;
+
+    /**
+     * Directory for the run files of the current test.
+     */
+    private File directory;
+
+    /**
+     * Creates the directory for the run files of the next test.
+     *
+     * @throws IOException
+     *             if the directory cannot be created
+     */
+    @Before
+    public void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("sortingmachinetest")
+                .toFile();
+    }
+
+    /**
+     * Deletes the directory for the run files of the last test, and the run
+     * files in it.
+     */
+    @After
+    public void deleteDirectory() {
+        for (File file : this.directory.listFiles()) {
+            assertTrue(file.delete());
+        }
+        assertTrue(this.directory.delete());
+    }
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5aExternal<String>(order,
+                new SortingMachine5aExternal.StringSerializer(), RUN_LENGTH,
+                this.directory);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+}
@@ -0,0 +1,140 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code SortingMachine5aLong}.
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public final class SortingMachine5aLongTest {
+
+    /**
+     * Seed for the random keys, so failures can be reproduced.
+     */
+    private static final long SEED = 12345;
+
+    /**
+     * Number of random keys, enough for the entries array to grow.
+     */
+    private static final int RANDOM_KEYS = 1000;
+
+    /**
+     * Creates and returns a {@code SortingMachine5aLong} with the given entries
+     * and mode.
+     *
+     * @param insertionMode
+     *            flag indicating the machine mode
+     * @param args
+     *            the entries for the machine
+     * @return the constructed machine
+     * @ensures createFromArgs = (insertionMode, <=, [multiset of args])
+     */
+    private static SortingMachine5aLong createFromArgs(boolean insertionMode,
+            long... args) {
+        SortingMachine5aLong sm = new SortingMachine5aLong();
+        for (long x : args) {
+            sm.add(x);
+        }
+        if (!insertionMode) {
+            sm.changeToExtractionMode();
+        }
+        return sm;
+    }
+
+    /**
+     * Removes all entries of {@code sm} and returns them in the order removed.
+     *
+     * @param sm
+     *            the machine to drain
+     * @return the entries of sm, in the order removeFirst returned them
+     * @updates sm
+     * @requires not sm.insertion_mode
+     * @ensures sm.contents = {}
+     */
+    private static long[] drain(SortingMachine5aLong sm) {
+        long[] removed = new long[sm.size()];
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = sm.removeFirst();
+        }
+        return removed;
+    }
+
+    @Test
+    public void testConstructor() {
+        SortingMachine5aLong sm = new SortingMachine5aLong();
+        assertEquals(true, sm.isInInsertionMode());
+        assertEquals(0, sm.size());
+    }
+
+    @Test
+    public void testAddSize() {
+        SortingMachine5aLong sm = createFromArgs(true, 3, 1, 2);
+        sm.add(0);
+        assertEquals(true, sm.isInInsertionMode());
+        assertEquals(4, sm.size());
+    }
+
+    @Test
+    public void testChangeToExtractionModeEmpty() {
+        SortingMachine5aLong sm = createFromArgs(true);
+        sm.changeToExtractionMode();
+        assertEquals(false, sm.isInInsertionMode());
+        assertEquals(0, sm.size());
+    }
+
+    @Test
+    public void testRemoveFirstOne() {
+        SortingMachine5aLong sm = createFromArgs(false, 7);
+        assertEquals(7L, sm.removeFirst());
+        assertEquals(0, sm.size());
+    }
+
+    @Test
+    public void testRemoveFirstDuplicatesAndNegatives() {
+        SortingMachine5aLong sm = createFromArgs(false, 5, -2, 5,
+                Long.MIN_VALUE, 0, Long.MAX_VALUE, -2);
+        assertArrayEquals(new long[] { Long.MIN_VALUE, -2, -2, 0, 5, 5,
+                Long.MAX_VALUE }, drain(sm));
+    }
+
+    @Test
+    public void testRemoveFirstRandom() {
+        Random random = new Random(SEED);
+        long[] keys = new long[RANDOM_KEYS];
+        SortingMachine5aLong sm = new SortingMachine5aLong();
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+            sm.add(keys[i]);
+        }
+        sm.changeToExtractionMode();
+        Arrays.sort(keys);
+        assertArrayEquals(keys, drain(sm));
+    }
+
+    @Test
+    public void testClear() {
+        SortingMachine5aLong sm = createFromArgs(false, 1, 2);
+        sm.clear();
+        assertEquals(true, sm.isInInsertionMode());
+        assertEquals(0, sm.size());
+    }
+
+    @Test
+    public void testTransferFrom() {
+        SortingMachine5aLong sm = new SortingMachine5aLong();
+        SortingMachine5aLong source = createFromArgs(false, 2, 1);
+        sm.transferFrom(source);
+        assertEquals(true, source.isInInsertionMode());
+        assertEquals(0, source.size());
+        assertEquals(false, sm.isInInsertionMode());
+        assertArrayEquals(new long[] { 1, 2 }, drain(sm));
+    }
+
+}
@@ -0,0 +1,208 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+
+/**
+ * JUnit test fixture for {@code SortingMachine5aTopK} once more entries are
+ * added than it keeps.
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public final class SortingMachine5aTopKBoundTest {
+
+    /**
+     * Seed for the random keys, so failures can be reproduced.
+     */
+    private static final long SEED = 4242;
+
+    /**
+     * Number of random keys, far more than the bound.
+     */
+    private static final int RANDOM_KEYS = 5000;
+
+    /**
+     * Compare {@code Integer}s in increasing order.
+     */
+    private static final class IntegerLT implements Comparator<Integer> {
+
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return Integer.compare(o1, o2);
+        }
+
+    }
+
+    /**
+     * Compare {@code Integer}s in decreasing order.
+     */
+    private static final class IntegerGT implements Comparator<Integer> {
+
+        @Override
+        public int compare(Integer o1, Integer o2) {
+            return Integer.compare(o2, o1);
+        }
+
+    }
+
+    /**
+     * Creates and returns a {@code SortingMachine5aTopK} with the given order
+     * and bound, in extraction mode after adding the given entries.
+     *
+     * @param order
+     *            the order of the machine
+     * @param k
+     *            the bound of the machine
+     * @param args
+     *            the entries to add
+     * @return the constructed machine
+     */
+    private static SortingMachine<Integer> createFromArgs(
+            Comparator<Integer> order, int k, int... args) {
+        SortingMachine<Integer> sm = new SortingMachine5aTopK<Integer>(order,
+                k);
+        for (int x : args) {
+            sm.add(x);
+        }
+        sm.changeToExtractionMode();
+        return sm;
+    }
+
+    /**
+     * Removes all entries of {@code sm} and returns them in the order removed.
+     *
+     * @param sm
+     *            the machine to drain
+     * @return the entries of sm, in the order removeFirst returned them
+     * @updates sm
+     * @requires not sm.insertion_mode
+     * @ensures sm.contents = {}
+     */
+    private static int[] drain(SortingMachine<Integer> sm) {
+        int[] removed = new int[sm.size()];
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = sm.removeFirst();
+        }
+        return removed;
+    }
+
+    @Test
+    public void testAddPastBoundKeepsSize() {
+        SortingMachine<Integer> sm = new SortingMachine5aTopK<Integer>(
+                new IntegerLT(), 3);
+        sm.add(5);
+        sm.add(1);
+        sm.add(4);
+        assertEquals(3, sm.size());
+        sm.add(2);
+        sm.add(9);
+        assertEquals(3, sm.size());
+        assertEquals(true, sm.isInInsertionMode());
+    }
+
+    @Test
+    public void testKeepsSmallest() {
+        SortingMachine<Integer> sm = createFromArgs(new IntegerLT(), 3, 5, 1,
+                4, 2, 9, 3);
+        assertArrayEquals(new int[] { 1, 2, 3 }, drain(sm));
+    }
+
+    @Test
+    public void testKeepsLargestWithReversedOrder() {
+        SortingMachine<Integer> sm = createFromArgs(new IntegerGT(), 2, 5, 1,
+                4, 2, 9, 3);
+        assertArrayEquals(new int[] { 9, 5 }, drain(sm));
+    }
+
+    @Test
+    public void testBoundOne() {
+        SortingMachine<Integer> sm = createFromArgs(new IntegerLT(), 1, 7, 3,
+                8, 3, 6);
+        assertArrayEquals(new int[] { 3 }, drain(sm));
+    }
+
+    @Test
+    public void testDuplicatesAtBound() {
+        SortingMachine<Integer> sm = createFromArgs(new IntegerLT(), 4, 2, 2,
+                2, 1, 2, 2);
+        assertArrayEquals(new int[] { 1, 2, 2, 2 }, drain(sm));
+    }
+
+    @Test
+    public void testFewerThanBound() {
+        SortingMachine<Integer> sm = createFromArgs(new IntegerLT(), 100, 3,
+                1, 2);
+        assertArrayEquals(new int[] { 1, 2, 3 }, drain(sm));
+    }
+
+    @Test
+    public void testRandomMatchesSortedPrefix() {
+        Random random = new Random(SEED);
+        int[] keys = new int[RANDOM_KEYS];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(RANDOM_KEYS);
+        }
+        int[] expected = keys.clone();
+        Arrays.sort(expected);
+        for (int k : new int[] { 1, 15, 16, 17, 100, RANDOM_KEYS }) {
+            SortingMachine<Integer> sm = createFromArgs(new IntegerLT(), k,
+                    keys);
+            assertArrayEquals(Arrays.copyOf(expected, k), drain(sm));
+        }
+    }
+
+    @Test
+    public void testNewInstanceKeepsBound() {
+        SortingMachine<Integer> sm = new SortingMachine5aTopK<Integer>(
+                new IntegerLT(), 2);
+        SortingMachine<Integer> fresh = sm.newInstance();
+        fresh.add(3);
+        fresh.add(1);
+        fresh.add(2);
+        fresh.changeToExtractionMode();
+        assertArrayEquals(new int[] { 1, 2 }, drain(fresh));
+    }
+
+    @Test
+    public void testTransferFromKeepsBound() {
+        SortingMachine<Integer> sm = new SortingMachine5aTopK<Integer>(
+                new IntegerLT(), 2);
+        SortingMachine<Integer> source = new SortingMachine5aTopK<Integer>(
+                new IntegerLT(), 2);
+        source.add(4);
+        sm.transferFrom(source);
+        assertEquals(0, source.size());
+        source.add(3);
+        source.add(1);
+        source.add(2);
+        assertEquals(2, source.size());
+        sm.add(5);
+        sm.add(6);
+        sm.changeToExtractionMode();
+        assertArrayEquals(new int[] { 4, 5 }, drain(sm));
+    }
+
+    @Test
+    public void testIteratorAfterRemove() {
+        SortingMachine<Integer> sm = createFromArgs(new IntegerLT(), 3, 5, 1,
+                4, 2);
+        sm.removeFirst();
+        int count = 0;
+        int sum = 0;
+        for (int x : sm) {
+            count++;
+            sum += x;
+        }
+        assertEquals(2, count);
+        assertEquals(2 + 4, sum);
+    }
+
+}
@@ -0,0 +1,27 @@
+import java.util.Comparator;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5aTopK} with a bound
+ * no test reaches.
+ */
+public final class SortingMachine5aTopKTest extends SortingMachineTest {
+
+    /**
+     * Bound larger than the number of entries in any test.
+     */
+    private static final int BOUND = 1000;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5aTopK<String>(order, BOUND);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+}
@@ -0,0 +1,490 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} that keeps only the first {@code k} entries in its
+ * order, represented as a bounded array that is a heap in insertion mode and
+ * sorted in extraction mode, with implementations of primary methods.
+ *
+ * <p>
+ * In insertion mode the array is a heap with the <i>last</i> kept entry (in
+ * the machine's order) at its root, and holds at most {@code k} entries. Once
+ * it is full, {@code add} compares each new entry with that root: an entry
+ * that comes before the root replaces it and is sifted down, and any other
+ * entry is dropped. So insertion takes O(log k) time and the machine uses
+ * O(k) memory no matter how many entries are added.
+ * {@code changeToExtractionMode} heapsorts the kept entries in place, and
+ * {@code removeFirst} then just takes them from the front of the array.
+ * </p>
+ *
+ * <p>
+ * This is the same as a {@code SortingMachine} from which only the first
+ * {@code k} entries will ever be removed: {@code this.contents} holds only
+ * the kept entries, so {@code size} is never more than {@code k}. When
+ * several entries tie for the last place, which of them are kept is not
+ * specified.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * IS_HEAP (
+ *   a: string of T,
+ *   n: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all i: integer where (0 < i  and  i < n)
+ *   (r(a[i], a[(i - 1) / 2]))
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * 0 < $this.bound  and
+ * 0 <= $this.first <= $this.heapSize <= |$this.heap| <= $this.bound  and
+ * for all i: integer
+ *     where ($this.first <= i  and  i < $this.heapSize)
+ *   ([entry at position i in $this.heap is not null])  and
+ * if $this.insertionMode then
+ *   $this.first = 0  and
+ *   IS_HEAP($this.heap, $this.heapSize,
+ *     [relation computed by $this.machineOrder.compare method])
+ * else
+ *   [$this.heap[$this.first, $this.heapSize) is sorted by the relation
+ *    computed by $this.machineOrder.compare method]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.heap[$this.first, $this.heapSize)))
+ * </pre>
+ *
+ * @author Nabeu Habetalsassa
+ * @author Jay Jones
+ *
+ */
+public class SortingMachine5aTopK<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial length of the heap array, if the bound is larger.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Largest number of entries kept.
+     */
+    private int bound;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries, in positions [first, heapSize); a heap with the last entry at
+     * the root in insertion mode, and sorted in extraction mode.
+     */
+    private T[] heap;
+
+    /**
+     * Index of the next entry to remove, in extraction mode.
+     */
+    private int first;
+
+    /**
+     * Heap size.
+     */
+    private int heapSize;
+
+    /**
+     * Given an array that represents a complete binary tree and an index
+     * referring to the root of a subtree that would be a heap (with the last
+     * entry in {@code order} at the root) except for its root, sifts the root
+     * down to turn that whole subtree into a heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param size
+     *            the number of entries in the heap
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= top < size <= |array|  and
+     * [the subtrees rooted at 2 * top + 1 and 2 * top + 2, through entry
+     *  size - 1 of array, are heaps]
+     * </pre>
+     * @ensures <pre>
+     * [the subtree rooted at top, through entry size - 1 of array, is a heap
+     *  and holds the same entries as in #array]  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> void siftDown(T[] array, int top, int size,
+            Comparator<T> order) {
+        T x = array[top];
+        int hole = top;
+        int child = 2 * hole + 1;
+        while (child < size) {
+            if (child + 1 < size
+                    && order.compare(array[child + 1], array[child]) > 0) {
+                child++;
+            }
+            if (order.compare(array[child], x) <= 0) {
+                break;
+            }
+            array[hole] = array[child];
+            hole = child;
+            child = 2 * hole + 1;
+        }
+        array[hole] = x;
+    }
+
+    /**
+     * Given an array that represents a complete binary tree whose first
+     * {@code last} entries are a heap (with the last entry in {@code order} at
+     * the root), sifts the entry at index {@code last} up so that the first
+     * {@code last + 1} entries are a heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete binary tree
+     * @param last
+     *            the index of the entry to sift up
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= last < |array|  and
+     * IS_HEAP(array, last, [relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * IS_HEAP(array, last + 1, [relation computed by order.compare method])
+     * and  perms(array[0, last + 1), #array[0, last + 1))  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static <T> void siftUp(T[] array, int last, Comparator<T> order) {
+        T x = array[last];
+        int hole = last;
+        while (hole > 0 && order.compare(x, array[(hole - 1) / 2]) > 0) {
+            array[hole] = array[(hole - 1) / 2];
+            hole = (hole - 1) / 2;
+        }
+        array[hole] = x;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 < $this.bound  and
+     * 0 <= $this.first <= $this.heapSize <= |$this.heap| <= $this.bound  and
+     * for all i: integer
+     *     where ($this.first <= i  and  i < $this.heapSize)
+     *   ([entry at position i in $this.heap is not null])  and
+     * if $this.insertionMode then
+     *   $this.first = 0  and
+     *   IS_HEAP($this.heap, $this.heapSize,
+     *     [relation computed by $this.machineOrder.compare method])
+     * else
+     *   [$this.heap[$this.first, $this.heapSize) is sorted by the relation
+     *    computed by $this.machineOrder.compare method]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 < this.bound : "Violation of: 0 < $this.bound";
+        assert 0 <= this.first : "Violation of: 0 <= $this.first";
+        assert this.first <= this.heapSize : ""
+                + "Violation of: $this.first <= $this.heapSize";
+        assert this.heapSize <= this.heap.length : ""
+                + "Violation of: $this.heapSize <= |$this.heap|";
+        assert this.heap.length <= this.bound : ""
+                + "Violation of: |$this.heap| <= $this.bound";
+        for (int i = this.first; i < this.heapSize; i++) {
+            assert this.heap[i] != null : ""
+                    + "Violation of: [entry at position i in $this.heap is"
+                    + " not null]";
+        }
+        if (this.insertionMode) {
+            assert this.first == 0 : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " $this.first = 0";
+            for (int i = 1; i < this.heapSize; i++) {
+                assert this.machineOrder.compare(this.heap[i],
+                        this.heap[(i - 1) / 2]) <= 0 : ""
+                                + "Violation of: if $this.insertionMode then"
+                                + " IS_HEAP($this.heap, $this.heapSize,"
+                                + " [relation computed by"
+                                + " $this.machineOrder.compare method])";
+            }
+        } else {
+            for (int i = this.first + 1; i < this.heapSize; i++) {
+                assert this.machineOrder.compare(this.heap[i - 1],
+                        this.heap[i]) <= 0 : ""
+                                + "Violation of: if not $this.insertionMode"
+                                + " then [$this.heap[$this.first,"
+                                + " $this.heapSize) is sorted]";
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param k
+     *            largest number of entries kept
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method]  and
+     * k > 0
+     * </pre>
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.bound = k  and
+     * $this.first = 0  and
+     * $this.heapSize = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order, int k) {
+
+        this.insertionMode = true;
+        this.machineOrder = order;
+        this.bound = k;
+        this.heap = (T[]) (new Object[Math.min(k, INITIAL_CAPACITY)]);
+        this.first = 0;
+        this.heapSize = 0;
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order and bound.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param k
+     *            largest number of entries kept
+     * @requires k > 0
+     */
+    public SortingMachine5aTopK(Comparator<T> order, int k) {
+        assert order != null : "Violation of: order is not null";
+        assert k > 0 : "Violation of: k > 0";
+        this.createNewRep(order, k);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(Comparator.class, int.class)
+                    .newInstance(this.machineOrder, this.bound);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder, this.bound);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine5aTopK<?> : ""
+                + "Violation of: source is of dynamic type"
+                + " SortingMachine5aTopK<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine5aTopK<?>, and the ? must be T or the call would not
+         * have compiled.
+         */
+        SortingMachine5aTopK<T> localSource = (SortingMachine5aTopK<T>) source;
+        this.insertionMode = localSource.insertionMode;
+        this.machineOrder = localSource.machineOrder;
+        this.bound = localSource.bound;
+        this.heap = localSource.heap;
+        this.first = localSource.first;
+        this.heapSize = localSource.heapSize;
+        localSource.createNewRep(localSource.machineOrder, localSource.bound);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        if (this.heapSize < this.bound) {
+            if (this.heapSize == this.heap.length) {
+                this.heap = Arrays.copyOf(this.heap,
+                        (int) Math.min(2L * this.heapSize, this.bound));
+            }
+            this.heap[this.heapSize] = x;
+            siftUp(this.heap, this.heapSize, this.machineOrder);
+            this.heapSize++;
+        } else if (this.machineOrder.compare(x, this.heap[0]) < 0) {
+            this.heap[0] = x;
+            siftDown(this.heap, 0, this.heapSize, this.machineOrder);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        this.insertionMode = false;
+        /*
+         * The root is the last kept entry, so swapping it to the end of the
+         * shrinking heap leaves the array sorted.
+         */
+        for (int last = this.heapSize - 1; last > 0; last--) {
+            T root = this.heap[0];
+            this.heap[0] = this.heap[last];
+            this.heap[last] = root;
+            siftDown(this.heap, 0, last, this.machineOrder);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        T removed = this.heap[this.first];
+        this.heap[this.first] = null;
+        this.first++;
+
+        assert this.conventionHolds();
+        return removed;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.heapSize - this.first;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine5aTopKIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code SortingMachine5aTopK}.
+     */
+    private final class SortingMachine5aTopKIterator implements Iterator<T> {
+
+        /**
+         * Representation iterator count.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine5aTopKIterator() {
+            this.arrayCurrentIndex = SortingMachine5aTopK.this.first;
+            assert SortingMachine5aTopK.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = this.arrayCurrentIndex
+                    < SortingMachine5aTopK.this.heapSize;
+            assert SortingMachine5aTopK.this.conventionHolds();
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = SortingMachine5aTopK.this.heap[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
+            assert SortingMachine5aTopK.this.conventionHolds();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
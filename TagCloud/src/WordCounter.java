@@ -144,7 +144,8 @@ public final class WordCounter {
     }
 
     /**
-     * Updates the map and returns a queue of all words in alphabetical order.
+     * Updates the map and returns a sorting machine of the {@code number}
+     * most frequent words, most frequent first.
      *
      * @param inFile
      *            name of input file
@@ -152,18 +153,19 @@ public final class WordCounter {
      *            name of output file
      * @param table
      *            Map of words and number of occurrences
+     * @param number
+     *            The number of words to keep
      *
-     * @return a queue of all words in alphabetical order
+     * @return a sorting machine of the most frequent words
      *
      */
     private static SortingMachine<Map.Pair<String, Integer>> createMap(
-            String inFile, String outFile, Map<String, Integer> table) {
+            String inFile, String outFile, Map<String, Integer> table,
+            int number) {
 
-        //creates simple reader for file, queue for words, and comparator for order
+        //creates simple reader for file and comparator for order
         SimpleReader fileIn = new SimpleReader1L(inFile);
         Comparator<Map.Pair<String, Integer>> size = new Occurances();
-        SortingMachine<Map.Pair<String, Integer>> sm1 = new SortingMachine1L<Map.Pair<String, Integer>>(
-                size);
 
         //creates set of separators
         Set<Character> separators = new Set1L<Character>();
@@ -197,8 +199,17 @@ public final class WordCounter {
             }
         }
 
-        for (Map.Pair<String, Integer> pair : table) {
-            sm1.add(pair);
+        //keeps only the number most frequent words, or none at all if
+        //number is not positive
+        SortingMachine<Map.Pair<String, Integer>> sm1;
+        if (number > 0) {
+            sm1 = new SortingMachine5aTopK<Map.Pair<String, Integer>>(size,
+                    number);
+            for (Map.Pair<String, Integer> pair : table) {
+                sm1.add(pair);
+            }
+        } else {
+            sm1 = new SortingMachine1L<Map.Pair<String, Integer>>(size);
         }
         sm1.changeToExtractionMode();
         fileIn.close();
@@ -213,13 +224,11 @@ public final class WordCounter {
      * @param outFile
      *            name of output file
      * @param sm1
-     *            Sorting machine ordered by occurance
-     * @param number
-     *            The number of words to use
+     *            Sorting machine of the words to use, ordered by occurance
      *
      */
     private static void htmlPage(String inFile, String outFile,
-            SortingMachine<Map.Pair<String, Integer>> sm1, int number) {
+            SortingMachine<Map.Pair<String, Integer>> sm1) {
 
         Comparator<Map.Pair<String, Integer>> alph = new Alphabetical();
         SortingMachine<Map.Pair<String, Integer>> sm2 = new SortingMachine1L<Map.Pair<String, Integer>>(
@@ -227,7 +236,7 @@ public final class WordCounter {
 
         int minCount = Integer.MAX_VALUE;
         int maxCount = 0;
-        for (int indx = 0; indx < number; indx++) {
+        while (sm1.size() > 0) {
             Map.Pair<String, Integer> current = sm1.removeFirst();
             if (current.value() < minCount) {
                 minCount = current.value();
@@ -292,8 +301,8 @@ public final class WordCounter {
 
         Map<String, Integer> table = new Map1L<String, Integer>();
         SortingMachine<Map.Pair<String, Integer>> sm = createMap(inFile,
-                outFile, table);
-        htmlPage(inFile, outFile, sm, num);
+                outFile, table, num);
+        htmlPage(inFile, outFile, sm);
 
         /*
          * Close input and output streams